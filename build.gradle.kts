@@ -12,6 +12,7 @@ plugins {
     id("org.sonarqube") version "6.2.0.5505"
     id("com.google.cloud.tools.jib") version "3.4.5"
     id("org.owasp.dependencycheck") version "12.1.3"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.aversion"
@@ -81,6 +82,9 @@ dependencies {
     implementation("commons-io:commons-io:2.20.0")
     implementation("org.jetbrains:annotations:26.0.2")
 
+    // Compile-time module and tool registry
+    annotationProcessor(project(":processor"))
+
     // HTML parsing for web module
     implementation("org.jsoup:jsoup:1.21.1")
 
@@ -136,7 +140,9 @@ tasks.build {
 }
 
 tasks.compileJava {
-    options.compilerArgs.addAll(listOf("-parameters", "-proc:none"))
+    val schemaDir = layout.projectDirectory.dir("src/main/resources/tools")
+    inputs.dir(schemaDir).withPropertyName("toolSchemas")
+    options.compilerArgs.addAll(listOf("-parameters", "-Aaversion.schemaDir=${schemaDir.asFile.absolutePath}"))
     options.isIncremental = true
 }
 
@@ -290,6 +296,13 @@ jib {
     }
 }
 
+jmh {
+    jmhVersion = "1.37"
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+}
+
 sonarqube {
     properties {
         property("sonar.projectKey", "aversion-server")
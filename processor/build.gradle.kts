@@ -0,0 +1,17 @@
+plugins {
+    java
+}
+
+group = "com.aversion"
+version = "1.0.0"
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+}
+
+dependencies {
+    // Schemas are parsed at compile time and embedded in the generated registry
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.19.2")
+}
@@ -0,0 +1,407 @@
+package com.aversion.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates a static module and tool registry from {@code @ToolDefinition} methods.
+ * <p>
+ * For every concrete module with tool methods a {@code <Module>Tools} class is generated next to
+ * the module. It builds the module's {@code Tool} instances with method references and with the
+ * input schemas embedded as literals, so nothing is scanned, parsed or looked up reflectively at
+ * runtime. A {@code GeneratedModuleRegistry} listing all modules is registered as a
+ * {@code ModuleRegistry} service.
+ * <p>
+ * Schemas are read from the directory given by the {@code aversion.schemaDir} option, at
+ * {@code <schemaDir>/<moduleId>/<toolName>.json}. Modules with a tool whose schema is missing are
+ * left out of the registry with a warning. In modules that have every schema, a tool method with
+ * an invalid signature or a schema that cannot be parsed is a compile error.
+ */
+@SupportedAnnotationTypes(ToolRegistryProcessor.TOOL_DEFINITION)
+@SupportedOptions(ToolRegistryProcessor.SCHEMA_DIR_OPTION)
+public class ToolRegistryProcessor extends AbstractProcessor {
+
+  static final String TOOL_DEFINITION = "com.aversion.server.tools.ToolDefinition";
+  static final String SCHEMA_DIR_OPTION = "aversion.schemaDir";
+
+  private static final String BASE_MODULE = "com.aversion.server.modules.BaseModule";
+  private static final String JSON_NODE = "com.fasterxml.jackson.databind.JsonNode";
+  private static final String REGISTRY_PACKAGE = "com.aversion.server.modules";
+  private static final String REGISTRY_NAME = "GeneratedModuleRegistry";
+  private static final String REGISTRY_SERVICE = "META-INF/services/com.aversion.server.modules.ModuleRegistry";
+  private static final String GENERATED = "@javax.annotation.processing.Generated(\"" + ToolRegistryProcessor.class.getName() + "\")";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private boolean generated = false;
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (generated || annotations.isEmpty()) {
+      return false;
+    }
+    generated = true;
+
+    TypeElement toolDefinition = processingEnv.getElementUtils().getTypeElement(TOOL_DEFINITION);
+    Map<String, List<ExecutableElement>> methodsByModule = new TreeMap<>();
+    Map<String, TypeElement> moduleTypes = new TreeMap<>();
+
+    for (Element element : roundEnv.getElementsAnnotatedWith(toolDefinition)) {
+      if (element.getKind() != ElementKind.METHOD) {
+        continue;
+      }
+      TypeElement owner = (TypeElement) element.getEnclosingElement();
+      String ownerName = owner.getQualifiedName().toString();
+      moduleTypes.put(ownerName, owner);
+      methodsByModule.computeIfAbsent(ownerName, key -> new ArrayList<>()).add((ExecutableElement) element);
+    }
+
+    List<ModuleModel> modules = new ArrayList<>();
+    for (Map.Entry<String, List<ExecutableElement>> entry : methodsByModule.entrySet()) {
+      ModuleModel module = analyze(moduleTypes.get(entry.getKey()), entry.getValue());
+      if (module != null) {
+        modules.add(module);
+      }
+    }
+
+    try {
+      for (ModuleModel module : modules) {
+        writeToolsClass(module);
+      }
+      writeRegistry(modules);
+    } catch (IOException e) {
+      error(null, "Failed to generate tool registry: " + e.getMessage());
+    }
+
+    return false;
+  }
+
+  /**
+   * Check a module and its tool methods, and load the tool schemas.
+   *
+   * @return The module model, or null if the module cannot be part of the registry
+   */
+  private ModuleModel analyze(TypeElement type, List<ExecutableElement> methods) {
+    TypeMirror baseModule = processingEnv.getElementUtils().getTypeElement(BASE_MODULE).asType();
+    if (type.getKind() != ElementKind.CLASS
+      || type.getModifiers().contains(Modifier.ABSTRACT)
+      || !processingEnv.getTypeUtils().isSubtype(type.asType(), baseModule)) {
+      error(type, "@ToolDefinition methods must be declared in a concrete subclass of " + BASE_MODULE);
+      return null;
+    }
+
+    String simpleName = type.getSimpleName().toString().toLowerCase();
+    String moduleId = simpleName.substring(0, Math.max(0, simpleName.length() - "module".length()));
+
+    methods.sort(Comparator.comparing(method -> method.getSimpleName().toString()));
+
+    String schemaDir = processingEnv.getOptions().get(SCHEMA_DIR_OPTION);
+    if (schemaDir == null) {
+      error(type, "Option -A" + SCHEMA_DIR_OPTION + " is required to read tool input schemas");
+      return null;
+    }
+
+    List<String> missing = methods.stream()
+      .map(method -> annotationValue(method, "name"))
+      .filter(name -> !Files.isRegularFile(schemaFile(schemaDir, moduleId, name)))
+      .toList();
+    if (!missing.isEmpty()) {
+      warning(type, "Skipping module " + type.getQualifiedName() + ": input schema not found for tools " + missing);
+      return null;
+    }
+
+    boolean valid = true;
+    for (ExecutableElement method : methods) {
+      valid &= isValidToolMethod(method);
+    }
+    if (!valid) {
+      return null;
+    }
+
+    List<ToolModel> tools = new ArrayList<>();
+    for (ExecutableElement method : methods) {
+      String name = annotationValue(method, "name");
+      String description = annotationValue(method, "description");
+
+      JsonNode schema = readSchema(method, schemaFile(schemaDir, moduleId, name));
+      if (schema == null) {
+        valid = false;
+        continue;
+      }
+
+      tools.add(new ToolModel(name, description, method.getSimpleName().toString(), schema));
+    }
+    if (!valid) {
+      return null;
+    }
+
+    boolean instantiable = type.getModifiers().contains(Modifier.PUBLIC)
+      && ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+      .anyMatch(constructor -> constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC));
+
+    return new ModuleModel(type, tools, instantiable);
+  }
+
+  private boolean isValidToolMethod(ExecutableElement method) {
+    if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) {
+      error(method, "Tool method must be a non-private instance method so generated code can call it");
+      return false;
+    }
+
+    if (method.getParameters().size() != 1
+      || !processingEnv.getTypeUtils().erasure(method.getParameters().getFirst().asType()).toString().equals(JSON_NODE)) {
+      error(method, "Tool method must accept a single JsonNode parameter");
+      return false;
+    }
+
+    if (!processingEnv.getTypeUtils().erasure(method.getReturnType()).toString().equals("java.util.Map")) {
+      error(method, "Tool method must return Map<String, Object>");
+      return false;
+    }
+
+    return true;
+  }
+
+  private static Path schemaFile(String schemaDir, String moduleId, String toolName) {
+    return Path.of(schemaDir, moduleId, toolName + ".json");
+  }
+
+  /**
+   * Read the input schema of a tool, reporting an error on the tool method if it cannot be parsed.
+   */
+  private JsonNode readSchema(ExecutableElement method, Path schemaFile) {
+    try {
+      return objectMapper.readTree(schemaFile.toFile());
+    } catch (IOException e) {
+      error(method, "Failed to parse input schema " + schemaFile + ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  private String annotationValue(ExecutableElement method, String attribute) {
+    for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+      if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(TOOL_DEFINITION)) {
+        continue;
+      }
+      for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+        processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+        if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+          return String.valueOf(entry.getValue().getValue());
+        }
+      }
+    }
+    return "";
+  }
+
+  private void writeToolsClass(ModuleModel module) throws IOException {
+    String packageName = packageOf(module.type());
+    String moduleName = module.type().getQualifiedName().toString();
+    String className = module.type().getSimpleName() + "Tools";
+
+    StringBuilder source = new StringBuilder();
+    source.append("package ").append(packageName).append(";\n\n");
+    source.append(GENERATED).append('\n');
+    source.append("public final class ").append(className).append(" {\n\n");
+    source.append("  private ").append(className).append("() {\n  }\n\n");
+
+    source.append("  public static java.util.List<com.aversion.server.tools.Tool> create(").append(moduleName).append(" module) {\n");
+    source.append("    return java.util.List.of(\n");
+    for (Iterator<ToolModel> it = module.tools().iterator(); it.hasNext(); ) {
+      ToolModel tool = it.next();
+      source.append("      new com.aversion.server.tools.Tool(")
+        .append(literal(tool.name())).append(", ")
+        .append(literal(tool.description())).append(", ")
+        .append("new com.aversion.server.utils.InputSchema(").append(schemaMethod(tool)).append("()), ")
+        .append("module::").append(tool.methodName()).append(')')
+        .append(it.hasNext() ? ",\n" : "\n");
+    }
+    source.append("    );\n  }\n");
+
+    for (ToolModel tool : module.tools()) {
+      source.append("\n  private static java.util.Map<String, Object> ").append(schemaMethod(tool)).append("() {\n");
+      source.append("    return ");
+      appendValue(source, tool.schema(), 2);
+      source.append(";\n  }\n");
+    }
+    source.append("}\n");
+
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName + "." + className, module.type());
+    try (Writer writer = file.openWriter()) {
+      writer.write(source.toString());
+    }
+  }
+
+  private void writeRegistry(List<ModuleModel> modules) throws IOException {
+    StringBuilder source = new StringBuilder();
+    source.append("package ").append(REGISTRY_PACKAGE).append(";\n\n");
+    source.append(GENERATED).append('\n');
+    source.append("public final class ").append(REGISTRY_NAME).append(" implements ModuleRegistry {\n\n");
+
+    source.append("  @Override\n  public java.util.List<BaseModule> createModules() {\n    return java.util.List.of(");
+    String separator = "\n";
+    for (ModuleModel module : modules) {
+      if (module.instantiable()) {
+        source.append(separator).append("      new ").append(module.type().getQualifiedName()).append("()");
+        separator = ",\n";
+      }
+    }
+    source.append("\n    );\n  }\n\n");
+
+    source.append("  @Override\n  public java.util.List<com.aversion.server.tools.Tool> createTools(BaseModule module) {\n");
+    source.append("    Class<?> type = module.getClass();\n");
+    for (ModuleModel module : modules) {
+      String moduleName = module.type().getQualifiedName().toString();
+      source.append("    if (type == ").append(moduleName).append(".class) {\n");
+      source.append("      return ").append(packageOf(module.type())).append('.').append(module.type().getSimpleName())
+        .append("Tools.create((").append(moduleName).append(") module);\n");
+      source.append("    }\n");
+    }
+    source.append("    return null;\n  }\n}\n");
+
+    Element[] origins = modules.stream().map(ModuleModel::type).toArray(Element[]::new);
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(REGISTRY_PACKAGE + "." + REGISTRY_NAME, origins);
+    try (Writer writer = file.openWriter()) {
+      writer.write(source.toString());
+    }
+
+    FileObject service = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", REGISTRY_SERVICE, origins);
+    try (Writer writer = service.openWriter()) {
+      writer.write(REGISTRY_PACKAGE + "." + REGISTRY_NAME + "\n");
+    }
+  }
+
+  /**
+   * Append a JSON value as a Java expression. Objects keep their key order.
+   */
+  private void appendValue(StringBuilder source, JsonNode node, int depth) {
+    String indent = "  ".repeat(depth + 1);
+
+    if (node.isObject()) {
+      if (node.isEmpty()) {
+        source.append("java.util.Map.of()");
+        return;
+      }
+      source.append("com.aversion.server.utils.InputSchema.orderedMap(");
+      String separator = "\n";
+      for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> field = it.next();
+        source.append(separator).append(indent).append(literal(field.getKey())).append(", ");
+        appendValue(source, field.getValue(), depth + 1);
+        separator = ",\n";
+      }
+      source.append(')');
+    } else if (node.isArray()) {
+      source.append("java.util.List.of(");
+      String separator = "";
+      for (JsonNode element : node) {
+        source.append(separator);
+        appendValue(source, element, depth + 1);
+        separator = ", ";
+      }
+      source.append(')');
+    } else if (node.isTextual()) {
+      source.append(literal(node.textValue()));
+    } else if (node.isBoolean()) {
+      source.append(node.booleanValue());
+    } else if (node.isInt()) {
+      source.append(node.intValue());
+    } else if (node.isIntegralNumber()) {
+      source.append(node.longValue()).append('L');
+    } else if (node.isNumber()) {
+      source.append(node.doubleValue()).append('d');
+    } else {
+      // Immutable collections do not accept null, and schemas have no use for JSON null
+      error(null, "Unsupported value in input schema: " + node);
+      source.append("\"\"");
+    }
+  }
+
+  private static String schemaMethod(ToolModel tool) {
+    StringBuilder name = new StringBuilder();
+    boolean upper = false;
+    for (char c : tool.name().toCharArray()) {
+      if (c == '_' || !Character.isJavaIdentifierPart(c)) {
+        upper = true;
+      } else {
+        name.append(upper ? Character.toUpperCase(c) : c);
+        upper = false;
+      }
+    }
+    return name + "Schema";
+  }
+
+  private static String literal(String value) {
+    StringBuilder literal = new StringBuilder("\"");
+    for (char c : value.toCharArray()) {
+      switch (c) {
+        case '"' -> literal.append("\\\"");
+        case '\\' -> literal.append("\\\\");
+        case '\n' -> literal.append("\\n");
+        case '\r' -> literal.append("\\r");
+        case '\t' -> literal.append("\\t");
+        default -> {
+          if (c < 0x20 || c > 0x7e) {
+            literal.append(String.format("\\u%04x", (int) c));
+          } else {
+            literal.append(c);
+          }
+        }
+      }
+    }
+    return literal.append('"').toString();
+  }
+
+  private String packageOf(TypeElement type) {
+    PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+    return packageElement.getQualifiedName().toString();
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  private void warning(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+  }
+
+  private record ModuleModel(TypeElement type, List<ToolModel> tools, boolean instantiable) {
+  }
+
+  private record ToolModel(String name, String description, String methodName, JsonNode schema) {
+  }
+}
@@ -11,4 +11,6 @@ dependencyResolutionManagement {
     repositories {
         mavenCentral()
     }
-}
\ No newline at end of file
+}
+
+include("processor")
@@ -0,0 +1,68 @@
+package com.aversion.server.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of dispatching a tool call through each {@link ToolInvokers} strategy.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ToolInvokerBenchmark {
+
+  private Tool.ToolHandler reflective;
+  private Tool.ToolHandler methodHandle;
+  private Tool.ToolHandler generated;
+  private JsonNode arguments;
+
+  @Setup
+  public void setUp() throws Throwable {
+    SampleTools tools = new SampleTools();
+    Method method = SampleTools.class.getDeclaredMethod("echo", JsonNode.class);
+
+    reflective = ToolInvokers.reflective(tools, method);
+    methodHandle = ToolInvokers.methodHandle(tools, method);
+    generated = ToolInvokers.generated(tools, method);
+    arguments = new ObjectMapper().readTree("{\"value\":\"benchmark\"}");
+  }
+
+  @Benchmark
+  public Map<String, Object> reflective() throws Exception {
+    return reflective.handle(arguments);
+  }
+
+  @Benchmark
+  public Map<String, Object> methodHandle() throws Exception {
+    return methodHandle.handle(arguments);
+  }
+
+  @Benchmark
+  public Map<String, Object> generated() throws Exception {
+    return generated.handle(arguments);
+  }
+
+  /**
+   * Stand-in for a module, with a private tool method like the real modules.
+   */
+  static class SampleTools {
+
+    @ToolDefinition(name = "echo", description = "Echo the value argument")
+    private Map<String, Object> echo(JsonNode args) {
+      return Map.of("value", args.path("value").asText());
+    }
+  }
+}
@@ -1,14 +1,29 @@
 package com.aversion.server;
 
+import com.aversion.server.execution.Cancellation;
+import com.aversion.server.execution.RequestExecutor;
+import com.aversion.server.execution.ServerBusyException;
 import com.aversion.server.tools.Tool;
+import com.aversion.server.tools.ToolSchemaValidator;
 import com.aversion.server.transport.ServerTransport;
+import com.aversion.server.utils.ApplicationConfig;
+import com.aversion.server.utils.ResponseBuilder;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * Core MCP server implementation.
@@ -19,10 +34,22 @@ import java.util.concurrent.ConcurrentHashMap;
 public class AversionServer {
   private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
   private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final int INVALID_REQUEST = -32600;
+  private static final int SERVER_BUSY = -32001;
+  private static final int REQUEST_CANCELLED = -32800;
 
   private final String name;
   private final String version;
   private final Map<String, Tool> tools = new ConcurrentHashMap<>();
+  private final Map<String, String> toolModules = new ConcurrentHashMap<>();
+  private final RequestExecutor requestExecutor;
+  private final ToolSchemaValidator schemaValidator = new ToolSchemaValidator();
+  private final Map<String, Cancellation> activeToolCalls = new ConcurrentHashMap<>();
+  private final AtomicLong cancelledRequests = new AtomicLong();
+  private final AtomicLong toolSetVersion = new AtomicLong();
+  private volatile CachedToolsList cachedToolsList;
+  private final int batchConcurrency = Math.max(1, ApplicationConfig.getInt("performance.batch.max-concurrency", 8));
+  private final int batchMaxSize = Math.max(1, ApplicationConfig.getInt("performance.batch.max-size", 1000));
   private ServerTransport transport;
 
   /**
@@ -32,8 +59,20 @@ public class AversionServer {
    * @param version The version of the server.
    */
   public AversionServer(String name, String version) {
+    this(name, version, new RequestExecutor());
+  }
+
+  /**
+   * Constructs a new {@code AversionServer} that runs requests on the given executor.
+   *
+   * @param name            The name of the server.
+   * @param version         The version of the server.
+   * @param requestExecutor The executor requests are submitted to.
+   */
+  AversionServer(String name, String version, RequestExecutor requestExecutor) {
     this.name = name;
     this.version = version;
+    this.requestExecutor = requestExecutor;
   }
 
   public String getName() {
@@ -50,15 +89,67 @@ public class AversionServer {
    * @param tool The tool to register
    */
   public void registerTool(Tool tool) {
+    registerTool(tool, RequestExecutor.DEFAULT_LANE);
+  }
+
+  /**
+   * Register a tool owned by a module. Calls to the tool count against that module's
+   * concurrency limit, and their arguments are validated against the tool's input schema.
+   *
+   * @param tool     The tool to register
+   * @param moduleId ID of the module that owns the tool
+   */
+  public void registerTool(Tool tool, String moduleId) {
     if (tools.containsKey(tool.name())) {
       throw new IllegalArgumentException("Tool '" + tool.name() + "' is already registered");
     }
 
-    tools.put(tool.name(), tool);
+    tools.put(tool.name(), new Tool(tool.name(), tool.description(), tool.inputSchema(), createValidatingHandler(tool)));
+    toolModules.put(tool.name(), moduleId);
+    toolSetVersion.incrementAndGet();
 
     logger.debug("Registered tool: {}", tool.name());
   }
 
+  /**
+   * Remove a tool from the server.
+   *
+   * @param name The name of the tool to remove
+   * @return True if the tool was registered, false otherwise
+   */
+  public boolean unregisterTool(String name) {
+    if (tools.remove(name) == null) {
+      return false;
+    }
+
+    toolModules.remove(name);
+    toolSetVersion.incrementAndGet();
+
+    logger.debug("Unregistered tool: {}", name);
+    return true;
+  }
+
+  /**
+   * Wrap a tool's handler so that arguments are checked against the tool's compiled input schema
+   * before the handler runs. Invalid arguments produce a tool error result.
+   */
+  private Tool.ToolHandler createValidatingHandler(Tool tool) {
+    ToolSchemaValidator.CompiledSchema schema = schemaValidator.compile(tool.inputSchema());
+    Tool.ToolHandler handler = tool.handler();
+    if (schema == null) {
+      return handler;
+    }
+
+    return arguments -> {
+      List<String> errors = schema.validate(arguments);
+      if (!errors.isEmpty()) {
+        logger.debug("Rejected arguments for tool {}: {}", tool.name(), errors);
+        return ResponseBuilder.createErrorResponse("Input validation failed: " + String.join(", ", errors));
+      }
+      return handler.handle(arguments);
+    };
+  }
+
   /**
    * Connect the server to a transport layer.
    *
@@ -69,6 +160,7 @@ public class AversionServer {
 
     // Setup message handlers
     transport.onMessage(this::handleMessage);
+    transport.onJsonMessage(this::handleJsonMessage);
 
     // Start the transport
     transport.start();
@@ -83,19 +175,244 @@ public class AversionServer {
    * @return CompletableFuture with the response
    */
   private CompletableFuture<String> handleMessage(String message) {
-    return CompletableFuture.supplyAsync(() -> {
-      try {
-        var jsonMessage = objectMapper.readTree(message);
-        return processMessage(jsonMessage);
-
-      } catch (JsonProcessingException e) {
-        logger.error("Failed to parse message", e);
-        return createErrorResponse("Invalid JSON message");
-      } catch (Exception e) {
-        logger.error("Error processing message", e);
+    JsonNode jsonMessage;
+    try {
+      jsonMessage = objectMapper.readTree(message);
+    } catch (JsonProcessingException e) {
+      logger.error("Failed to parse message", e);
+      return CompletableFuture.completedFuture(createErrorResponse("Invalid JSON message"));
+    }
+
+    return handleJsonMessage(jsonMessage);
+  }
+
+  /**
+   * Handle messages that have already been parsed, either by {@link #handleMessage(String)}
+   * or directly by the transport layer.
+   *
+   * @param message The parsed message
+   * @return CompletableFuture with the response
+   */
+  private CompletableFuture<String> handleJsonMessage(JsonNode message) {
+    if (message.isArray()) {
+      return handleBatch(message);
+    }
+
+    return dispatch(message);
+  }
+
+  /**
+   * Submit a single request to the request executor.
+   * <p>
+   * Tool calls run in the lane of the module that owns the tool; everything else runs in the
+   * default lane. If the executor is saturated the request is answered with a "server busy"
+   * error instead of being queued. Cancel notifications are handled immediately, so they are
+   * not held up behind the requests they cancel.
+   *
+   * @param message The parsed request
+   * @return CompletableFuture with the response
+   */
+  private CompletableFuture<String> dispatch(JsonNode message) {
+    String method = message.path("method").asText();
+    if ("$/cancelRequest".equals(method) || "notifications/cancelled".equals(method)) {
+      handleCancelRequest(message.path("params"));
+      return CompletableFuture.completedFuture(null);
+    }
+
+    JsonNode id = message.path("id");
+    if ("tools/call".equals(method) && !id.isMissingNode() && !id.isNull()) {
+      return dispatchToolCall(message, id.toString());
+    }
+
+    return submit(message, () -> processSafely(message));
+  }
+
+  /**
+   * Submit a tool call that can be cancelled by its request id while it is waiting or running.
+   */
+  private CompletableFuture<String> dispatchToolCall(JsonNode message, String requestKey) {
+    Cancellation cancellation = new Cancellation();
+    activeToolCalls.put(requestKey, cancellation);
+
+    return submit(message, () -> {
+      if (cancellation.isCancelled()) {
+        return createErrorResponse(message.path("id"), REQUEST_CANCELLED, "Request cancelled");
+      }
+
+      String response;
+      try (Cancellation.Scope ignored = cancellation.enter()) {
+        response = processSafely(message);
+      }
+      return cancellation.isCancelled() ? createErrorResponse(message.path("id"), REQUEST_CANCELLED, "Request cancelled") : response;
+    }).whenComplete((response, error) -> activeToolCalls.remove(requestKey, cancellation));
+  }
+
+  /**
+   * Cancel an in-flight tool call. Accepts both {@code $/cancelRequest} ({@code params.id}) and
+   * MCP {@code notifications/cancelled} ({@code params.requestId}).
+   *
+   * @param params The notification parameters
+   */
+  private void handleCancelRequest(JsonNode params) {
+    JsonNode id = params.has("requestId") ? params.get("requestId") : params.path("id");
+    Cancellation cancellation = activeToolCalls.get(id.toString());
+    if (cancellation != null && cancellation.cancel()) {
+      cancelledRequests.incrementAndGet();
+      logger.info("Cancelled request {}", id);
+    }
+  }
+
+  private CompletableFuture<String> submit(JsonNode message, Supplier<String> task) {
+    return requestExecutor.submit(laneFor(message), task)
+      .handle((response, error) -> {
+        if (error == null) {
+          return response;
+        }
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ServerBusyException) {
+          logger.warn("Rejecting request, server busy: {}", cause.getMessage());
+          return createErrorResponse(message.path("id"), SERVER_BUSY, "Server busy, retry later");
+        }
+
+        logger.error("Error processing message", cause);
         return createErrorResponse("Internal server error");
+      });
+  }
+
+  private String laneFor(JsonNode message) {
+    if ("tools/call".equals(message.path("method").asText())) {
+      String module = toolModules.get(message.path("params").path("name").asText());
+      if (module != null) {
+        return module;
       }
-    });
+    }
+    return RequestExecutor.DEFAULT_LANE;
+  }
+
+  /**
+   * Handle a JSON-RPC batch.
+   * <p>
+   * Elements are dispatched in parallel through the request executor, with at most
+   * {@code performance.batch.max-concurrency} of them in flight at once. The individual
+   * responses are gathered into a single array, in request order, and notifications
+   * (elements without an {@code id}) are omitted as required by JSON-RPC 2.0.
+   * <p>
+   * Batches larger than {@code performance.batch.max-size} are rejected as a whole. A request
+   * that reuses the id of an earlier request in the same batch is answered with an error
+   * instead of being run, since responses and cancellations are matched by id.
+   *
+   * @param batch The batch array
+   * @return CompletableFuture with the array response, or {@code null} if nothing needs answering
+   */
+  private CompletableFuture<String> handleBatch(JsonNode batch) {
+    int size = batch.size();
+    if (size == 0) {
+      return CompletableFuture.completedFuture(createErrorResponse(null, INVALID_REQUEST, "Invalid Request: empty batch"));
+    }
+    if (size > batchMaxSize) {
+      return CompletableFuture.completedFuture(createErrorResponse(null, INVALID_REQUEST,
+        "Invalid Request: batch of " + size + " elements exceeds the limit of " + batchMaxSize));
+    }
+
+    String[] responses = new String[size];
+    boolean[] duplicates = findDuplicateIds(batch);
+    AtomicInteger nextIndex = new AtomicInteger();
+    int workers = Math.min(size, batchConcurrency);
+
+    CompletableFuture<?>[] runners = new CompletableFuture<?>[workers];
+    for (int i = 0; i < workers; i++) {
+      runners[i] = runBatchLane(batch, duplicates, responses, nextIndex);
+    }
+
+    return CompletableFuture.allOf(runners).thenApply(ignored -> joinBatchResponses(responses));
+  }
+
+  /**
+   * Mark every request whose id already appeared earlier in the batch.
+   */
+  private boolean[] findDuplicateIds(JsonNode batch) {
+    boolean[] duplicates = new boolean[batch.size()];
+    Set<String> seen = new HashSet<>();
+    for (int i = 0; i < batch.size(); i++) {
+      JsonNode id = batch.get(i).path("id");
+      if (!id.isMissingNode() && !id.isNull() && !seen.add(id.toString())) {
+        duplicates[i] = true;
+      }
+    }
+    return duplicates;
+  }
+
+  /**
+   * Process batch elements one after another until none are left. Each element is submitted
+   * to the request executor on its own, so module limits and admission apply per element.
+   * <p>
+   * Elements whose response is already available are handled in a loop; the lane only
+   * continues asynchronously when a response is still pending, so the stack stays flat no
+   * matter how large the batch is.
+   */
+  private CompletableFuture<Void> runBatchLane(JsonNode batch, boolean[] duplicates, String[] responses, AtomicInteger nextIndex) {
+    int index;
+    while ((index = nextIndex.getAndIncrement()) < batch.size()) {
+      JsonNode element = batch.get(index);
+      if (!element.isObject()) {
+        responses[index] = createErrorResponse(null, INVALID_REQUEST, "Invalid Request");
+        continue;
+      }
+      if (duplicates[index]) {
+        responses[index] = createErrorResponse(element.get("id"), INVALID_REQUEST, "Invalid Request: duplicate id in batch");
+        continue;
+      }
+
+      CompletableFuture<String> response = dispatch(element);
+      if (!response.isDone()) {
+        int pending = index;
+        return response.thenCompose(result -> {
+          storeBatchResponse(element, pending, result, responses);
+          return runBatchLane(batch, duplicates, responses, nextIndex);
+        });
+      }
+      storeBatchResponse(element, index, response.join(), responses);
+    }
+
+    return CompletableFuture.completedFuture(null);
+  }
+
+  private void storeBatchResponse(JsonNode element, int index, String response, String[] responses) {
+    if (element.has("id")) {
+      responses[index] = response;
+    }
+  }
+
+  private String joinBatchResponses(String[] responses) {
+    StringBuilder joined = new StringBuilder("[");
+    for (String response : responses) {
+      if (response == null || response.isEmpty()) {
+        continue;
+      }
+      if (joined.length() > 1) {
+        joined.append(',');
+      }
+      joined.append(response);
+    }
+
+    return joined.length() > 1 ? joined.append(']').toString() : null;
+  }
+
+  /**
+   * Process a single message, converting unexpected failures into an error response.
+   *
+   * @param message The parsed message
+   * @return JSON response string
+   */
+  private String processSafely(JsonNode message) {
+    try {
+      return processMessage(message);
+
+    } catch (Exception e) {
+      logger.error("Error processing message", e);
+      return createErrorResponse("Internal server error");
+    }
   }
 
   /**
@@ -118,26 +435,52 @@ public class AversionServer {
 
   /**
    * Handle tools/list request.
+   * <p>
+   * The serialized result is cached until the tool set changes, and only the request id is
+   * written per call.
    *
    * @param id Request ID
    * @return JSON response
    */
   private String handleToolsList(JsonNode id) throws JsonProcessingException {
+    String result = getToolsListResult();
+    String idJson = id == null || id.isMissingNode() ? "null" : objectMapper.writeValueAsString(id);
+
+    return new StringBuilder(result.length() + idJson.length() + 40)
+      .append("{\"jsonrpc\":\"2.0\",\"id\":").append(idJson)
+      .append(",\"result\":").append(result)
+      .append('}')
+      .toString();
+  }
+
+  /**
+   * Get the serialized tools/list result, rebuilding it if tools were registered or removed
+   * since it was last built.
+   */
+  String getToolsListResult() throws JsonProcessingException {
+    long version = toolSetVersion.get();
+    CachedToolsList cached = cachedToolsList;
+    if (cached != null && cached.version() == version) {
+      return cached.json();
+    }
+
     var toolsList = tools.values().stream()
-      .map(tool -> Map.of(
-        "name", tool.name(),
-        "description", tool.description(),
-        "inputSchema", tool.inputSchema()
-      ))
+      .map(tool -> {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("name", tool.name());
+        entry.put("description", tool.description());
+        entry.put("inputSchema", tool.inputSchema());
+        return entry;
+      })
       .toList();
 
-    var response = Map.of(
-      "jsonrpc", "2.0",
-      "id", id,
-      "result", Map.of("tools", toolsList)
-    );
+    String json = objectMapper.writeValueAsString(Map.of("tools", toolsList));
 
-    return objectMapper.writeValueAsString(response);
+    // Only publish if the tool set did not change while serializing
+    if (toolSetVersion.get() == version) {
+      cachedToolsList = new CachedToolsList(version, json);
+    }
+    return json;
   }
 
   /**
@@ -223,6 +566,25 @@ public class AversionServer {
     }
   }
 
+  /**
+   * Create a JSON-RPC error response with an explicit request id and error code.
+   *
+   * @param id      Request ID, or null if it could not be determined
+   * @param code    JSON-RPC error code
+   * @param message Error message
+   * @return JSON error response
+   */
+  private String createErrorResponse(JsonNode id, int code, String message) {
+    var response = objectMapper.createObjectNode();
+    response.put("jsonrpc", "2.0");
+    response.set("id", id == null || id.isMissingNode() ? objectMapper.nullNode() : id);
+    response.putObject("error")
+      .put("code", code)
+      .put("message", message);
+
+    return response.toString();
+  }
+
   /**
    * Get all registered tools.
    *
@@ -231,4 +593,24 @@ public class AversionServer {
   public Map<String, Tool> getTools() {
     return Map.copyOf(tools);
   }
-}
\ No newline at end of file
+
+  /**
+   * Get server metrics.
+   *
+   * @return Map containing request execution, argument validation and cancellation statistics
+   */
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("requests", requestExecutor.getMetrics());
+    metrics.put("validation", schemaValidator.getMetrics());
+    metrics.put("activeToolCalls", activeToolCalls.size());
+    metrics.put("cancelledRequests", cancelledRequests.get());
+    return metrics;
+  }
+
+  /**
+   * Serialized tools/list result for a given version of the tool set.
+   */
+  private record CachedToolsList(long version, String json) {
+  }
+}
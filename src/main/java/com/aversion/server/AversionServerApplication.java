@@ -1,7 +1,10 @@
 package com.aversion.server;
 
 import com.aversion.server.modules.ModuleManager;
+import com.aversion.server.transport.ChannelServerTransport;
+import com.aversion.server.transport.ServerTransport;
 import com.aversion.server.transport.StdioServerTransport;
+import com.aversion.server.utils.ApplicationConfig;
 import com.aversion.server.utils.ProductionUtils;
 
 import java.util.concurrent.CompletableFuture;
@@ -92,9 +95,20 @@ public final class AversionServerApplication {
 
   /**
    * Setup and start the transport layer.
+   * <p>
+   * The {@code transport.mode} setting selects between the line-based stdio transport and the
+   * streaming channel transport, which parses messages directly from bytes.
    */
   private void setupTransport() {
-    StdioServerTransport transport = new StdioServerTransport();
+    String mode = ApplicationConfig.getString("transport.mode", "stdio");
+    ServerTransport transport = switch (mode.toLowerCase()) {
+      case "channel" -> new ChannelServerTransport();
+      case "stdio" -> new StdioServerTransport();
+      default -> {
+        LOGGER.warn("Unknown transport mode '{}', falling back to stdio", mode);
+        yield new StdioServerTransport();
+      }
+    };
     logModuleInfo();
     server.connect(transport);
   }
@@ -0,0 +1,121 @@
+package com.aversion.server.execution;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cancellation signal for a unit of work, such as a request or a database task.
+ * <p>
+ * Work running on a thread finds its cancellation with {@link #current()} and registers actions
+ * that stop blocking operations, for example {@code Statement.cancel()}. Cancelling runs the
+ * registered actions; actions registered afterwards are refused.
+ */
+public final class Cancellation {
+
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+  private static final ThreadLocal<Cancellation> CURRENT = new ThreadLocal<>();
+
+  // Not synchronized: cancel actions may block in driver code while the lock is held
+  private final ReentrantLock lock = new ReentrantLock();
+  private final List<Runnable> actions = new ArrayList<>();
+  private volatile boolean cancelled;
+
+  /**
+   * Get the cancellation of the work running on the current thread.
+   *
+   * @return The cancellation, or null if the current work cannot be cancelled
+   */
+  public static @Nullable Cancellation current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Make this the current cancellation of the calling thread until the returned scope is closed.
+   *
+   * @return The scope, which restores the previous cancellation when closed
+   */
+  public Scope enter() {
+    Cancellation previous = CURRENT.get();
+    CURRENT.set(this);
+    return () -> {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    };
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Cancel the work and run its registered actions.
+   *
+   * @return false if the work was already cancelled
+   */
+  public boolean cancel() {
+    lock.lock();
+    try {
+      if (cancelled) {
+        return false;
+      }
+      cancelled = true;
+      // Actions may close their own registrations while running
+      List<Runnable> registered = List.copyOf(actions);
+      actions.clear();
+      for (Runnable action : registered) {
+        try {
+          action.run();
+        } catch (RuntimeException e) {
+          logger.debug("Cancel action failed: {}", e.getMessage());
+        }
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Register an action to run when the work is cancelled.
+   *
+   * @param action The action, e.g. cancelling a running statement
+   * @return The registration, to be closed once the action no longer applies
+   * @throws CancellationException if the work was already cancelled
+   */
+  public Scope onCancel(Runnable action) {
+    lock.lock();
+    try {
+      if (cancelled) {
+        throw new CancellationException("Cancelled");
+      }
+      actions.add(action);
+    } finally {
+      lock.unlock();
+    }
+
+    return () -> {
+      lock.lock();
+      try {
+        actions.remove(action);
+      } finally {
+        lock.unlock();
+      }
+    };
+  }
+
+  /**
+   * A registration or thread binding that ends when closed.
+   */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
@@ -0,0 +1,112 @@
+package com.aversion.server.execution;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread.
+ * <p>
+ * A virtual thread that blocks while holding a monitor ({@code synchronized}) or inside native
+ * code cannot unmount, so it occupies a carrier thread for the whole wait. This monitor listens
+ * for the JFR {@code jdk.VirtualThreadPinned} event, counts occurrences and logs the frame that
+ * caused the pin so offending code on the request path can be found.
+ */
+public class PinningMonitor implements AutoCloseable {
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int LOGGED_FRAMES = 5;
+
+  private final Duration threshold;
+  private final AtomicLong pinnedEvents = new AtomicLong();
+  private final AtomicLong pinnedNanos = new AtomicLong();
+  private RecordingStream stream;
+
+  /**
+   * Create a monitor.
+   *
+   * @param threshold Minimum pin duration to report
+   */
+  public PinningMonitor(Duration threshold) {
+    this.threshold = threshold;
+  }
+
+  /**
+   * Start listening for pinning events. Does nothing if JFR is not available in this runtime.
+   */
+  public synchronized void start() {
+    if (stream != null) {
+      return;
+    }
+
+    try {
+      RecordingStream recording = new RecordingStream();
+      recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+      recording.onEvent(PINNED_EVENT, this::onPinned);
+
+      // RecordingStream.startAsync uses a non-daemon thread, which would keep the JVM alive
+      Thread consumer = new Thread(recording::start, "pinning-monitor");
+      consumer.setDaemon(true);
+      consumer.start();
+      stream = recording;
+      logger.info("Virtual thread pinning detection enabled (threshold {} ms)", threshold.toMillis());
+    } catch (RuntimeException | LinkageError e) {
+      logger.warn("Virtual thread pinning detection unavailable: {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (stream != null) {
+      stream.close();
+      stream = null;
+    }
+  }
+
+  /**
+   * Get pinning statistics.
+   *
+   * @return Map containing the number of pinning events and total pinned time
+   */
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("pinnedEvents", pinnedEvents.get());
+    metrics.put("pinnedTimeMs", pinnedNanos.get() / 1_000_000);
+    return metrics;
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinnedEvents.incrementAndGet();
+    pinnedNanos.addAndGet(event.getDuration().toNanos());
+
+    logger.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), describe(event.getStackTrace()));
+  }
+
+  private static String describe(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return "<no stack trace>";
+    }
+
+    List<RecordedFrame> frames = stackTrace.getFrames();
+    StringBuilder description = new StringBuilder();
+    for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.size()); i++) {
+      RecordedFrame frame = frames.get(i);
+      if (i > 0) {
+        description.append(" <- ");
+      }
+      description.append(frame.getMethod().getType().getName())
+        .append('.')
+        .append(frame.getMethod().getName())
+        .append(':')
+        .append(frame.getLineNumber());
+    }
+    return description.toString();
+  }
+}
@@ -0,0 +1,352 @@
+package com.aversion.server.execution;
+
+import com.aversion.server.utils.ApplicationConfig;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, backpressured executor for server requests.
+ * <p>
+ * Requests are admitted only while the number of in-flight requests (running plus waiting) is
+ * below the admission capacity; beyond that they are rejected with a {@link ServerBusyException}.
+ * Each request runs in a lane, normally the id of the module that owns the tool, and every lane
+ * has its own concurrency limit so that one slow module cannot occupy every worker thread.
+ * Requests waiting for their lane do not hold a thread.
+ * <p>
+ * In {@link Mode#PLATFORM} mode requests run on a fixed-size pool of platform threads and lane
+ * limits come from {@code performance.module-concurrency}. In {@link Mode#VIRTUAL} mode every
+ * request gets its own virtual thread, so blocking I/O in tool handlers does not tie up carrier
+ * threads; lane limits then come from {@code performance.execution.virtual.module-concurrency}
+ * and default to a quarter of the admission capacity, since there is no thread pool to protect.
+ */
+public class RequestExecutor {
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+
+  /**
+   * Lane used for requests that are not tied to a module, such as {@code initialize}.
+   */
+  public static final String DEFAULT_LANE = "server";
+
+  private static final int CONFIGURED_MAX_THREADS = ApplicationConfig.getInt("performance.thread-pool.max-size", 20);
+  private static final int CONFIGURED_QUEUE_CAPACITY = ApplicationConfig.getInt("performance.thread-pool.queue-capacity", 100);
+  private static final String PLATFORM_LANE_CONFIG = "performance.module-concurrency.";
+  private static final String VIRTUAL_LANE_CONFIG = "performance.execution.virtual.module-concurrency.";
+
+  /**
+   * Kind of threads used to run requests.
+   */
+  public enum Mode {
+    PLATFORM,
+    VIRTUAL
+  }
+
+  private final Mode mode;
+  private final ExecutorService workers;
+  private final int maxInFlight;
+  private final int defaultLaneLimit;
+  private final String laneConfig;
+  private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong completedRequests = new AtomicLong();
+  private final AtomicLong rejectedRequests = new AtomicLong();
+  private PinningMonitor pinningMonitor;
+
+  /**
+   * Create an executor configured from the {@code performance.*} settings.
+   */
+  public RequestExecutor() {
+    this(configuredMode());
+  }
+
+  /**
+   * Create an executor of the given mode, with limits from the {@code performance.*} settings.
+   *
+   * @param mode The kind of threads to run requests on
+   */
+  public RequestExecutor(Mode mode) {
+    this(
+      mode,
+      mode == Mode.VIRTUAL ? createVirtualWorkers() : createPlatformWorkers(CONFIGURED_MAX_THREADS, CONFIGURED_QUEUE_CAPACITY,
+        ApplicationConfig.getLong("performance.thread-pool.keep-alive", 60)),
+      mode == Mode.VIRTUAL ? configuredVirtualMaxInFlight() : CONFIGURED_MAX_THREADS + CONFIGURED_QUEUE_CAPACITY,
+      mode == Mode.VIRTUAL ? configuredVirtualLaneLimit() : ApplicationConfig.getInt(PLATFORM_LANE_CONFIG + "default", 8)
+    );
+
+    if (mode == Mode.VIRTUAL && ApplicationConfig.getBoolean("performance.execution.virtual.pinning-detection", true)) {
+      pinningMonitor = new PinningMonitor(
+        Duration.ofMillis(ApplicationConfig.getLong("performance.execution.virtual.pinning-threshold-ms", 20)));
+      pinningMonitor.start();
+    }
+  }
+
+  private RequestExecutor(Mode mode, ExecutorService workers, int maxInFlight, int defaultLaneLimit) {
+    if (maxInFlight <= 0) {
+      throw new IllegalArgumentException("Executor limits must be positive");
+    }
+
+    this.mode = mode;
+    this.workers = workers;
+    this.maxInFlight = maxInFlight;
+    this.defaultLaneLimit = Math.max(1, defaultLaneLimit);
+    this.laneConfig = mode == Mode.VIRTUAL ? VIRTUAL_LANE_CONFIG : PLATFORM_LANE_CONFIG;
+  }
+
+  /**
+   * Create an executor backed by platform threads.
+   *
+   * @param maxThreads       Maximum number of worker threads
+   * @param queueCapacity    Number of admitted requests that may wait for a worker or lane
+   * @param keepAliveSeconds Idle time after which worker threads retire
+   * @param defaultLaneLimit Concurrency limit for lanes without an explicit setting
+   * @return The executor
+   */
+  public static RequestExecutor platform(int maxThreads, int queueCapacity, long keepAliveSeconds, int defaultLaneLimit) {
+    if (maxThreads <= 0 || queueCapacity < 0) {
+      throw new IllegalArgumentException("Executor limits must be positive");
+    }
+    return new RequestExecutor(Mode.PLATFORM, createPlatformWorkers(maxThreads, queueCapacity, keepAliveSeconds),
+      maxThreads + queueCapacity, defaultLaneLimit);
+  }
+
+  /**
+   * Create an executor that runs every request on its own virtual thread.
+   *
+   * @param maxInFlight      Maximum number of admitted requests
+   * @param defaultLaneLimit Concurrency limit for lanes without an explicit setting
+   * @return The executor
+   */
+  public static RequestExecutor virtual(int maxInFlight, int defaultLaneLimit) {
+    return new RequestExecutor(Mode.VIRTUAL, createVirtualWorkers(), maxInFlight, defaultLaneLimit);
+  }
+
+  private static Mode configuredMode() {
+    String value = ApplicationConfig.getString("performance.execution.mode", "platform");
+    try {
+      return Mode.valueOf(value.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      logger.warn("Unknown execution mode '{}', falling back to platform threads", value);
+      return Mode.PLATFORM;
+    }
+  }
+
+  private static int configuredVirtualMaxInFlight() {
+    return ApplicationConfig.getInt("performance.execution.virtual.max-in-flight", 10000);
+  }
+
+  /**
+   * Default lane limit in virtual mode: the configured value, or a quarter of the admission
+   * capacity when it is unset or 0.
+   */
+  private static int configuredVirtualLaneLimit() {
+    int configured = ApplicationConfig.getInt(VIRTUAL_LANE_CONFIG + "default", 0);
+    return configured > 0 ? configured : Math.max(1, configuredVirtualMaxInFlight() / 4);
+  }
+
+  private static ExecutorService createPlatformWorkers(int maxThreads, int queueCapacity, long keepAliveSeconds) {
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(
+      maxThreads, maxThreads,
+      keepAliveSeconds, TimeUnit.SECONDS,
+      new ArrayBlockingQueue<>(maxThreads + queueCapacity),
+      r -> {
+        Thread t = new Thread(r, "aversion-request-" + threadCount.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+      }
+    );
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  private static ExecutorService createVirtualWorkers() {
+    return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("aversion-request-vt-", 0).factory());
+  }
+
+  /**
+   * Get the kind of threads requests run on.
+   *
+   * @return The execution mode
+   */
+  public Mode getMode() {
+    return mode;
+  }
+
+  /**
+   * Submit a request for execution.
+   *
+   * @param lane Lane the request belongs to, usually a module id
+   * @param task The work to run
+   * @param <T>  Result type
+   * @return A future completed with the task's result, or exceptionally with a
+   * {@link ServerBusyException} if the request could not be admitted
+   */
+  public <T> CompletableFuture<T> submit(String lane, Supplier<T> task) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+
+    if (inFlight.incrementAndGet() > maxInFlight) {
+      inFlight.decrementAndGet();
+      rejectedRequests.incrementAndGet();
+      future.completeExceptionally(new ServerBusyException("Request queue is full"));
+      return future;
+    }
+
+    Lane target = lanes.computeIfAbsent(lane, this::createLane);
+    target.enqueue(new PendingRequest<>(target, task, future));
+    return future;
+  }
+
+  /**
+   * Get execution metrics.
+   *
+   * @return Map containing admission, thread pool and per-lane statistics
+   */
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("mode", mode.name().toLowerCase(Locale.ROOT));
+    metrics.put("inFlight", inFlight.get());
+    metrics.put("maxInFlight", maxInFlight);
+    metrics.put("completedRequests", completedRequests.get());
+    metrics.put("rejectedRequests", rejectedRequests.get());
+    if (workers instanceof ThreadPoolExecutor pool) {
+      metrics.put("activeThreads", pool.getActiveCount());
+      metrics.put("poolSize", pool.getPoolSize());
+      metrics.put("largestPoolSize", pool.getLargestPoolSize());
+    }
+
+    Map<String, Object> laneMetrics = new HashMap<>();
+    lanes.forEach((name, lane) -> laneMetrics.put(name, Map.of(
+      "limit", lane.limit,
+      "active", lane.active.get(),
+      "waiting", lane.waiting.size()
+    )));
+    metrics.put("lanes", laneMetrics);
+
+    if (pinningMonitor != null) {
+      metrics.put("pinning", pinningMonitor.getMetrics());
+    }
+
+    return metrics;
+  }
+
+  /**
+   * Stop accepting work and let running requests finish.
+   */
+  public void shutdown() {
+    workers.shutdown();
+    if (pinningMonitor != null) {
+      pinningMonitor.close();
+    }
+  }
+
+  private Lane createLane(String name) {
+    int limit = ApplicationConfig.getInt(laneConfig + name, defaultLaneLimit);
+    return new Lane(name, Math.max(1, limit));
+  }
+
+  /**
+   * A request that has been admitted but may still be waiting for its lane.
+   */
+  private final class PendingRequest<T> implements Runnable {
+    private final Lane lane;
+    private final Supplier<T> task;
+    private final CompletableFuture<T> future;
+
+    PendingRequest(Lane lane, Supplier<T> task, CompletableFuture<T> future) {
+      this.lane = lane;
+      this.task = task;
+      this.future = future;
+    }
+
+    @Override
+    public void run() {
+      try {
+        future.complete(task.get());
+      } catch (Throwable error) {
+        future.completeExceptionally(error);
+      } finally {
+        completedRequests.incrementAndGet();
+        finish();
+      }
+    }
+
+    void reject(RejectedExecutionException error) {
+      rejectedRequests.incrementAndGet();
+      future.completeExceptionally(new ServerBusyException(error.getMessage()));
+      finish();
+    }
+
+    private void finish() {
+      inFlight.decrementAndGet();
+      lane.release();
+    }
+  }
+
+  /**
+   * Per-module concurrency limit. Requests beyond the limit wait in the lane, not in a thread.
+   */
+  private final class Lane {
+    private final String name;
+    private final int limit;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Queue<PendingRequest<?>> waiting = new ConcurrentLinkedQueue<>();
+
+    Lane(String name, int limit) {
+      this.name = name;
+      this.limit = limit;
+    }
+
+    void enqueue(PendingRequest<?> request) {
+      waiting.offer(request);
+      drain();
+    }
+
+    void release() {
+      active.decrementAndGet();
+      drain();
+    }
+
+    /**
+     * Start waiting requests while the lane has capacity.
+     */
+    private void drain() {
+      while (!waiting.isEmpty()) {
+        int current = active.get();
+        if (current >= limit) {
+          return;
+        }
+        if (!active.compareAndSet(current, current + 1)) {
+          continue;
+        }
+
+        PendingRequest<?> next = waiting.poll();
+        if (next == null) {
+          active.decrementAndGet();
+          continue;
+        }
+
+        try {
+          workers.execute(next);
+        } catch (RejectedExecutionException e) {
+          logger.warn("Worker pool rejected request in lane {}", name);
+          next.reject(e);
+        }
+      }
+    }
+  }
+}
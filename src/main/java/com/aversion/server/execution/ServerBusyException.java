@@ -0,0 +1,16 @@
+package com.aversion.server.execution;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a request cannot be admitted because the request executor is saturated.
+ * <p>
+ * The server translates this into a JSON-RPC "server busy" error so that clients can back off
+ * and retry instead of piling up more work.
+ */
+public class ServerBusyException extends RejectedExecutionException {
+
+  public ServerBusyException(String message) {
+    super(message);
+  }
+}
@@ -3,20 +3,12 @@ package com.aversion.server.modules;
 import com.aversion.server.AversionServer;
 import com.aversion.server.tools.Tool;
 import com.aversion.server.utils.ReflectionUtil;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.networknt.schema.JsonSchema;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.SpecVersion;
-import com.networknt.schema.ValidationMessage;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * Base class for all MCP modules.
@@ -29,7 +21,6 @@ public abstract class BaseModule {
   protected static final com.aversion.server.utils.Logger LOGGER = com.aversion.server.utils.Logger.getInstance();
   private static final String ERROR_PREFIX = "Error: ";
   private static final String JSON_SCHEMA_VERSION = "http://json-schema.org/draft-07/schema#";
-  private static final ObjectMapper objectMapper = new ObjectMapper();
 
   private final String id;
   private final Map<String, Tool> tools = new ConcurrentHashMap<>();
@@ -100,10 +91,15 @@ public abstract class BaseModule {
    * Must be implemented by subclasses.
    */
   protected void registerTools() {
-    List<Tool> discoveredTools = ReflectionUtil.getTools(this);
+    ModuleRegistry registry = ModuleRegistry.getInstance();
+    List<Tool> discoveredTools = registry != null ? registry.createTools(this) : null;
+    if (discoveredTools == null) {
+      discoveredTools = ReflectionUtil.getTools(this);
+    }
+
     for (Tool tool : discoveredTools) {
       this.tools.put(tool.name(), tool);
-      server.registerTool(tool);
+      registerTool(tool);
     }
   }
 
@@ -128,15 +124,16 @@ public abstract class BaseModule {
    * 
    * <p>This method wraps the tool handler with error handling and monitoring,
    * validates the module is initialized, and registers the tool with the server.
+   * Arguments are validated against the input schema by the server.
    *
    * @param tool The tool to register, containing name, description, input schema, and handler
    */
   protected void registerTool(Tool tool) {
     validateInitialized();
 
-    Tool.ToolHandler wrappedHandler = createWrappedHandler(tool.name(), tool.handler(), tool.inputSchema());
+    Tool.ToolHandler wrappedHandler = createWrappedHandler(tool.name(), tool.handler());
 
-    server.registerTool(new Tool(tool.name(), tool.description(), tool.inputSchema(), wrappedHandler));
+    server.registerTool(new Tool(tool.name(), tool.description(), tool.inputSchema(), wrappedHandler), getId());
   }
 
   /**
@@ -150,24 +147,11 @@ public abstract class BaseModule {
   /**
    * Creates a wrapped handler with error handling and monitoring.
    */
-  private Tool.ToolHandler createWrappedHandler(String name, @NotNull Tool.ToolHandler handler, Map<String, Object> schema) {
-    JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
-    JsonNode schemaNode = objectMapper.convertValue(schema, JsonNode.class);
-    JsonSchema jsonSchema = factory.getSchema(schemaNode);
-
+  private Tool.ToolHandler createWrappedHandler(String name, @NotNull Tool.ToolHandler handler) {
     return (arguments) -> {
       long startTime = System.currentTimeMillis();
 
       try {
-        // Validate arguments against the schema
-        Set<ValidationMessage> errors = jsonSchema.validate(arguments);
-        if (!errors.isEmpty()) {
-          String errorMessages = errors.stream()
-            .map(ValidationMessage::getMessage)
-            .collect(Collectors.joining(", "));
-          throw new IllegalArgumentException("Input validation failed: " + errorMessages);
-        }
-
         LOGGER.debug("Executing tool: {} with args: {}", name, arguments);
         Map<String, Object> result = handler.handle(arguments);
 
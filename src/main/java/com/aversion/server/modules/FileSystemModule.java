@@ -1,5 +1,6 @@
 package com.aversion.server.modules;
 
+import com.aversion.server.modules.filesystem.FileRangeReader;
 import com.aversion.server.utils.JsonUtil;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.jetbrains.annotations.NotNull;
@@ -22,6 +23,8 @@ import java.util.stream.Stream;
  */
 public class FileSystemModule extends BaseModule {
 
+  private final FileRangeReader rangeReader = FileRangeReader.fromConfig();
+
   @Override
   public ModuleConfig getConfig() {
     return new ModuleConfig(
@@ -35,13 +38,16 @@ public class FileSystemModule extends BaseModule {
   // Tool handlers
 
   /**
-   * Handles the "read_file" tool call. Reads the content of a specified file.
+   * Handles the "read_file" tool call. Reads the content of a specified file, or a part of it.
    *
    * @param args JsonNode containing the tool arguments:
    *             - "path" (String): The absolute path to the file to read.
    *             - "encoding" (String, optional, default: "UTF-8"): The character encoding to use for reading the file.
+   *             - "offset"/"length" (optional): Byte range to read.
+   *             - "startLine"/"lineCount" (optional): Line range to read, starting at line 1.
+   *             - "head"/"tail" (optional): Number of lines to read from the start or end of the file.
    * @return A Map containing the file content as a text response.
-   * @throws Exception if the file cannot be read or the path is invalid.
+   * @throws Exception if the file cannot be read, is too large to read at once, or the path is invalid.
    */
   @com.aversion.server.tools.ToolDefinition(name = "read_file", description = "Read the contents of a file")
   private Map<String, Object> handleReadFile(JsonNode args) throws Exception {
@@ -49,9 +55,21 @@ public class FileSystemModule extends BaseModule {
     String encoding = JsonUtil.getStringField(args, "encoding", "UTF-8");
 
     Path path = Paths.get(pathStr).toAbsolutePath();
-    String content = Files.readString(path, java.nio.charset.Charset.forName(encoding));
+    FileRangeReader.Slice slice = rangeReader.read(path, java.nio.charset.Charset.forName(encoding), args);
+
+    if (!FileRangeReader.isPartialRead(args)) {
+      return createTextResponse("File content:\n" + slice.content());
+    }
 
-    return createTextResponse("File content:\n" + content);
+    StringBuilder header = new StringBuilder("File content (bytes ")
+      .append(slice.offset()).append('-').append(slice.nextOffset()).append(" of ").append(slice.fileSize());
+    if (slice.startLine() > 0 && slice.lines() > 0) {
+      header.append(", lines ").append(slice.startLine()).append('-').append(slice.startLine() + slice.lines() - 1);
+    }
+    if (slice.truncated()) {
+      header.append(", truncated");
+    }
+    return createTextResponse(header.append("):\n").append(slice.content()).toString());
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "write_file", description = "Write content to a file")
@@ -4,9 +4,9 @@ import com.aversion.server.AversionServer;
 import com.aversion.server.utils.ReflectionUtil;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -25,16 +25,25 @@ public class ModuleManager {
   }
 
   /**
-   * Discovers and registers all known modules found in the classpath.
-   * Modules are discovered using {@link ReflectionUtil#getModules()}.
+   * Discovers and registers all known modules.
+   * Modules come from the compile-time {@link ModuleRegistry}, or from
+   * {@link ReflectionUtil#getModules()} if no registry was generated.
    */
   public void registerKnownModules() {
-    Set<? extends BaseModule> knownModules = ReflectionUtil.getModules();
+    ModuleRegistry registry = ModuleRegistry.getInstance();
+    Collection<? extends BaseModule> knownModules;
+    if (registry != null) {
+      knownModules = registry.createModules();
+    } else {
+      logger.warn("No module registry found, scanning the classpath for modules");
+      knownModules = ReflectionUtil.getModules();
+    }
+
     if (knownModules.isEmpty()) {
-      logger.warn("No known modules found in the classpath");
+      logger.warn("No known modules found");
       return;
     }
-    logger.info("Found {} known modules in the classpath", knownModules.size());
+    logger.info("Found {} known modules", knownModules.size());
     registerModules(knownModules.toArray(BaseModule[]::new));
   }
 
@@ -123,7 +132,6 @@ public class ModuleManager {
    *
    * @param name The name of the module to unregister
    * @return True if the module was found and removed, false if not found
-   * @warning This only removes the module from the manager; tools remain registered with the MCP server
    */
   public boolean unregisterModule(String name) {
     BaseModule module = modules.get(name);
@@ -133,6 +141,7 @@ public class ModuleManager {
 
     try {
       module.onUnload();
+      module.getTools().keySet().forEach(server::unregisterTool);
       modules.remove(name);
       logger.info("Module unregistered: {}", name);
       return true;
@@ -143,9 +152,7 @@ public class ModuleManager {
   }
 
   /**
-   * Clear all modules from the manager.
-   *
-   * @warning This only removes modules from the manager; tools remain registered with the Aversion server
+   * Clear all modules from the manager and remove their tools from the server.
    */
   public void clear() {
     List<String> moduleNames = List.copyOf(modules.keySet());
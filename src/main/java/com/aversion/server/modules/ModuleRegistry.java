@@ -0,0 +1,52 @@
+package com.aversion.server.modules;
+
+import com.aversion.server.tools.Tool;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Static registry of modules and their tools.
+ * <p>
+ * An implementation is generated at compile time from {@code @ToolDefinition} methods and
+ * registered as a service, so startup needs no classpath scanning or reflection. When no
+ * registry is present, callers fall back to {@link com.aversion.server.utils.ReflectionUtil}.
+ */
+public interface ModuleRegistry {
+
+  /**
+   * Get the registry generated for this build.
+   *
+   * @return The registry, or null if none was generated
+   */
+  static @Nullable ModuleRegistry getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Create a new instance of every known module.
+   *
+   * @return The module instances
+   */
+  List<BaseModule> createModules();
+
+  /**
+   * Create the tools of a module.
+   *
+   * @param module The module to create tools for
+   * @return The module's tools, or null if the module is not part of this registry
+   */
+  @Nullable List<Tool> createTools(BaseModule module);
+
+  /**
+   * Lazily loaded registry instance.
+   */
+  final class Holder {
+    private static final ModuleRegistry INSTANCE =
+      ServiceLoader.load(ModuleRegistry.class, ModuleRegistry.class.getClassLoader()).findFirst().orElse(null);
+
+    private Holder() {
+    }
+  }
+}
@@ -0,0 +1,381 @@
+package com.aversion.server.modules.database;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented result of a database query.
+ * <p>
+ * Column names are stored once and values are kept per column: integers in {@code long[]},
+ * floating point numbers in {@code double[]}, strings dictionary-encoded, and nulls in a bitmap.
+ * Columns whose values have mixed types fall back to plain objects.
+ * <p>
+ * Serializes to compact JSON: {@code {"columns": [...], "data": [[column 1 values], ...]}}.
+ */
+public final class ColumnarQueryResult implements JsonSerializable {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final List<String> columns;
+  private final List<Column> data;
+  private final int rowCount;
+  private final int affectedRows;
+
+  private ColumnarQueryResult(List<String> columns, List<Column> data, int rowCount, int affectedRows) {
+    this.columns = columns;
+    this.data = data;
+    this.rowCount = rowCount;
+    this.affectedRows = affectedRows;
+  }
+
+  /**
+   * Read up to {@code limit} rows of a result set into columns.
+   *
+   * @param rs    Result set positioned before the first row
+   * @param limit Maximum number of rows to read
+   * @return The columnar result
+   * @throws SQLException if reading the result set fails
+   */
+  public static ColumnarQueryResult fromResultSet(ResultSet rs, int limit) throws SQLException {
+    List<String> columns = DatabaseConnectionManager.columnNames(rs);
+    Column[] data = new Column[columns.size()];
+    Arrays.setAll(data, i -> new Column());
+
+    int row = 0;
+    while (row < limit && rs.next()) {
+      for (int i = 0; i < data.length; i++) {
+        data[i].add(row, DatabaseConnectionManager.readValue(rs, i + 1));
+      }
+      row++;
+    }
+
+    return new ColumnarQueryResult(columns, List.of(data), row, 0);
+  }
+
+  /**
+   * Create a result for UPDATE/INSERT/DELETE operations.
+   */
+  public static ColumnarQueryResult forUpdate(int affectedRows) {
+    return new ColumnarQueryResult(List.of(), List.of(), 0, affectedRows);
+  }
+
+  public List<String> columns() {
+    return columns;
+  }
+
+  public int rowCount() {
+    return rowCount;
+  }
+
+  public int affectedRows() {
+    return affectedRows;
+  }
+
+  /**
+   * Estimate the memory used by this result.
+   *
+   * @return Estimated size in bytes
+   */
+  public long estimatedSize() {
+    long bytes = 64;
+    for (String column : columns) {
+      bytes += 40 + 2L * column.length();
+    }
+    for (Column column : data) {
+      bytes += column.estimatedSize();
+    }
+    return bytes;
+  }
+
+  /**
+   * Get a single value.
+   *
+   * @param row    Row index
+   * @param column Column index
+   * @return The value, or null if the value is SQL NULL
+   */
+  public Object get(int row, int column) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + rowCount + " rows");
+    }
+    return data.get(column).get(row);
+  }
+
+  @Override
+  public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+    gen.writeStartObject();
+    gen.writeNumberField("rowCount", rowCount);
+    gen.writeNumberField("affectedRows", affectedRows);
+
+    gen.writeArrayFieldStart("columns");
+    for (String column : columns) {
+      gen.writeString(column);
+    }
+    gen.writeEndArray();
+
+    gen.writeArrayFieldStart("data");
+    for (Column column : data) {
+      column.write(gen, rowCount, serializers);
+    }
+    gen.writeEndArray();
+
+    gen.writeEndObject();
+  }
+
+  /**
+   * Write the rows in the binary row group layout used by {@link QueryExporter}.
+   * <p>
+   * A row group is the row count followed by each column: its kind ({@code 0} all null,
+   * {@code 1} long, {@code 2} double, {@code 3} dictionary-encoded string, {@code 4} other values
+   * as strings), the null bitmap as an {@code int} word count and {@code long} words, then the
+   * non-null values. String columns write their dictionary, then one {@code int} code per value.
+   *
+   * @param out Output to write to
+   * @throws IOException if writing fails
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeInt(rowCount);
+    for (Column column : data) {
+      column.writeTo(out, rowCount);
+    }
+  }
+
+  static void writeString(DataOutput out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  @Override
+  public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+    serialize(gen, serializers);
+  }
+
+  /**
+   * Storage kinds of a column, chosen from the values it contains. The ordinals are written to
+   * exported files, so new kinds must be added at the end.
+   */
+  private enum Kind {
+    EMPTY, LONG, DOUBLE, STRING, OBJECT
+  }
+
+  /**
+   * A growable column that switches to a wider representation when it sees a value that does
+   * not fit the current one.
+   */
+  private static final class Column {
+    private final BitSet nulls = new BitSet();
+    private Kind kind = Kind.EMPTY;
+    private long[] longs;
+    private double[] doubles;
+    private int[] codes;
+    private List<String> dictionary;
+    private Map<String, Integer> dictionaryIndex;
+    private Object[] objects;
+
+    private void add(int row, Object value) {
+      if (value == null) {
+        nulls.set(row);
+        return;
+      }
+
+      if (kind == Kind.EMPTY) {
+        initialize(kindOf(value), row);
+      } else if (kind != Kind.OBJECT && kind != kindOf(value)) {
+        if (kind == Kind.LONG && kindOf(value) == Kind.DOUBLE) {
+          widenToDouble(row);
+        } else {
+          widenToObject(row);
+        }
+      }
+
+      switch (kind) {
+        case LONG -> {
+          longs = ensureCapacity(longs, row);
+          longs[row] = ((Number) value).longValue();
+        }
+        case DOUBLE -> {
+          doubles = ensureCapacity(doubles, row);
+          doubles[row] = ((Number) value).doubleValue();
+        }
+        case STRING -> {
+          codes = ensureCapacity(codes, row);
+          codes[row] = dictionaryIndex.computeIfAbsent((String) value, key -> {
+            dictionary.add(key);
+            return dictionary.size() - 1;
+          });
+        }
+        default -> {
+          objects = ensureCapacity(objects, row);
+          objects[row] = value;
+        }
+      }
+    }
+
+    private Object get(int row) {
+      if (nulls.get(row)) {
+        return null;
+      }
+      return switch (kind) {
+        case EMPTY -> null;
+        case LONG -> longs[row];
+        case DOUBLE -> doubles[row];
+        case STRING -> dictionary.get(codes[row]);
+        case OBJECT -> objects[row];
+      };
+    }
+
+    private long estimatedSize() {
+      long bytes = 48 + nulls.size() / 8;
+      if (longs != null) {
+        bytes += 16 + 8L * longs.length;
+      }
+      if (doubles != null) {
+        bytes += 16 + 8L * doubles.length;
+      }
+      if (codes != null) {
+        bytes += 16 + 4L * codes.length;
+        for (String value : dictionary) {
+          // Dictionary list slot, index map node and the string itself
+          bytes += 8 + 32 + QueryResultCache.estimateValueSize(value);
+        }
+      }
+      if (objects != null) {
+        bytes += 16 + 4L * objects.length;
+        for (Object value : objects) {
+          bytes += QueryResultCache.estimateValueSize(value);
+        }
+      }
+      return bytes;
+    }
+
+    private void write(JsonGenerator gen, int rowCount, SerializerProvider serializers) throws IOException {
+      gen.writeStartArray();
+      for (int row = 0; row < rowCount; row++) {
+        if (kind == Kind.EMPTY || nulls.get(row)) {
+          gen.writeNull();
+          continue;
+        }
+        switch (kind) {
+          case LONG -> gen.writeNumber(longs[row]);
+          case DOUBLE -> gen.writeNumber(doubles[row]);
+          case STRING -> gen.writeString(dictionary.get(codes[row]));
+          default -> serializers.defaultSerializeValue(objects[row], gen);
+        }
+      }
+      gen.writeEndArray();
+    }
+
+    private void writeTo(DataOutput out, int rowCount) throws IOException {
+      out.writeByte(kind.ordinal());
+      long[] words = nulls.toLongArray();
+      out.writeInt(words.length);
+      for (long word : words) {
+        out.writeLong(word);
+      }
+      if (kind == Kind.STRING) {
+        out.writeInt(dictionary.size());
+        for (String value : dictionary) {
+          writeString(out, value);
+        }
+      }
+
+      for (int row = 0; row < rowCount; row++) {
+        if (kind == Kind.EMPTY || nulls.get(row)) {
+          continue;
+        }
+        switch (kind) {
+          case LONG -> out.writeLong(longs[row]);
+          case DOUBLE -> out.writeDouble(doubles[row]);
+          case STRING -> out.writeInt(codes[row]);
+          default -> writeString(out, objects[row] instanceof byte[] bytes
+            ? Base64.getEncoder().encodeToString(bytes)
+            : String.valueOf(objects[row]));
+        }
+      }
+    }
+
+    private void initialize(Kind initialKind, int row) {
+      kind = initialKind;
+      int capacity = Math.max(INITIAL_CAPACITY, row + 1);
+      switch (kind) {
+        case LONG -> longs = new long[capacity];
+        case DOUBLE -> doubles = new double[capacity];
+        case STRING -> {
+          codes = new int[capacity];
+          dictionary = new ArrayList<>();
+          dictionaryIndex = new HashMap<>();
+        }
+        default -> objects = new Object[capacity];
+      }
+    }
+
+    private void widenToDouble(int rows) {
+      doubles = new double[Math.max(INITIAL_CAPACITY, rows + 1)];
+      for (int row = 0; row < rows; row++) {
+        if (!nulls.get(row)) {
+          doubles[row] = longs[row];
+        }
+      }
+      longs = null;
+      kind = Kind.DOUBLE;
+    }
+
+    private void widenToObject(int rows) {
+      objects = new Object[Math.max(INITIAL_CAPACITY, rows + 1)];
+      for (int row = 0; row < rows; row++) {
+        objects[row] = get(row);
+      }
+      longs = null;
+      doubles = null;
+      codes = null;
+      dictionary = null;
+      dictionaryIndex = null;
+      kind = Kind.OBJECT;
+    }
+
+    private static Kind kindOf(Object value) {
+      return switch (value) {
+        case Long l -> Kind.LONG;
+        case Integer i -> Kind.LONG;
+        case Short s -> Kind.LONG;
+        case Byte b -> Kind.LONG;
+        case Double d -> Kind.DOUBLE;
+        case Float f -> Kind.DOUBLE;
+        case String s -> Kind.STRING;
+        default -> Kind.OBJECT;
+      };
+    }
+
+    private static long[] ensureCapacity(long[] array, int index) {
+      return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+    }
+
+    private static double[] ensureCapacity(double[] array, int index) {
+      return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+    }
+
+    private static int[] ensureCapacity(int[] array, int index) {
+      return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+    }
+
+    private static Object[] ensureCapacity(Object[] array, int index) {
+      return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+    }
+  }
+}
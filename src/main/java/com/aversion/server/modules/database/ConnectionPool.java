@@ -0,0 +1,389 @@
+package com.aversion.server.modules.database;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The connection pools behind one database connection.
+ * <p>
+ * Most databases use a single pool. SQLite uses a single-connection writer pool, since
+ * concurrent writers only contend on the database file lock, plus a reader pool for SELECTs.
+ * In adaptive mode, the pool that serves most requests is resized based on how long callers
+ * wait for a connection and how many of its connections are in use.
+ * <p>
+ * Connections with read replicas have one pool per replica. Read-only statements go to the
+ * healthy replica with the fewest active connections, and to the primary when no replica is
+ * healthy. Replica health, including replication lag, is updated by periodic checks.
+ */
+public final class ConnectionPool {
+
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+
+  /**
+   * Number of consecutive quiet samples before the pool is shrunk by one connection.
+   */
+  private static final int SHRINK_AFTER_SAMPLES = 6;
+
+  private final String connectionId;
+  private final HikariDataSource writer;
+  private final @Nullable HikariDataSource reader;
+  private final @Nullable HikariDataSource scalable;
+  private final PoolSettings settings;
+  private final List<Replica> replicas;
+
+  private final LongAdder replicaReads = new LongAdder();
+  private final LongAdder primaryFallbacks = new LongAdder();
+  private final LongAdder waits = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private volatile double lastAverageWaitMs;
+  private volatile long lastUsed = System.nanoTime();
+  private int quietSamples;
+
+  /**
+   * @param writerResizable Whether adaptive mode may resize the writer pool when there is no
+   *                        reader pool; false for SQLite, whose writer pool has a fixed size of 1
+   * @param replicas        Pools of the read replicas, keyed by endpoint
+   */
+  ConnectionPool(String connectionId, HikariDataSource writer, @Nullable HikariDataSource reader,
+                 PoolSettings settings, boolean writerResizable, Map<String, HikariDataSource> replicas) {
+    this.connectionId = connectionId;
+    this.writer = writer;
+    this.reader = reader;
+    this.scalable = reader != null ? reader : writerResizable ? writer : null;
+    this.settings = settings;
+    this.replicas = new ArrayList<>();
+    replicas.forEach((endpoint, dataSource) -> this.replicas.add(new Replica(endpoint, dataSource)));
+  }
+
+  /**
+   * Get a connection for statements that may write.
+   */
+  public Connection getConnection() throws SQLException {
+    return acquire(writer);
+  }
+
+  /**
+   * Get a connection for read-only statements. Uses the least loaded healthy replica, else the
+   * reader pool if there is one, else the writer pool.
+   */
+  public Connection getReadConnection() throws SQLException {
+    Replica replica = leastLoadedReplica();
+    if (replica != null) {
+      try {
+        Connection connection = replica.dataSource.getConnection();
+        replicaReads.increment();
+        return connection;
+      } catch (SQLException e) {
+        markUnhealthy(replica, e.getMessage());
+      }
+    }
+    if (!replicas.isEmpty()) {
+      primaryFallbacks.increment();
+    }
+    return acquire(reader != null ? reader : writer);
+  }
+
+  /**
+   * Get the read replicas, for health checks.
+   */
+  List<Replica> replicas() {
+    return replicas;
+  }
+
+  /**
+   * Record a successful replica health check.
+   *
+   * @param replica  The replica
+   * @param lagMs    Measured replication lag
+   * @param maxLagMs Lag above which the replica is not used
+   */
+  void markChecked(Replica replica, long lagMs, long maxLagMs) {
+    replica.lagMs = lagMs;
+    if (lagMs > maxLagMs) {
+      markUnhealthy(replica, "Replication lag " + lagMs + "ms exceeds " + maxLagMs + "ms");
+      return;
+    }
+    replica.lastError = null;
+    if (!replica.healthy) {
+      replica.healthy = true;
+      logger.info("Read replica available", "connectionId", connectionId, "replica", replica.endpoint, "lagMs", lagMs);
+    }
+  }
+
+  /**
+   * Take a replica out of rotation until a health check succeeds.
+   *
+   * @param replica The replica
+   * @param reason  Why the replica cannot be used
+   */
+  void markUnhealthy(Replica replica, String reason) {
+    replica.lastError = reason;
+    if (replica.healthy) {
+      replica.healthy = false;
+      logger.warn("Read replica unavailable, reading from other replicas or the primary",
+        "connectionId", connectionId, "replica", replica.endpoint, "reason", reason);
+    }
+  }
+
+  public PoolSettings settings() {
+    return settings;
+  }
+
+  /**
+   * Record that the connection is being used, which keeps it from being closed as idle.
+   */
+  void touch() {
+    lastUsed = System.nanoTime();
+  }
+
+  /**
+   * Nanoseconds since the connection was last used.
+   */
+  long idleNanos() {
+    return System.nanoTime() - lastUsed;
+  }
+
+  /**
+   * Maximum number of connections of all pools together, counted against the global connection budget.
+   */
+  int capacity() {
+    int capacity = writer.getMaximumPoolSize();
+    if (reader != null) {
+      capacity += reader.getMaximumPoolSize();
+    }
+    for (Replica replica : replicas) {
+      capacity += replica.dataSource.getMaximumPoolSize();
+    }
+    return capacity;
+  }
+
+  /**
+   * Maximum number of cursors that may hold a connection at the same time. One connection of the
+   * pool that serves reads is always left for other statements, so a pool of a single connection
+   * allows no cursors.
+   */
+  int cursorCapacity() {
+    HikariDataSource source = reader != null ? reader : writer;
+    return source.getMaximumPoolSize() - 1;
+  }
+
+  /**
+   * Number of connections currently checked out of any of the pools.
+   */
+  int activeConnections() {
+    int active = activeConnections(writer);
+    if (reader != null) {
+      active += activeConnections(reader);
+    }
+    for (Replica replica : replicas) {
+      active += activeConnections(replica.dataSource);
+    }
+    return active;
+  }
+
+  private static int activeConnections(HikariDataSource dataSource) {
+    HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+    return pool == null ? 0 : pool.getActiveConnections();
+  }
+
+  public boolean isClosed() {
+    return writer.isClosed() || (reader != null && reader.isClosed());
+  }
+
+  /**
+   * Resize the reader pool, or the writer pool if there is no reader pool, based on the samples taken since the last call. Does nothing
+   * unless adaptive mode is enabled.
+   *
+   * @param waitThresholdMs Average wait time above which a saturated pool is grown
+   * @param headroom        Connections left in the global connection budget, which limits growth
+   */
+  void tune(double waitThresholdMs, int headroom) {
+    long count = waits.sumThenReset();
+    long nanos = waitNanos.sumThenReset();
+    lastAverageWaitMs = count == 0 ? 0.0 : nanos / 1_000_000.0 / count;
+
+    if (!settings.adaptive() || scalable == null || scalable.isClosed()) {
+      return;
+    }
+    HikariPoolMXBean pool = scalable.getHikariPoolMXBean();
+    if (pool == null) {
+      return;
+    }
+
+    HikariConfigMXBean config = scalable.getHikariConfigMXBean();
+    int size = config.getMaximumPoolSize();
+    int waiting = pool.getThreadsAwaitingConnection();
+    double saturation = (double) pool.getActiveConnections() / size;
+
+    if ((waiting > 0 || lastAverageWaitMs > waitThresholdMs) && saturation >= 0.9) {
+      quietSamples = 0;
+      int limit = (int) Math.min(settings.adaptiveMaxPoolSize(), (long) size + Math.max(0, headroom));
+      if (size < limit) {
+        int newSize = Math.min(limit, size + Math.max(1, size / 4));
+        config.setMaximumPoolSize(newSize);
+        logger.info("Grew connection pool", "connectionId", connectionId, "from", size, "to", newSize,
+          "waiting", waiting, "averageWaitMs", lastAverageWaitMs);
+      }
+    } else if (waiting == 0 && saturation < 0.5) {
+      int floor = Math.max(1, settings.minimumIdle());
+      if (++quietSamples >= SHRINK_AFTER_SAMPLES && size > floor) {
+        quietSamples = 0;
+        config.setMaximumPoolSize(size - 1);
+        logger.debug("Shrank connection pool", "connectionId", connectionId, "from", size, "to", size - 1);
+      }
+    } else {
+      quietSamples = 0;
+    }
+  }
+
+  /**
+   * Get pool metrics.
+   *
+   * @return Map containing connection counts of each pool and the recent average wait time
+   */
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = poolMetrics(writer);
+    metrics.put("averageWaitMs", lastAverageWaitMs);
+    metrics.put("adaptive", settings.adaptive());
+    metrics.put("capacity", capacity());
+    metrics.put("idleMs", idleNanos() / 1_000_000);
+    if (reader != null) {
+      metrics.put("reader", poolMetrics(reader));
+    }
+    if (!replicas.isEmpty()) {
+      List<Map<String, Object>> replicaMetrics = new ArrayList<>();
+      for (Replica replica : replicas) {
+        Map<String, Object> replicaPool = poolMetrics(replica.dataSource);
+        replicaPool.put("endpoint", replica.endpoint);
+        replicaPool.put("healthy", replica.healthy);
+        replicaPool.put("lagMs", replica.lagMs);
+        if (replica.lastError != null) {
+          replicaPool.put("lastError", replica.lastError);
+        }
+        replicaMetrics.add(replicaPool);
+      }
+      metrics.put("replicas", replicaMetrics);
+      metrics.put("replicaReads", replicaReads.sum());
+      metrics.put("primaryFallbacks", primaryFallbacks.sum());
+    }
+    return metrics;
+  }
+
+  /**
+   * Open the minimum number of idle connections of every pool by checking them out at the same
+   * time, instead of waiting for HikariCP to add them one by one in the background.
+   *
+   * @return Number of connections checked out
+   * @throws SQLException if a connection to the primary cannot be opened; unreachable replicas are skipped
+   */
+  int prefill() throws SQLException {
+    int opened = prefill(writer);
+    if (reader != null) {
+      opened += prefill(reader);
+    }
+    for (Replica replica : replicas) {
+      try {
+        opened += prefill(replica.dataSource);
+      } catch (SQLException e) {
+        markUnhealthy(replica, e.getMessage());
+      }
+    }
+    return opened;
+  }
+
+  private static int prefill(HikariDataSource dataSource) throws SQLException {
+    int count = Math.min(dataSource.getMinimumIdle(), dataSource.getMaximumPoolSize());
+    List<Connection> connections = new ArrayList<>(count);
+    try {
+      while (connections.size() < count) {
+        connections.add(dataSource.getConnection());
+      }
+    } finally {
+      for (Connection connection : connections) {
+        connection.close();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Close all pools.
+   */
+  public void close() {
+    for (Replica replica : replicas) {
+      replica.dataSource.close();
+    }
+    if (reader != null) {
+      reader.close();
+    }
+    writer.close();
+  }
+
+  private @Nullable Replica leastLoadedReplica() {
+    Replica best = null;
+    int bestLoad = Integer.MAX_VALUE;
+    for (Replica replica : replicas) {
+      if (!replica.healthy || replica.dataSource.isClosed()) {
+        continue;
+      }
+      HikariPoolMXBean pool = replica.dataSource.getHikariPoolMXBean();
+      int load = pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+      if (load < bestLoad) {
+        best = replica;
+        bestLoad = load;
+      }
+    }
+    return best;
+  }
+
+  private Connection acquire(HikariDataSource dataSource) throws SQLException {
+    if (dataSource != scalable) {
+      return dataSource.getConnection();
+    }
+
+    long start = System.nanoTime();
+    Connection connection = dataSource.getConnection();
+    waitNanos.add(System.nanoTime() - start);
+    waits.increment();
+    return connection;
+  }
+
+  /**
+   * A read replica and its last known health.
+   */
+  static final class Replica {
+    final String endpoint;
+    final HikariDataSource dataSource;
+    private volatile boolean healthy = true;
+    private volatile long lagMs;
+    private volatile @Nullable String lastError;
+
+    private Replica(String endpoint, HikariDataSource dataSource) {
+      this.endpoint = endpoint;
+      this.dataSource = dataSource;
+    }
+  }
+
+  private static Map<String, Object> poolMetrics(HikariDataSource dataSource) {
+    Map<String, Object> metrics = new HashMap<>();
+    HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+    if (pool != null) {
+      metrics.put("activeConnections", pool.getActiveConnections());
+      metrics.put("idleConnections", pool.getIdleConnections());
+      metrics.put("totalConnections", pool.getTotalConnections());
+      metrics.put("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+    }
+    metrics.put("maximumPoolSize", dataSource.getHikariConfigMXBean().getMaximumPoolSize());
+    return metrics;
+  }
+}
@@ -0,0 +1,87 @@
+package com.aversion.server.modules.database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Startup timeline of one database connection: when it was requested, when its pool was
+ * created, when the background warm-up finished and when the first query completed.
+ * <p>
+ * Times are {@link System#nanoTime()} values; 0 means the step has not happened yet.
+ */
+final class ConnectionStartup {
+
+  private final boolean lazy;
+  private final long requestedAt = System.nanoTime();
+  private volatile long poolReadyAt;
+  private volatile long warmUpDoneAt;
+  private final AtomicLong firstQueryAt = new AtomicLong();
+  private volatile int warmedConnections;
+  private volatile int warmUpQueries;
+  private volatile String warmUpError;
+  private volatile String poolError;
+
+  ConnectionStartup(boolean lazy) {
+    this.lazy = lazy;
+  }
+
+  void poolReady() {
+    poolReadyAt = System.nanoTime();
+    poolError = null;
+  }
+
+  void poolFailed(String error) {
+    poolError = error;
+  }
+
+  void warmedUp(int connections, int queries, String error) {
+    warmedConnections = connections;
+    warmUpQueries = queries;
+    warmUpError = error;
+    warmUpDoneAt = System.nanoTime();
+  }
+
+  /**
+   * Record that a query completed.
+   *
+   * @return Nanoseconds from the connect request to this query if it is the first one, otherwise -1
+   */
+  long queryCompleted() {
+    if (firstQueryAt.get() != 0) {
+      return -1;
+    }
+    long now = System.nanoTime();
+    return firstQueryAt.compareAndSet(0, now) ? now - requestedAt : -1;
+  }
+
+  Map<String, Object> toMap() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("mode", lazy ? "lazy" : "eager");
+    metrics.put("state", poolReadyAt == 0 ? (poolError != null ? "failed" : "pending")
+      : warmUpDoneAt == 0 ? "warming" : "ready");
+    if (poolReadyAt != 0) {
+      metrics.put("poolCreateMs", millis(poolReadyAt - requestedAt));
+    }
+    if (warmUpDoneAt != 0) {
+      metrics.put("warmUpMs", millis(warmUpDoneAt - poolReadyAt));
+      metrics.put("warmedConnections", warmedConnections);
+      metrics.put("warmUpQueries", warmUpQueries);
+    }
+    long firstQuery = firstQueryAt.get();
+    if (firstQuery != 0) {
+      metrics.put("timeToFirstQueryMs", millis(firstQuery - requestedAt));
+    }
+    if (poolError != null) {
+      metrics.put("error", poolError);
+    }
+    if (warmUpError != null) {
+      metrics.put("warmUpError", warmUpError);
+    }
+    return metrics;
+  }
+
+  private static double millis(long nanos) {
+    return Math.round(nanos / 1_000.0) / 1_000.0;
+  }
+}
@@ -1,5 +1,12 @@
 package com.aversion.server.modules.database;
 
+import com.aversion.server.utils.ApplicationConfig;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
 /**
  * Database configuration sealed interface with implementations for different database types.
  */
@@ -10,14 +17,123 @@ public sealed interface DatabaseConfig
 
   String type();
 
+  /**
+   * Read replicas that serve SELECTs in place of the primary.
+   */
+  Replicas replicas();
+
+  /**
+   * Read replica settings.
+   * <p>
+   * Replicas whose lag exceeds {@code maxLagMs}, or that cannot be reached, are skipped until a
+   * later health check finds them caught up again.
+   *
+   * @param endpoints Replica endpoints: {@code host} or {@code host:port} for MySQL and
+   *                  PostgreSQL, using the primary's port by default, or database files for SQLite
+   * @param maxLagMs  Replication lag above which a replica is not used
+   * @param lagQuery  Query returning a replica's lag in milliseconds, e.g. from a heartbeat
+   *                  table, or null for the database's built-in replication status
+   */
+  record Replicas(List<String> endpoints, long maxLagMs, @Nullable String lagQuery) {
+
+    public Replicas {
+      endpoints = List.copyOf(endpoints);
+      if (maxLagMs < 0) {
+        throw new IllegalArgumentException("maxLagMs cannot be negative");
+      }
+    }
+
+    public static Replicas none() {
+      return new Replicas(List.of(), 0, null);
+    }
+  }
+
   /**
    * SQLite database configuration.
+   *
+   * @param file     Database file path, or {@code :memory:} for an in-memory database
+   * @param profile  Pragmas applied to every connection
+   * @param replicas Copies of the database file to read from, e.g. maintained by a replication tool
    */
-  record SQLiteConfig(String file) implements DatabaseConfig {
+  record SQLiteConfig(String file, Profile profile, Replicas replicas) implements DatabaseConfig {
+
+    public SQLiteConfig(String file, Profile profile) {
+      this(file, profile, Replicas.none());
+    }
+
+    public SQLiteConfig(String file) {
+      this(file, Profile.defaults());
+    }
+
     @Override
     public String type() {
       return "sqlite";
     }
+
+    /**
+     * Whether the database only exists in memory, so every connection sees a different database.
+     */
+    public boolean inMemory() {
+      return file == null || file.isBlank() || file.contains(":memory:") || file.contains("mode=memory");
+    }
+
+    /**
+     * SQLite performance profile, applied as pragmas when a connection is opened.
+     *
+     * @param journalMode Journal mode; WAL lets readers run concurrently with the writer
+     * @param synchronous How often SQLite syncs to disk: OFF, NORMAL, FULL or EXTRA
+     * @param mmapSize    Bytes of the database file to memory-map, 0 to disable
+     * @param cacheSize   Page cache size; negative values are in KiB, positive values in pages
+     * @param tempStore   Where temporary tables and indices are kept: DEFAULT, FILE or MEMORY
+     * @param busyTimeout Milliseconds to wait for a lock before failing with SQLITE_BUSY
+     */
+    public record Profile(
+      String journalMode,
+      String synchronous,
+      long mmapSize,
+      int cacheSize,
+      String tempStore,
+      int busyTimeout
+    ) {
+
+      private static final Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+      private static final Set<String> SYNCHRONOUS_LEVELS = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+      private static final Set<String> TEMP_STORES = Set.of("DEFAULT", "FILE", "MEMORY");
+
+      public Profile {
+        journalMode = requireOneOf("journalMode", journalMode, JOURNAL_MODES);
+        synchronous = requireOneOf("synchronous", synchronous, SYNCHRONOUS_LEVELS);
+        tempStore = requireOneOf("tempStore", tempStore, TEMP_STORES);
+        if (mmapSize < 0) {
+          throw new IllegalArgumentException("mmapSize cannot be negative");
+        }
+        if (busyTimeout < 0) {
+          throw new IllegalArgumentException("busyTimeout cannot be negative");
+        }
+      }
+
+      /**
+       * Create a profile from the {@code database.sqlite} section of the application config.
+       */
+      public static Profile defaults() {
+        return new Profile(
+          ApplicationConfig.getString("database.sqlite.journal-mode", "WAL"),
+          ApplicationConfig.getString("database.sqlite.synchronous", "NORMAL"),
+          ApplicationConfig.getLong("database.sqlite.mmap-size", 268435456),
+          ApplicationConfig.getInt("database.sqlite.cache-size", -65536),
+          ApplicationConfig.getString("database.sqlite.temp-store", "MEMORY"),
+          ApplicationConfig.getInt("database.sqlite.busy-timeout", 5000)
+        );
+      }
+
+      private static String requireOneOf(String name, String value, Set<String> allowed) {
+        String normalized = value == null ? "" : value.toUpperCase(Locale.ROOT);
+        if (!allowed.contains(normalized)) {
+          throw new IllegalArgumentException("Invalid " + name + " '" + value + "', expected one of " + allowed);
+        }
+        return normalized;
+      }
+    }
   }
 
   /**
@@ -28,8 +144,14 @@ public sealed interface DatabaseConfig
     int port,
     String database,
     String username,
-    String password
+    String password,
+    Replicas replicas
   ) implements DatabaseConfig {
+
+    public MySQLConfig(String host, int port, String database, String username, String password) {
+      this(host, port, database, username, password, Replicas.none());
+    }
+
     @Override
     public String type() {
       return "mysql";
@@ -44,8 +166,14 @@ public sealed interface DatabaseConfig
     int port,
     String database,
     String username,
-    String password
+    String password,
+    Replicas replicas
   ) implements DatabaseConfig {
+
+    public PostgreSQLConfig(String host, int port, String database, String username, String password) {
+      this(host, port, database, username, password, Replicas.none());
+    }
+
     @Override
     public String type() {
       return "postgresql";
@@ -1,12 +1,33 @@
 package com.aversion.server.modules.database;
 
+import com.aversion.server.execution.Cancellation;
+import com.aversion.server.utils.ApplicationConfig;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import org.jetbrains.annotations.Nullable;
 
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.sql.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Manages database connections for the Aversion server with connection pooling.
@@ -17,10 +38,85 @@ import java.util.concurrent.atomic.AtomicLong;
 public class DatabaseConnectionManager {
 
   private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
-  private final Map<String, HikariDataSource> dataSources = new ConcurrentHashMap<>();
+  private static final int SQLITE_OPEN_READONLY = 0x01;
+  /**
+   * Time a pool must have been unused before it is closed to make room in the connection budget,
+   * so that a pool that was just handed to a request is not closed under it.
+   */
+  private static final long MIN_EVICTION_IDLE_NANOS = 1_000_000_000L;
+  private final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
   private final Map<String, DatabaseConfig> configurations = new ConcurrentHashMap<>();
+  private final Map<String, PendingConnection> pendingConnections = new ConcurrentHashMap<>();
+  private final Map<String, ConnectionStartup> startups = new ConcurrentHashMap<>();
+  private final LatencyHistogram timeToFirstQuery = new LatencyHistogram();
+  private final int connectionBudget = ApplicationConfig.getInt("database.connection-pool.budget", 100);
+  private final long idlePoolTimeoutMs = ApplicationConfig.getLong("database.connection-pool.idle-pool-timeout", 900_000);
+  // Connections of pools being created, which count against the budget before the pool is registered
+  private int reservedConnections;
+  private final ReentrantLock budgetLock = new ReentrantLock();
+  private final AtomicLong budgetRejections = new AtomicLong(0);
+  private final AtomicLong budgetEvictions = new AtomicLong(0);
+  private final AtomicLong reapedPools = new AtomicLong(0);
+  private final AtomicLong recreatedPools = new AtomicLong(0);
   private final AtomicLong totalQueries = new AtomicLong(0);
   private final AtomicLong totalErrors = new AtomicLong(0);
+  private final AtomicLong cancelledQueries = new AtomicLong(0);
+  private final AtomicLong timedOutQueries = new AtomicLong(0);
+  private final PreparedStatementCache statementCache = new PreparedStatementCache(
+    ApplicationConfig.getInt("database.statement-cache.size", 100)
+  );
+  private final QueryResultCache resultCache = new QueryResultCache(
+    ApplicationConfig.getLong("database.result-cache.max-memory", 64L * 1024 * 1024),
+    ApplicationConfig.getLong("database.result-cache.ttl", 10_000)
+  );
+  private final QueryCursorManager cursorManager = new QueryCursorManager(
+    ApplicationConfig.getLong("database.cursor.ttl", 60_000),
+    ApplicationConfig.getInt("database.cursor.max-open", 64)
+  );
+  private final double adaptiveWaitThresholdMs = ApplicationConfig.getLong("database.connection-pool.adaptive.wait-threshold-ms", 50);
+  private final JdbcExecutor jdbcExecutor = new JdbcExecutor(
+    ApplicationConfig.getInt("database.async.threads", PoolSettings.defaults().maximumPoolSize()),
+    ApplicationConfig.getInt("database.async.queue-capacity", 1000)
+  );
+  private final QueryExporter exporter = new QueryExporter(
+    ApplicationConfig.getInt("database.export.buffer-size", 1024 * 1024),
+    ApplicationConfig.getInt("database.export.row-group-size", 65_536)
+  );
+  private final int exportFetchSize = ApplicationConfig.getInt("database.export.fetch-size", 10_000);
+  private final QueryStatistics queryStatistics = new QueryStatistics(
+    ApplicationConfig.getInt("database.query-stats.max-statements", 500),
+    ApplicationConfig.getLong("database.slow-query.threshold", 1000),
+    ApplicationConfig.getInt("database.slow-query.log-size", 100)
+  );
+  private final ScheduledExecutorService poolTuner = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread thread = new Thread(r, "connection-pool-tuner");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final ScheduledExecutorService replicaMonitor = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread thread = new Thread(r, "replica-health-check");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final ExecutorService warmUpExecutor = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "connection-warmup");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public DatabaseConnectionManager() {
+    long interval = Math.max(1000, ApplicationConfig.getLong("database.connection-pool.adaptive.interval", 5000));
+    poolTuner.scheduleWithFixedDelay(this::tunePools, interval, interval, TimeUnit.MILLISECONDS);
+    if (idlePoolTimeoutMs > 0) {
+      long reaperInterval = Math.clamp(idlePoolTimeoutMs / 4, 1000, 60_000);
+      poolTuner.scheduleWithFixedDelay(this::reapIdlePools, reaperInterval, reaperInterval, TimeUnit.MILLISECONDS);
+    }
+    // Separate thread, since checking an unreachable replica blocks for the connection timeout
+    long replicaInterval = Math.max(1000, ApplicationConfig.getLong("database.replicas.check-interval", 5000));
+    replicaMonitor.scheduleWithFixedDelay(this::checkReplicas, replicaInterval, replicaInterval, TimeUnit.MILLISECONDS);
+  }
 
   /**
    * Connect to a database with the given configuration using connection pooling.
@@ -30,28 +126,185 @@ public class DatabaseConnectionManager {
    * @throws Exception if connection fails
    */
   public void connect(String connectionId, DatabaseConfig config) throws Exception {
-    if (dataSources.containsKey(connectionId)) {
+    connect(connectionId, config, PoolSettings.defaults());
+  }
+
+  /**
+   * Connect to a database with the given configuration and pool settings.
+   * <p>
+   * SQLite databases get a single-connection writer pool and, unless {@code readerPoolSize}
+   * is 0 or the database is in memory, a separate pool of read-only connections for SELECTs.
+   * Each read replica gets its own read-only pool; replicas are health-checked before the
+   * connection is used, and unreachable or lagging replicas are skipped.
+   * <p>
+   * With {@code lazy} settings, only the configuration is registered and the pools are created
+   * by the first operation on the connection. Otherwise the pools are created and validated
+   * now. Either way, once the pools exist they are filled to their minimum idle size and the
+   * warm-up queries are run in the background.
+   * <p>
+   * The pools count against the global connection budget; if it is exhausted, idle pools of
+   * other connections are closed to make room. Pools unused for the idle pool timeout are
+   * closed too, and created again from the stored configuration on next use.
+   *
+   * @param connectionId Unique identifier for this connection
+   * @param config       Database configuration
+   * @param settings     Connection pool settings
+   * @throws Exception if connection fails
+   */
+  public void connect(String connectionId, DatabaseConfig config, PoolSettings settings) throws Exception {
+    if (hasConnection(connectionId)) {
       throw new IllegalArgumentException("Connection '" + connectionId + "' already exists");
     }
 
-    HikariConfig hikariConfig = createHikariConfig(connectionId, config);
-    HikariDataSource dataSource = new HikariDataSource(hikariConfig);
-
-    // Test the connection
-    try (Connection testConnection = dataSource.getConnection()) {
-      if (!testConnection.isValid(5)) {
-        throw new SQLException("Database connection validation failed");
+    if (settings.lazy()) {
+      ConnectionStartup startup = new ConnectionStartup(true);
+      if (pendingConnections.putIfAbsent(connectionId, new PendingConnection(config, settings, new ReentrantLock(), false)) != null) {
+        throw new IllegalArgumentException("Connection '" + connectionId + "' already exists");
       }
+      configurations.put(connectionId, config);
+      startups.put(connectionId, startup);
+      logger.info("Database connection registered, pool is created on first use",
+        "connectionId", connectionId,
+        "type", config.type()
+      );
+      return;
     }
 
-    dataSources.put(connectionId, dataSource);
+    ConnectionStartup startup = new ConnectionStartup(false);
+    ConnectionPool pool = openPool(connectionId, config, settings);
+    startup.poolReady();
     configurations.put(connectionId, config);
+    startups.put(connectionId, startup);
+    warmUp(connectionId, pool, startup);
+  }
+
+  /**
+   * Create the pools of a connection within the global connection budget and register them.
+   */
+  private ConnectionPool openPool(String connectionId, DatabaseConfig config, PoolSettings settings) throws Exception {
+    int required = requiredConnections(config, settings);
+    reserveConnections(connectionId, required);
+    try {
+      ConnectionPool pool = createPool(connectionId, config, settings);
+      pools.put(connectionId, pool);
+      return pool;
+    } finally {
+      budgetLock.lock();
+      try {
+        reservedConnections -= required;
+      } finally {
+        budgetLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Create and validate the pools of a connection.
+   */
+  private ConnectionPool createPool(String connectionId, DatabaseConfig config, PoolSettings settings) throws Exception {
+    boolean sqlite = config instanceof DatabaseConfig.SQLiteConfig;
+    HikariDataSource writer = new HikariDataSource(
+      createHikariConfig(connectionId, config, settings, "", sqlite ? 1 : settings.maximumPoolSize(), false));
+    HikariDataSource reader = null;
+    if (sqlite && settings.readerPoolSize() > 0 && !((DatabaseConfig.SQLiteConfig) config).inMemory()) {
+      try {
+        reader = new HikariDataSource(createHikariConfig(connectionId, config, settings, "-reader", settings.readerPoolSize(), true));
+      } catch (RuntimeException e) {
+        writer.close();
+        throw e;
+      }
+    }
+
+    Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+    try {
+      List<String> endpoints = config.replicas().endpoints();
+      for (int i = 0; i < endpoints.size(); i++) {
+        replicas.put(endpoints.get(i), new HikariDataSource(createHikariConfig(connectionId, replicaConfig(config, endpoints.get(i)),
+          settings, "-replica-" + (i + 1), sqlite ? Math.max(1, settings.readerPoolSize()) : settings.maximumPoolSize(), true)));
+      }
+    } catch (RuntimeException e) {
+      replicas.values().forEach(HikariDataSource::close);
+      if (reader != null) {
+        reader.close();
+      }
+      writer.close();
+      throw e;
+    }
+
+    ConnectionPool pool = new ConnectionPool(connectionId, writer, reader, settings, !sqlite, replicas);
+
+    // Test the connections
+    try {
+      validateConnection(pool.getConnection());
+      if (reader != null) {
+        validateConnection(pool.getReadConnection());
+      }
+    } catch (Exception e) {
+      pool.close();
+      throw e;
+    }
+    checkReplicas(pool, config);
 
     logger.info("Database connection established",
       "connectionId", connectionId,
       "type", config.type(),
-      "poolSize", hikariConfig.getMaximumPoolSize()
+      "poolSize", writer.getMaximumPoolSize(),
+      "readerPoolSize", reader != null ? reader.getMaximumPoolSize() : 0,
+      "replicas", replicas.size(),
+      "adaptive", settings.adaptive(),
+      "lazy", settings.lazy()
     );
+    return pool;
+  }
+
+  /**
+   * Fill the pools and run the warm-up queries in the background, so that the first requests
+   * neither wait for new connections nor hit cold server-side caches. Warm-up queries are
+   * not counted in the query metrics.
+   */
+  private void warmUp(String connectionId, ConnectionPool pool, ConnectionStartup startup) {
+    try {
+      warmUpExecutor.execute(() -> {
+        int connections = 0;
+        int queries = 0;
+        String error = null;
+        try {
+          connections = pool.prefill();
+          for (String query : pool.settings().warmUpQueries()) {
+            runWarmUpQuery(pool, query);
+            queries++;
+          }
+        } catch (Exception e) {
+          error = e.getMessage();
+          if (!pool.isClosed()) {
+            logger.warn("Connection warm-up failed", "connectionId", connectionId, "error", error);
+          }
+        }
+        startup.warmedUp(connections, queries, error);
+        logger.debug("Connection warm-up finished",
+          "connectionId", connectionId,
+          "connections", connections,
+          "queries", queries
+        );
+      });
+    } catch (RejectedExecutionException e) {
+      // Shutting down
+    }
+  }
+
+  private static void runWarmUpQuery(ConnectionPool pool, String query) throws SQLException {
+    boolean readOnly = QueryResultCache.isReadOnly(query);
+    try (Connection connection = readOnly ? pool.getReadConnection() : pool.getConnection();
+         Statement stmt = connection.createStatement()) {
+      if (stmt.execute(query)) {
+        // Read every row so that the server does the full work
+        try (ResultSet rs = stmt.getResultSet()) {
+          while (rs.next()) {
+            // Discard
+          }
+        }
+      }
+    }
   }
 
   /**
@@ -64,10 +317,10 @@ public class DatabaseConnectionManager {
    * @throws Exception if the insertion fails.
    */
   public int insertData(String connectionId, String tableName, Map<String, Object> data) throws Exception {
-    long startTime = System.currentTimeMillis();
+    long startTime = System.nanoTime();
     totalQueries.incrementAndGet();
 
-    HikariDataSource dataSource = getDataSource(connectionId);
+    ConnectionPool pool = getPool(connectionId);
 
     if (data.isEmpty()) {
       throw new IllegalArgumentException("Data for insertion cannot be empty.");
@@ -92,19 +345,248 @@ public class DatabaseConnectionManager {
 
     String query = String.format("INSERT INTO %s (%s) VALUES (%s)", tableName, columns, valuesPlaceholder);
 
-    try (Connection connection = dataSource.getConnection();
-         PreparedStatement stmt = connection.prepareStatement(query)) {
+    try (Connection connection = pool.getConnection();
+         PreparedStatementCache.Lease lease = statementCache.prepare(connectionId, connection, query);
+         Cancellation.Scope ignored = JdbcExecutor.register(lease.statement())) {
+      PreparedStatement stmt = lease.statement();
+      applyQueryTimeout(stmt, pool, 0);
       setParameters(stmt, params);
       int affectedRows = stmt.executeUpdate();
+      resultCache.invalidate(connectionId, tableName);
       logQuerySuccess(connectionId, query, startTime, affectedRows);
       return affectedRows;
     } catch (Exception e) {
-      totalErrors.incrementAndGet();
+      recordError(e);
       logQueryError(connectionId, query, startTime, e);
       throw createDetailedException(connectionId, query, e);
     }
   }
 
+  /**
+   * Inserts many rows into a specified table in a single transaction.
+   * <p>
+   * Rows are grouped by their set of columns, and each group is sent through one prepared
+   * statement with {@code addBatch}/{@code executeBatch} in chunks of {@code batchSize} rows.
+   * Rows with the same columns keep their relative order.
+   *
+   * @param connectionId Unique identifier for the database connection.
+   * @param tableName    The name of the table to insert data into.
+   * @param rows         The rows to insert, each a map of column names to values.
+   * @param batchSize    The maximum number of rows per batch.
+   * @return The number of rows inserted.
+   * @throws Exception if the insertion fails; no rows are inserted in that case.
+   */
+  public int bulkInsert(String connectionId, String tableName, List<Map<String, Object>> rows, int batchSize) throws Exception {
+    long startTime = System.nanoTime();
+    totalQueries.incrementAndGet();
+
+    ConnectionPool pool = getPool(connectionId);
+
+    if (rows.isEmpty()) {
+      throw new IllegalArgumentException("Rows for bulk insertion cannot be empty.");
+    }
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be at least 1.");
+    }
+
+    // Group rows by column signature so each group can share one prepared statement
+    Map<List<String>, List<Map<String, Object>>> rowsByColumns = new LinkedHashMap<>();
+    for (Map<String, Object> row : rows) {
+      if (row.isEmpty()) {
+        throw new IllegalArgumentException("Rows for bulk insertion cannot be empty.");
+      }
+      List<String> columns = List.copyOf(new TreeSet<>(row.keySet()));
+      rowsByColumns.computeIfAbsent(columns, key -> new ArrayList<>()).add(row);
+    }
+
+    String operation = String.format("BULK INSERT INTO %s (%d rows)", tableName, rows.size());
+
+    try (Connection connection = pool.getConnection()) {
+      boolean autoCommit = connection.getAutoCommit();
+
+      try {
+        connection.setAutoCommit(false);
+        int insertedRows = 0;
+
+        for (Map.Entry<List<String>, List<Map<String, Object>>> group : rowsByColumns.entrySet()) {
+          List<String> columns = group.getKey();
+          String query = String.format("INSERT INTO %s (%s) VALUES (%s)", tableName,
+            String.join(", ", columns), String.join(", ", Collections.nCopies(columns.size(), "?")));
+
+          try (PreparedStatementCache.Lease lease = statementCache.prepare(connectionId, connection, query);
+               Cancellation.Scope ignored = JdbcExecutor.register(lease.statement())) {
+            PreparedStatement stmt = lease.statement();
+            applyQueryTimeout(stmt, pool, 0);
+            List<Map<String, Object>> groupRows = group.getValue();
+            List<Object> params = new ArrayList<>(columns.size());
+
+            for (int i = 0; i < groupRows.size(); i++) {
+              Map<String, Object> row = groupRows.get(i);
+              params.clear();
+              for (String column : columns) {
+                params.add(row.get(column));
+              }
+              setParameters(stmt, params);
+              stmt.addBatch();
+
+              if ((i + 1) % batchSize == 0 || i == groupRows.size() - 1) {
+                insertedRows += countBatchRows(stmt.executeBatch());
+              }
+            }
+          }
+        }
+
+        connection.commit();
+        resultCache.invalidate(connectionId, tableName);
+        logQuerySuccess(connectionId, operation, startTime, insertedRows);
+        return insertedRows;
+
+      } catch (Exception e) {
+        rollback(connection, e);
+        recordError(e);
+        logQueryError(connectionId, operation, startTime, e);
+        throw createDetailedException(connectionId, operation, e);
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    }
+  }
+
+  /**
+   * Insert the rows of a data file into a table.
+   * <p>
+   * Rows are read one at a time and sent through one prepared statement in batches of
+   * {@code batchSize} rows on a single connection, committing every {@code commitInterval} rows
+   * so the transaction log stays bounded. Text values are converted to the types of the target
+   * columns. If the import fails, rows committed up to that point are kept.
+   *
+   * @param connectionId   Connection identifier
+   * @param tableName      Table to insert into
+   * @param reader         Rows of the file
+   * @param mapping        File column to table column; file columns missing from a non-empty
+   *                       mapping are skipped. Null to import every column under its own name.
+   * @param batchSize      Rows per batch
+   * @param commitInterval Rows per commit
+   * @return Summary of the import, including throughput
+   * @throws Exception if reading the file or inserting fails
+   */
+  public ImportFileReader.ImportSummary importFile(String connectionId, String tableName, ImportFileReader reader,
+                                                   @Nullable Map<String, String> mapping, int batchSize,
+                                                   int commitInterval) throws Exception {
+    long startTime = System.nanoTime();
+    totalQueries.incrementAndGet();
+
+    ConnectionPool pool = getPool(connectionId);
+
+    if (batchSize < 1 || commitInterval < 1) {
+      throw new IllegalArgumentException("Batch size and commit interval must be at least 1.");
+    }
+
+    List<String> targets = ImportFileReader.targetColumns(reader.columns(), mapping);
+    List<Integer> sourceIndexes = new ArrayList<>();
+    List<String> columns = new ArrayList<>();
+    for (int i = 0; i < targets.size(); i++) {
+      if (targets.get(i) != null) {
+        sourceIndexes.add(i);
+        columns.add(targets.get(i));
+      }
+    }
+
+    String query = String.format("INSERT INTO %s (%s) VALUES (%s)", tableName,
+      String.join(", ", columns), String.join(", ", Collections.nCopies(columns.size(), "?")));
+    String operation = String.format("IMPORT INTO %s", tableName);
+
+    long insertedRows = 0;
+    long committedRows = 0;
+    long commits = 0;
+    try (Connection connection = pool.getConnection()) {
+      boolean autoCommit = connection.getAutoCommit();
+
+      try {
+        connection.setAutoCommit(false);
+
+        // Column types drive the conversion of text values; unknown if the driver reports none
+        Map<String, Integer> tableTypes = ImportFileReader.columnTypes(connection, tableName);
+        Integer[] sqlTypes = new Integer[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+          if (!tableTypes.isEmpty() && !tableTypes.containsKey(columns.get(i).toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Column '" + columns.get(i) + "' does not exist in table " + tableName);
+          }
+          sqlTypes[i] = tableTypes.get(columns.get(i).toLowerCase(Locale.ROOT));
+        }
+
+        try (PreparedStatementCache.Lease lease = statementCache.prepare(connectionId, connection, query);
+             Cancellation.Scope ignored = JdbcExecutor.register(lease.statement())) {
+          PreparedStatement stmt = lease.statement();
+          applyQueryTimeout(stmt, pool, 0);
+          List<Object> params = new ArrayList<>(columns.size());
+          long readRows = 0;
+          int batchedRows = 0;
+
+          Object[] row;
+          while ((row = reader.next()) != null) {
+            params.clear();
+            for (int i = 0; i < sourceIndexes.size(); i++) {
+              try {
+                params.add(ImportFileReader.convert(row[sourceIndexes.get(i)], sqlTypes[i], columns.get(i)));
+              } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + reader.line() + ": " + e.getMessage(), e);
+              }
+            }
+            setParameters(stmt, params);
+            stmt.addBatch();
+            readRows++;
+
+            if (++batchedRows == batchSize || readRows % commitInterval == 0) {
+              insertedRows += countBatchRows(stmt.executeBatch());
+              batchedRows = 0;
+              if (JdbcExecutor.isCancelled()) {
+                throw new SQLException("Import was cancelled", JdbcExecutor.QUERY_CANCELED);
+              }
+            }
+            if (readRows % commitInterval == 0) {
+              connection.commit();
+              commits++;
+              committedRows = insertedRows;
+            }
+          }
+
+          if (batchedRows > 0) {
+            insertedRows += countBatchRows(stmt.executeBatch());
+          }
+        }
+
+        connection.commit();
+        commits++;
+        committedRows = insertedRows;
+      } catch (Exception e) {
+        rollback(connection, e);
+        recordError(e);
+        logQueryError(connectionId, operation, startTime, e);
+        Exception failure = committedRows == 0 ? e : new SQLException(String.format(
+          "Import stopped at line %d after %d rows were committed: %s", reader.line(), committedRows, e.getMessage()), e);
+        throw createDetailedException(connectionId, operation, failure);
+      } finally {
+        connection.setAutoCommit(autoCommit);
+        if (committedRows > 0) {
+          resultCache.invalidate(connectionId, tableName);
+        }
+      }
+    }
+
+    long durationMs = elapsedMillis(startTime);
+    double rowsPerSecond = insertedRows * 1000.0 / Math.max(1, durationMs);
+    logQuerySuccess(connectionId, operation, startTime, (int) Math.min(insertedRows, Integer.MAX_VALUE));
+    logger.info("File imported",
+      "connectionId", connectionId,
+      "tableName", tableName,
+      "rows", insertedRows,
+      "commits", commits,
+      "rowsPerSecond", Math.round(rowsPerSecond)
+    );
+    return new ImportFileReader.ImportSummary(insertedRows, commits, durationMs, rowsPerSecond);
+  }
+
   /**
    * Updates data in a specified table based on a WHERE clause.
    *
@@ -117,10 +599,10 @@ public class DatabaseConnectionManager {
    * @throws Exception if the update fails.
    */
   public int updateData(String connectionId, String tableName, Map<String, Object> data, String whereClause, List<Object> params) throws Exception {
-    long startTime = System.currentTimeMillis();
+    long startTime = System.nanoTime();
     totalQueries.incrementAndGet();
 
-    HikariDataSource dataSource = getDataSource(connectionId);
+    ConnectionPool pool = getPool(connectionId);
 
     if (data.isEmpty()) {
       throw new IllegalArgumentException("Data for update cannot be empty.");
@@ -145,14 +627,18 @@ public class DatabaseConnectionManager {
     // Combine update parameters and where clause parameters
     updateParams.addAll(params);
 
-    try (Connection connection = dataSource.getConnection();
-         PreparedStatement stmt = connection.prepareStatement(query)) {
+    try (Connection connection = pool.getConnection();
+         PreparedStatementCache.Lease lease = statementCache.prepare(connectionId, connection, query);
+         Cancellation.Scope ignored = JdbcExecutor.register(lease.statement())) {
+      PreparedStatement stmt = lease.statement();
+      applyQueryTimeout(stmt, pool, 0);
       setParameters(stmt, updateParams);
       int affectedRows = stmt.executeUpdate();
+      resultCache.invalidate(connectionId, tableName);
       logQuerySuccess(connectionId, query, startTime, affectedRows);
       return affectedRows;
     } catch (Exception e) {
-      totalErrors.incrementAndGet();
+      recordError(e);
       logQueryError(connectionId, query, startTime, e);
       throw createDetailedException(connectionId, query, e);
     }
@@ -169,21 +655,25 @@ public class DatabaseConnectionManager {
    * @throws Exception if the deletion fails.
    */
   public int deleteData(String connectionId, String tableName, String whereClause, List<Object> params) throws Exception {
-    long startTime = System.currentTimeMillis();
+    long startTime = System.nanoTime();
     totalQueries.incrementAndGet();
 
-    HikariDataSource dataSource = getDataSource(connectionId);
+    ConnectionPool pool = getPool(connectionId);
 
     String query = String.format("DELETE FROM %s %s", tableName, whereClause != null && !whereClause.isEmpty() ? "WHERE " + whereClause : "");
 
-    try (Connection connection = dataSource.getConnection();
-         PreparedStatement stmt = connection.prepareStatement(query)) {
+    try (Connection connection = pool.getConnection();
+         PreparedStatementCache.Lease lease = statementCache.prepare(connectionId, connection, query);
+         Cancellation.Scope ignored = JdbcExecutor.register(lease.statement())) {
+      PreparedStatement stmt = lease.statement();
+      applyQueryTimeout(stmt, pool, 0);
       setParameters(stmt, params);
       int affectedRows = stmt.executeUpdate();
+      resultCache.invalidate(connectionId, tableName);
       logQuerySuccess(connectionId, query, startTime, affectedRows);
       return affectedRows;
     } catch (Exception e) {
-      totalErrors.incrementAndGet();
+      recordError(e);
       logQueryError(connectionId, query, startTime, e);
       throw createDetailedException(connectionId, query, e);
     }
@@ -198,10 +688,10 @@ public class DatabaseConnectionManager {
    * @throws Exception if the table creation fails.
    */
   public void createTable(String connectionId, String tableName, List<Map<String, Object>> columns) throws Exception {
-    long startTime = System.currentTimeMillis();
+    long startTime = System.nanoTime();
     totalQueries.incrementAndGet();
 
-    HikariDataSource dataSource = getDataSource(connectionId);
+    ConnectionPool pool = getPool(connectionId);
 
     if (columns.isEmpty()) {
       throw new IllegalArgumentException("Columns for table creation cannot be empty.");
@@ -228,41 +718,43 @@ public class DatabaseConnectionManager {
 
     String query = String.format("CREATE TABLE %s (%s)", tableName, columnDefinitions);
 
-    try (Connection connection = dataSource.getConnection();
+    try (Connection connection = pool.getConnection();
          Statement stmt = connection.createStatement()) {
       stmt.execute(query);
+      resultCache.invalidate(connectionId, tableName);
       logQuerySuccess(connectionId, query, startTime, 0);
     } catch (Exception e) {
-      totalErrors.incrementAndGet();
+      recordError(e);
       logQueryError(connectionId, query, startTime, e);
       throw createDetailedException(connectionId, query, e);
     }
   }
 
   public void dropTable(String connectionId, String tableName) throws Exception {
-    long startTime = System.currentTimeMillis();
+    long startTime = System.nanoTime();
     totalQueries.incrementAndGet();
 
-    HikariDataSource dataSource = getDataSource(connectionId);
+    ConnectionPool pool = getPool(connectionId);
 
     String query = String.format("DROP TABLE %s", tableName);
 
-    try (Connection connection = dataSource.getConnection();
+    try (Connection connection = pool.getConnection();
          Statement stmt = connection.createStatement()) {
       stmt.execute(query);
+      resultCache.invalidate(connectionId, tableName);
       logQuerySuccess(connectionId, query, startTime, 0);
     } catch (Exception e) {
-      totalErrors.incrementAndGet();
+      recordError(e);
       logQueryError(connectionId, query, startTime, e);
       throw createDetailedException(connectionId, query, e);
     }
   }
 
   public void addColumn(String connectionId, String tableName, Map<String, Object> columnDefinition) throws Exception {
-    long startTime = System.currentTimeMillis();
+    long startTime = System.nanoTime();
     totalQueries.incrementAndGet();
 
-    HikariDataSource dataSource = getDataSource(connectionId);
+    ConnectionPool pool = getPool(connectionId);
 
     String columnName = (String) columnDefinition.get("name");
     String columnType = (String) columnDefinition.get("type");
@@ -280,31 +772,33 @@ public class DatabaseConnectionManager {
 
     String query = String.format("ALTER TABLE %s ADD COLUMN %s", tableName, columnDef);
 
-    try (Connection connection = dataSource.getConnection();
+    try (Connection connection = pool.getConnection();
          Statement stmt = connection.createStatement()) {
       stmt.execute(query);
+      resultCache.invalidate(connectionId, tableName);
       logQuerySuccess(connectionId, query, startTime, 0);
     } catch (Exception e) {
-      totalErrors.incrementAndGet();
+      recordError(e);
       logQueryError(connectionId, query, startTime, e);
       throw createDetailedException(connectionId, query, e);
     }
   }
 
   public void dropColumn(String connectionId, String tableName, String columnName) throws Exception {
-    long startTime = System.currentTimeMillis();
+    long startTime = System.nanoTime();
     totalQueries.incrementAndGet();
 
-    HikariDataSource dataSource = getDataSource(connectionId);
+    ConnectionPool pool = getPool(connectionId);
 
     String query = String.format("ALTER TABLE %s DROP COLUMN %s", tableName, columnName);
 
-    try (Connection connection = dataSource.getConnection();
+    try (Connection connection = pool.getConnection();
          Statement stmt = connection.createStatement()) {
       stmt.execute(query);
+      resultCache.invalidate(connectionId, tableName);
       logQuerySuccess(connectionId, query, startTime, 0);
     } catch (Exception e) {
-      totalErrors.incrementAndGet();
+      recordError(e);
       logQueryError(connectionId, query, startTime, e);
       throw createDetailedException(connectionId, query, e);
     }
@@ -321,35 +815,321 @@ public class DatabaseConnectionManager {
    * @throws Exception if query execution fails
    */
   public QueryResult executeQuery(String connectionId, String query, List<Object> params, int limit) throws Exception {
-    long startTime = System.currentTimeMillis();
+    return executeQuery(connectionId, query, params, limit, false);
+  }
+
+  /**
+   * Execute an SQL query, optionally serving SELECTs from the result cache.
+   *
+   * @param connectionId Connection identifier
+   * @param query        SQL query
+   * @param params       Query parameters
+   * @param limit        Maximum number of rows to return
+   * @param useCache     Whether the result may be read from and stored in the result cache
+   * @return Query result
+   * @throws Exception if query execution fails
+   */
+  public QueryResult executeQuery(String connectionId, String query, List<Object> params, int limit, boolean useCache) throws Exception {
+    return executeQuery(connectionId, query, params, limit, useCache, 0);
+  }
+
+  /**
+   * Execute an SQL query with a timeout, optionally serving SELECTs from the result cache.
+   *
+   * @param connectionId  Connection identifier
+   * @param query         SQL query
+   * @param params        Query parameters
+   * @param limit         Maximum number of rows to return
+   * @param useCache      Whether the result may be read from and stored in the result cache
+   * @param timeoutMillis Time after which the query is cancelled, or 0 for the connection's default
+   * @return Query result
+   * @throws Exception if query execution fails or times out
+   */
+  public QueryResult executeQuery(String connectionId, String query, List<Object> params, int limit, boolean useCache,
+                                  long timeoutMillis) throws Exception {
+    return executeQuery(connectionId, query, params, limit, useCache, timeoutMillis, false);
+  }
+
+  /**
+   * Execute an SQL query with a timeout, optionally on the primary even if it only reads.
+   *
+   * @param connectionId  Connection identifier
+   * @param query         SQL query
+   * @param params        Query parameters
+   * @param limit         Maximum number of rows to return
+   * @param useCache      Whether the result may be read from and stored in the result cache
+   * @param timeoutMillis Time after which the query is cancelled, or 0 for the connection's default
+   * @param primary       Whether to run a read-only query on the primary instead of a read replica
+   * @return Query result
+   * @throws Exception if query execution fails or times out
+   */
+  public QueryResult executeQuery(String connectionId, String query, List<Object> params, int limit, boolean useCache,
+                                  long timeoutMillis, boolean primary) throws Exception {
+    return executeQuery(connectionId, query, params, limit, useCache, timeoutMillis, primary, new ResultHandler<>(QueryResult.class,
+      rs -> buildQueryResult(rs, limit), QueryResult::rowCount, QueryResult::forUpdate, QueryResultCache::estimateSize));
+  }
+
+  /**
+   * Execute an SQL query and return the rows in columnar form.
+   * <p>
+   * Uses far less memory than {@link #executeQuery(String, String, List, int)} for large
+   * results, since column names are not repeated per row and numbers are stored unboxed.
+   *
+   * @param connectionId  Connection identifier
+   * @param query         SQL query
+   * @param params        Query parameters
+   * @param limit         Maximum number of rows to return
+   * @param useCache      Whether the result may be read from and stored in the result cache
+   * @param timeoutMillis Time after which the query is cancelled, or 0 for the connection's default
+   * @param primary       Whether to run a read-only query on the primary instead of a read replica
+   * @return Columnar query result
+   * @throws Exception if query execution fails or times out
+   */
+  public ColumnarQueryResult executeColumnarQuery(String connectionId, String query, List<Object> params, int limit,
+                                                  boolean useCache, long timeoutMillis, boolean primary) throws Exception {
+    return executeQuery(connectionId, query, params, limit, useCache, timeoutMillis, primary, new ResultHandler<>(ColumnarQueryResult.class,
+      rs -> ColumnarQueryResult.fromResultSet(rs, limit), ColumnarQueryResult::rowCount, ColumnarQueryResult::forUpdate,
+      ColumnarQueryResult::estimatedSize));
+  }
+
+  private <T> T executeQuery(String connectionId, String query, List<Object> params, int limit, boolean useCache,
+                             long timeoutMillis, boolean primary, ResultHandler<T> handler) throws Exception {
+    long startTime = System.nanoTime();
     totalQueries.incrementAndGet();
 
-    HikariDataSource dataSource = getDataSource(connectionId);
+    ConnectionPool pool = getPool(connectionId);
+
+    QueryResultCache.Key cacheKey = useCache ? resultCache.keyFor(connectionId, query, params, limit, handler.type()) : null;
+    if (cacheKey != null) {
+      T cached = resultCache.get(cacheKey, handler.type());
+      if (cached != null) {
+        logQuerySuccess(connectionId, query, startTime, handler.rowCount().applyAsInt(cached));
+        return cached;
+      }
+    }
 
-    try (Connection connection = dataSource.getConnection()) {
+    boolean readOnly = !primary && QueryResultCache.isReadOnly(query);
+    try (Connection connection = readOnly ? pool.getReadConnection() : pool.getConnection()) {
       // Validate and optimize query
       validateQuery(query);
 
-      try (PreparedStatement stmt = connection.prepareStatement(query)) {
+      try (PreparedStatementCache.Lease lease = statementCache.prepare(connectionId, connection, query);
+           Cancellation.Scope ignored = JdbcExecutor.register(lease.statement())) {
+        PreparedStatement stmt = lease.statement();
+        applyQueryTimeout(stmt, pool, timeoutMillis);
         setParameters(stmt, params);
 
-        if (stmt.execute()) {
+        boolean hasResultSet = stmt.execute();
+        // Writes, including ones that return rows, drop cached results of the written table
+        resultCache.invalidateForStatement(connectionId, query);
+
+        if (hasResultSet) {
           // SELECT query
           try (ResultSet rs = stmt.getResultSet()) {
-            QueryResult result = buildQueryResult(rs, limit);
-            logQuerySuccess(connectionId, query, startTime, result.rowCount());
+            T result = handler.reader().read(rs);
+            if (cacheKey != null) {
+              resultCache.put(cacheKey, result, handler.size().applyAsLong(result));
+            }
+            logQuerySuccess(connectionId, query, startTime, handler.rowCount().applyAsInt(result));
             return result;
           }
         } else {
           // UPDATE/INSERT/DELETE query
           int affectedRows = stmt.getUpdateCount();
-          QueryResult result = QueryResult.forUpdate(affectedRows);
+          T result = handler.forUpdate().apply(affectedRows);
           logQuerySuccess(connectionId, query, startTime, affectedRows);
           return result;
         }
       }
     } catch (Exception e) {
-      totalErrors.incrementAndGet();
+      recordError(e);
+      logQueryError(connectionId, query, startTime, e);
+      throw createDetailedException(connectionId, query, e);
+    }
+  }
+
+  /**
+   * Execute a query and keep its result set open as a cursor.
+   * <p>
+   * Rows are streamed from the driver with the page size as fetch size, so only the current
+   * page is held in memory. Use {@link #fetchNext} to read further pages. A connection keeps at
+   * most {@link ConnectionPool#cursorCapacity()} cursors open, so cursors cannot take every
+   * pooled connection, and a connection whose pool has a single connection rejects cursors
+   * before running the query.
+   *
+   * @param connectionId  Connection identifier
+   * @param query         SQL query
+   * @param params        Query parameters
+   * @param pageSize      Maximum number of rows per page
+   * @param timeoutMillis Time after which executing the query is cancelled, or 0 for the connection's default
+   * @param primary       Whether to run a read-only query on the primary instead of a read replica
+   * @return The first page, or an empty page with the affected row count if the query did not produce a result set
+   * @throws Exception if query execution fails or times out
+   */
+  public QueryCursorManager.CursorPage openCursor(String connectionId, String query, List<Object> params, int pageSize,
+                                                  long timeoutMillis, boolean primary) throws Exception {
+    long startTime = System.nanoTime();
+    totalQueries.incrementAndGet();
+
+    ConnectionPool pool = getPool(connectionId);
+    validateQuery(query);
+    cursorManager.reserve(connectionId, pool.cursorCapacity());
+
+    Connection connection = null;
+    PreparedStatement stmt = null;
+    ResultSet rs = null;
+    List<String> columns;
+    try {
+      connection = !primary && QueryResultCache.isReadOnly(query) ? pool.getReadConnection() : pool.getConnection();
+      // PostgreSQL only honours the fetch size inside a transaction
+      connection.setAutoCommit(false);
+
+      stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      stmt.setFetchSize(pageSize);
+      applyQueryTimeout(stmt, pool, timeoutMillis);
+      setParameters(stmt, params);
+
+      boolean hasResultSet;
+      try (Cancellation.Scope ignored = JdbcExecutor.register(stmt)) {
+        hasResultSet = stmt.execute();
+      }
+      resultCache.invalidateForStatement(connectionId, query);
+
+      if (!hasResultSet) {
+        int affectedRows = stmt.getUpdateCount();
+        connection.commit();
+        connection.setAutoCommit(true);
+        logQuerySuccess(connectionId, query, startTime, affectedRows);
+        closeQuietly(stmt, connection);
+        cursorManager.release(connectionId);
+        return QueryCursorManager.CursorPage.forUpdate(affectedRows);
+      }
+
+      rs = stmt.getResultSet();
+      columns = columnNames(rs);
+    } catch (Exception e) {
+      closeQuietly(rs, stmt, connection);
+      cursorManager.release(connectionId);
+      recordError(e);
+      logQueryError(connectionId, query, startTime, e);
+      throw createDetailedException(connectionId, query, e);
+    }
+
+    try {
+      // The cursor owns the connection from here on
+      QueryCursorManager.CursorPage page = cursorManager.open(connectionId, connection, stmt, rs, columns, pageSize);
+      logQuerySuccess(connectionId, query, startTime, page.rows().size());
+      return page;
+    } catch (Exception e) {
+      recordError(e);
+      logQueryError(connectionId, query, startTime, e);
+      throw createDetailedException(connectionId, query, e);
+    }
+  }
+
+  /**
+   * Read the next page of an open cursor.
+   *
+   * @param cursorId Cursor identifier returned with the previous page
+   * @param pageSize Maximum number of rows in the page
+   * @return The next page
+   * @throws Exception if reading fails or the cursor does not exist
+   */
+  public QueryCursorManager.CursorPage fetchNext(String cursorId, int pageSize) throws Exception {
+    return cursorManager.fetchNext(cursorId, pageSize);
+  }
+
+  /**
+   * Close an open cursor before all its rows have been read.
+   *
+   * @param cursorId Cursor identifier
+   * @return True if the cursor was open
+   */
+  public boolean closeCursor(String cursorId) {
+    return cursorManager.close(cursorId);
+  }
+
+  /**
+   * Execute a query and stream its rows to a file.
+   * <p>
+   * Rows are read from the driver in batches of the export fetch size and written as they
+   * arrive, so memory use does not depend on the size of the result. A partially written file
+   * is deleted if the export fails.
+   *
+   * @param connectionId  Connection identifier
+   * @param query         SQL query producing a result set
+   * @param params        Query parameters
+   * @param path          File to write
+   * @param format        Output format
+   * @param header        Whether to write a header row, for CSV
+   * @param overwrite     Whether to replace an existing file
+   * @param timeoutMillis Time after which executing the query is cancelled, or 0 for the connection's default
+   * @return Summary of the export
+   * @throws Exception if the query, reading its results or writing the file fails
+   */
+  public QueryExporter.ExportSummary exportQuery(String connectionId, String query, List<Object> params, Path path,
+                                                 QueryExporter.Format format, boolean header, boolean overwrite,
+                                                 long timeoutMillis) throws Exception {
+    long startTime = System.nanoTime();
+    totalQueries.incrementAndGet();
+
+    ConnectionPool pool = getPool(connectionId);
+    validateQuery(query);
+    Path target = path.toAbsolutePath();
+    OpenOption[] openOptions = overwrite
+      ? new OpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE}
+      : new OpenOption[]{StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE};
+
+    boolean readOnly = QueryResultCache.isReadOnly(query);
+    boolean created = false;
+    try (Connection connection = readOnly ? pool.getReadConnection() : pool.getConnection()) {
+      boolean autoCommit = connection.getAutoCommit();
+      // PostgreSQL only honours the fetch size inside a transaction
+      connection.setAutoCommit(false);
+
+      try (PreparedStatement stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+           Cancellation.Scope ignored = JdbcExecutor.register(stmt)) {
+        DatabaseConfig config = configurations.get(connectionId);
+        // MySQL Connector/J buffers the whole result unless asked to stream row by row
+        stmt.setFetchSize(config != null && "mysql".equals(config.type()) ? Integer.MIN_VALUE : exportFetchSize);
+        applyQueryTimeout(stmt, pool, timeoutMillis);
+        setParameters(stmt, params);
+
+        if (!stmt.execute()) {
+          throw new IllegalArgumentException("Query did not return a result set");
+        }
+
+        long rows;
+        try (ResultSet rs = stmt.getResultSet();
+             FileChannel channel = FileChannel.open(target, openOptions)) {
+          created = true;
+          rows = exporter.write(rs, format, channel, header);
+          channel.force(false);
+        }
+        connection.commit();
+
+        long bytes = Files.size(target);
+        logQuerySuccess(connectionId, query, startTime, (int) Math.min(rows, Integer.MAX_VALUE));
+        logger.info("Query exported",
+          "connectionId", connectionId,
+          "path", target.toString(),
+          "format", format.name(),
+          "rows", rows,
+          "bytes", bytes
+        );
+        return new QueryExporter.ExportSummary(target.toString(), format.name().toLowerCase(Locale.ROOT), rows, bytes,
+          elapsedMillis(startTime));
+      } catch (Exception e) {
+        rollback(connection, e);
+        throw e;
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    } catch (Exception e) {
+      if (created) {
+        Files.deleteIfExists(target);
+      }
+      recordError(e);
       logQueryError(connectionId, query, startTime, e);
       throw createDetailedException(connectionId, query, e);
     }
@@ -364,12 +1144,26 @@ public class DatabaseConnectionManager {
    * @throws Exception if transaction fails
    */
   public List<QueryResult> executeTransaction(String connectionId, List<QueryWithParams> queries) throws Exception {
-    long startTime = System.currentTimeMillis();
+    return executeTransaction(connectionId, queries, 0);
+  }
+
+  /**
+   * Execute multiple queries in a transaction that must finish within a timeout.
+   *
+   * @param connectionId  Connection identifier
+   * @param queries       List of queries with parameters
+   * @param timeoutMillis Time after which the transaction is cancelled and rolled back, or 0 for
+   *                      the connection's default per statement
+   * @return List of query results
+   * @throws Exception if transaction fails or times out
+   */
+  public List<QueryResult> executeTransaction(String connectionId, List<QueryWithParams> queries, long timeoutMillis) throws Exception {
+    long startTime = System.nanoTime();
     totalQueries.incrementAndGet();
 
-    HikariDataSource dataSource = getDataSource(connectionId);
+    ConnectionPool pool = getPool(connectionId);
 
-    try (Connection connection = dataSource.getConnection()) {
+    try (Connection connection = pool.getConnection()) {
       boolean autoCommit = connection.getAutoCommit();
 
       try {
@@ -379,7 +1173,20 @@ public class DatabaseConnectionManager {
         for (QueryWithParams queryWithParams : queries) {
           validateQuery(queryWithParams.query());
 
-          try (PreparedStatement stmt = connection.prepareStatement(queryWithParams.query())) {
+          // The timeout covers the whole transaction, so each statement gets what is left of it
+          long remainingMillis = 0;
+          if (timeoutMillis > 0) {
+            remainingMillis = timeoutMillis - elapsedMillis(startTime);
+            if (remainingMillis <= 0) {
+              throw new SQLTimeoutException("Transaction timed out after " + timeoutMillis + "ms");
+            }
+          }
+
+          long statementStart = System.nanoTime();
+          try (PreparedStatementCache.Lease lease = statementCache.prepare(connectionId, connection, queryWithParams.query());
+               Cancellation.Scope ignored = JdbcExecutor.register(lease.statement())) {
+            PreparedStatement stmt = lease.statement();
+            applyQueryTimeout(stmt, pool, remainingMillis);
             setParameters(stmt, queryWithParams.params());
 
             if (stmt.execute()) {
@@ -389,16 +1196,23 @@ public class DatabaseConnectionManager {
             } else {
               results.add(QueryResult.forUpdate(stmt.getUpdateCount()));
             }
+            QueryResult result = results.getLast();
+            queryStatistics.record(connectionId, queryWithParams.query(), System.nanoTime() - statementStart,
+              result.rowCount() + result.affectedRows(), false);
+          } catch (Exception e) {
+            queryStatistics.record(connectionId, queryWithParams.query(), System.nanoTime() - statementStart, 0, true);
+            throw e;
           }
         }
 
         connection.commit();
+        queries.forEach(queryWithParams -> resultCache.invalidateForStatement(connectionId, queryWithParams.query()));
         logTransactionSuccess(connectionId, queries.size(), startTime);
         return results;
 
       } catch (Exception e) {
-        connection.rollback();
-        totalErrors.incrementAndGet();
+        rollback(connection, e);
+        recordError(e);
         logTransactionError(connectionId, queries.size(), startTime, e);
         throw createDetailedException(connectionId, "Transaction", e);
       } finally {
@@ -407,6 +1221,86 @@ public class DatabaseConnectionManager {
     }
   }
 
+  /**
+   * Execute independent statements concurrently, each on its own pooled connection and in its
+   * own implicit transaction.
+   * <p>
+   * At most {@code concurrency} statements run at a time, and never more than the connection's
+   * pools hold connections, since further statements would only wait for a connection. A failed
+   * statement does not stop the others; its error is part of its result.
+   *
+   * @param connectionId  Connection identifier
+   * @param queries       Statements with their parameters
+   * @param concurrency   Maximum number of statements running at a time, 0 for as many as the pools allow
+   * @param limit         Maximum number of rows returned per statement
+   * @param timeoutMillis Time after which each statement is cancelled, or 0 for the connection's default
+   * @return Results in the order of the statements
+   * @throws Exception if the connection does not exist or the statements cannot be scheduled
+   */
+  public ParallelExecution executeParallel(String connectionId, List<QueryWithParams> queries, int concurrency, int limit,
+                                           long timeoutMillis) throws Exception {
+    long startTime = System.nanoTime();
+    ConnectionPool pool = getPool(connectionId);
+    int workers = Math.min(queries.size(), Math.min(concurrency > 0 ? concurrency : Integer.MAX_VALUE, pool.capacity()));
+
+    ParallelResult[] results = new ParallelResult[queries.size()];
+    AtomicInteger next = new AtomicInteger();
+    List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+    for (int i = 0; i < workers; i++) {
+      // Each worker takes the next statement when it is done with one, so a slow statement does not hold up the rest
+      futures.add(jdbcExecutor.submit(() -> {
+        for (int index = next.getAndIncrement(); index < queries.size() && !JdbcExecutor.isCancelled();
+             index = next.getAndIncrement()) {
+          results[index] = executeParallelStatement(connectionId, index, queries.get(index), limit, timeoutMillis, startTime);
+        }
+        return null;
+      }, null));
+    }
+
+    Exception failure = null;
+    for (CompletableFuture<Void> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        failure = e.getCause() instanceof Exception cause ? cause : e;
+      } catch (InterruptedException e) {
+        futures.forEach(f -> f.cancel(true));
+        Thread.currentThread().interrupt();
+        throw e;
+      }
+    }
+
+    if (failure != null && Arrays.stream(results).allMatch(Objects::isNull)) {
+      throw failure;
+    }
+    List<ParallelResult> resultList = new ArrayList<>(results.length);
+    for (int i = 0; i < results.length; i++) {
+      // Statements left over when a worker could not be scheduled or the batch was cancelled
+      resultList.add(results[i] != null ? results[i]
+        : new ParallelResult(i, null, "Not executed: " + (failure != null ? failure.getMessage() : "cancelled"), 0, 0));
+    }
+
+    logger.debug("Parallel statements executed",
+      "connectionId", connectionId,
+      "duration", elapsedMillis(startTime),
+      "queryCount", queries.size(),
+      "concurrency", workers
+    );
+    return new ParallelExecution(workers, elapsedMillis(startTime), resultList);
+  }
+
+  private ParallelResult executeParallelStatement(String connectionId, int index, QueryWithParams query, int limit,
+                                                  long timeoutMillis, long batchStart) {
+    long start = System.nanoTime();
+    double startMs = (start - batchStart) / 1_000_000.0;
+    try {
+      QueryResult result = executeQuery(connectionId, query.query(), query.params(), limit, false, timeoutMillis);
+      return new ParallelResult(index, result, null, startMs, (System.nanoTime() - start) / 1_000_000.0);
+    } catch (Exception e) {
+      return new ParallelResult(index, null, e.getMessage(), startMs, (System.nanoTime() - start) / 1_000_000.0);
+    }
+  }
+
   /**
    * Get table schema information with enhanced metadata.
    *
@@ -416,9 +1310,9 @@ public class DatabaseConnectionManager {
    * @throws Exception if operation fails
    */
   public List<Map<String, Object>> getTableSchema(String connectionId, String tableName) throws Exception {
-    HikariDataSource dataSource = getDataSource(connectionId);
+    ConnectionPool pool = getPool(connectionId);
 
-    try (Connection connection = dataSource.getConnection()) {
+    try (Connection connection = pool.getReadConnection()) {
       DatabaseMetaData metaData = connection.getMetaData();
 
       List<Map<String, Object>> columns = new ArrayList<>();
@@ -466,9 +1360,9 @@ public class DatabaseConnectionManager {
    * @throws Exception if operation fails
    */
   public List<Map<String, Object>> listTables(String connectionId) throws Exception {
-    HikariDataSource dataSource = getDataSource(connectionId);
+    ConnectionPool pool = getPool(connectionId);
 
-    try (Connection connection = dataSource.getConnection()) {
+    try (Connection connection = pool.getReadConnection()) {
       DatabaseMetaData metaData = connection.getMetaData();
 
       List<Map<String, Object>> tables = new ArrayList<>();
@@ -495,11 +1389,17 @@ public class DatabaseConnectionManager {
    * @param connectionId Connection identifier
    */
   public void disconnect(String connectionId) {
-    HikariDataSource dataSource = dataSources.remove(connectionId);
+    pendingConnections.remove(connectionId);
+    startups.remove(connectionId);
+    cursorManager.closeAll(connectionId);
+    statementCache.invalidate(connectionId);
+    resultCache.invalidateAll(connectionId);
+    queryStatistics.remove(connectionId);
+    ConnectionPool pool = pools.remove(connectionId);
     configurations.remove(connectionId);
 
-    if (dataSource != null) {
-      dataSource.close();
+    if (pool != null) {
+      pool.close();
       logger.info("Database connection closed", "connectionId", connectionId);
     }
   }
@@ -511,7 +1411,74 @@ public class DatabaseConnectionManager {
    * @return true if connection exists
    */
   public boolean hasConnection(String connectionId) {
-    return dataSources.containsKey(connectionId);
+    return pools.containsKey(connectionId) || pendingConnections.containsKey(connectionId);
+  }
+
+  // Asynchronous API
+  //
+  // These methods run the blocking methods above on the JDBC executor. A timeout of null means
+  // no timeout. When the returned future times out or is cancelled, the running statement is
+  // cancelled and any statements of the operation that have not started yet fail.
+
+  /**
+   * Asynchronous version of {@link #executeQuery(String, String, List, int)}.
+   *
+   * @param timeout Time after which the query is cancelled, or null for none
+   */
+  public CompletableFuture<QueryResult> executeQueryAsync(String connectionId, String query, List<Object> params,
+                                                          int limit, @Nullable Duration timeout) {
+    return jdbcExecutor.submit(() -> executeQuery(connectionId, query, params, limit), timeout);
+  }
+
+  /**
+   * Asynchronous version of {@link #executeTransaction}. The transaction is rolled back if it is
+   * cancelled.
+   *
+   * @param timeout Time after which the transaction is cancelled, or null for none
+   */
+  public CompletableFuture<List<QueryResult>> executeTransactionAsync(String connectionId, List<QueryWithParams> queries,
+                                                                      @Nullable Duration timeout) {
+    return jdbcExecutor.submit(() -> executeTransaction(connectionId, queries), timeout);
+  }
+
+  /**
+   * Asynchronous version of {@link #insertData}.
+   *
+   * @param timeout Time after which the insert is cancelled, or null for none
+   */
+  public CompletableFuture<Integer> insertDataAsync(String connectionId, String tableName, Map<String, Object> data,
+                                                    @Nullable Duration timeout) {
+    return jdbcExecutor.submit(() -> insertData(connectionId, tableName, data), timeout);
+  }
+
+  /**
+   * Asynchronous version of {@link #bulkInsert}. No rows are inserted if it is cancelled.
+   *
+   * @param timeout Time after which the insert is cancelled, or null for none
+   */
+  public CompletableFuture<Integer> bulkInsertAsync(String connectionId, String tableName, List<Map<String, Object>> rows,
+                                                    int batchSize, @Nullable Duration timeout) {
+    return jdbcExecutor.submit(() -> bulkInsert(connectionId, tableName, rows, batchSize), timeout);
+  }
+
+  /**
+   * Asynchronous version of {@link #updateData}.
+   *
+   * @param timeout Time after which the update is cancelled, or null for none
+   */
+  public CompletableFuture<Integer> updateDataAsync(String connectionId, String tableName, Map<String, Object> data,
+                                                    String whereClause, List<Object> params, @Nullable Duration timeout) {
+    return jdbcExecutor.submit(() -> updateData(connectionId, tableName, data, whereClause, params), timeout);
+  }
+
+  /**
+   * Asynchronous version of {@link #deleteData}.
+   *
+   * @param timeout Time after which the delete is cancelled, or null for none
+   */
+  public CompletableFuture<Integer> deleteDataAsync(String connectionId, String tableName, String whereClause,
+                                                    List<Object> params, @Nullable Duration timeout) {
+    return jdbcExecutor.submit(() -> deleteData(connectionId, tableName, whereClause, params), timeout);
   }
 
   /**
@@ -520,48 +1487,448 @@ public class DatabaseConnectionManager {
    * @return Map containing performance metrics
    */
   public Map<String, Object> getMetrics() {
+    return getMetrics(20, 20);
+  }
+
+  /**
+   * Get performance metrics for the connection manager.
+   *
+   * @param topStatements  Number of statement fingerprints to include, by total time
+   * @param slowQueryLimit Number of most recent slow queries to include
+   * @return Map containing performance metrics, including latency histograms and slow queries
+   */
+  public Map<String, Object> getMetrics(int topStatements, int slowQueryLimit) {
     Map<String, Object> metrics = new HashMap<>();
     metrics.put("totalQueries", totalQueries.get());
     metrics.put("totalErrors", totalErrors.get());
-    metrics.put("activeConnections", dataSources.size());
+    metrics.put("cancelledQueries", cancelledQueries.get());
+    metrics.put("timedOutQueries", timedOutQueries.get());
+    metrics.put("activeConnections", pools.size());
+    metrics.put("pendingConnections", pendingConnections.size());
+
+    Map<String, Object> budget = new LinkedHashMap<>();
+    budget.put("limit", connectionBudget);
+    budget.put("used", budgetedConnections());
+    budget.put("rejections", budgetRejections.get());
+    budget.put("evictions", budgetEvictions.get());
+    metrics.put("connectionBudget", budget);
+
+    Map<String, Object> idlePools = new LinkedHashMap<>();
+    idlePools.put("timeoutMs", idlePoolTimeoutMs);
+    idlePools.put("reaped", reapedPools.get());
+    idlePools.put("recreated", recreatedPools.get());
+    metrics.put("idlePools", idlePools);
 
     Map<String, Object> connectionMetrics = new HashMap<>();
-    for (Map.Entry<String, HikariDataSource> entry : dataSources.entrySet()) {
-      HikariDataSource ds = entry.getValue();
-      Map<String, Object> connMetrics = new HashMap<>();
-      connMetrics.put("activeConnections", ds.getHikariPoolMXBean().getActiveConnections());
-      connMetrics.put("idleConnections", ds.getHikariPoolMXBean().getIdleConnections());
-      connMetrics.put("totalConnections", ds.getHikariPoolMXBean().getTotalConnections());
-      connectionMetrics.put(entry.getKey(), connMetrics);
+    for (Map.Entry<String, ConnectionPool> entry : pools.entrySet()) {
+      connectionMetrics.put(entry.getKey(), entry.getValue().getMetrics());
     }
     metrics.put("connections", connectionMetrics);
 
+    Map<String, Object> startupMetrics = new HashMap<>();
+    startups.forEach((id, startup) -> startupMetrics.put(id, startup.toMap()));
+    metrics.put("startup", startupMetrics);
+    metrics.put("timeToFirstQuery", timeToFirstQuery.toMap());
+    metrics.put("cursors", cursorManager.getMetrics());
+    metrics.put("statementCache", statementCache.getMetrics());
+    metrics.put("resultCache", resultCache.getMetrics());
+    metrics.put("async", jdbcExecutor.getMetrics());
+    metrics.put("queries", queryStatistics.getMetrics(topStatements, slowQueryLimit));
+
     return metrics;
   }
 
   public void shutdown() {
-    for (HikariDataSource dataSource : dataSources.values()) {
-      dataSource.close();
+    jdbcExecutor.shutdown();
+    cursorManager.shutdown();
+    statementCache.clear();
+    poolTuner.shutdownNow();
+    replicaMonitor.shutdownNow();
+    warmUpExecutor.shutdownNow();
+    for (ConnectionPool pool : pools.values()) {
+      pool.close();
     }
-    dataSources.clear();
+    pools.clear();
+    pendingConnections.clear();
+    startups.clear();
     configurations.clear();
     logger.info("DatabaseConnectionManager shutdown complete");
   }
 
   // Private helper methods
 
-  private HikariDataSource getDataSource(String connectionId) throws SQLException {
-    HikariDataSource dataSource = dataSources.get(connectionId);
-    if (dataSource == null) {
-      throw new SQLException("Connection not found: " + connectionId);
+  /**
+   * Get the pools of a connection, creating them if the connection is pending.
+   * <p>
+   * The pool is touched before it is checked to still be registered. {@link #reapPool} removes a
+   * pool before its final idle check, so a pool that is still registered after the touch is not
+   * closed. If the idle pool reaper moved the connection while it was looked up, the lookup is
+   * retried once.
+   */
+  private ConnectionPool getPool(String connectionId) throws SQLException {
+    for (int attempt = 0; ; attempt++) {
+      ConnectionPool pool = pools.get(connectionId);
+      if (pool == null) {
+        PendingConnection pending = pendingConnections.get(connectionId);
+        if (pending != null) {
+          pool = openPendingPool(connectionId, pending);
+        } else if (attempt == 0) {
+          continue;
+        } else {
+          throw new SQLException("Connection not found: " + connectionId);
+        }
+      }
+
+      pool.touch();
+      if (pools.get(connectionId) == pool && !pool.isClosed()) {
+        return pool;
+      }
+      if (attempt > 0) {
+        throw new SQLException("Connection pool is closed: " + connectionId);
+      }
+    }
+  }
+
+  /**
+   * Create the pool of a lazy connection. Concurrent first requests wait for the same pool.
+   */
+  private ConnectionPool openPendingPool(String connectionId, PendingConnection pending) throws SQLException {
+    pending.lock().lock();
+    try {
+      ConnectionPool pool = pools.get(connectionId);
+      if (pool != null) {
+        return pool;
+      }
+      if (pendingConnections.get(connectionId) != pending) {
+        throw new SQLException("Connection not found: " + connectionId);
+      }
+
+      ConnectionStartup startup = startups.get(connectionId);
+      try {
+        pool = openPool(connectionId, pending.config(), pending.settings());
+      } catch (Exception e) {
+        // Stays pending, so the next request tries again
+        if (startup != null) {
+          startup.poolFailed(e.getMessage());
+        }
+        throw e instanceof SQLException sqlException ? sqlException
+          : new SQLException("Failed to create connection pool for " + connectionId + ": " + e.getMessage(), e);
+      }
+
+      if (!pendingConnections.remove(connectionId, pending)) {
+        // Disconnected while the pool was being created
+        pools.remove(connectionId, pool);
+        pool.close();
+        throw new SQLException("Connection not found: " + connectionId);
+      }
+      if (pending.reaped()) {
+        recreatedPools.incrementAndGet();
+        logger.info("Recreated idle connection pool", "connectionId", connectionId);
+      }
+      if (startup != null) {
+        startup.poolReady();
+        warmUp(connectionId, pool, startup);
+      }
+      return pool;
+    } finally {
+      pending.lock().unlock();
+    }
+  }
+
+  private static void validateConnection(Connection connection) throws SQLException {
+    try (connection) {
+      if (!connection.isValid(5)) {
+        throw new SQLException("Database connection validation failed");
+      }
+    }
+  }
+
+  /**
+   * Set the query timeout of a statement, which may be a cached statement used with another
+   * timeout before.
+   *
+   * @param timeoutMillis Timeout of this call, or 0 for the connection's default
+   */
+  private static void applyQueryTimeout(Statement stmt, ConnectionPool pool, long timeoutMillis) throws SQLException {
+    long effective = timeoutMillis > 0 ? timeoutMillis : pool.settings().queryTimeout();
+    // JDBC timeouts are in whole seconds; round up so short timeouts do not become "no timeout"
+    stmt.setQueryTimeout(effective > 0 ? (int) Math.min(Integer.MAX_VALUE, (effective + 999) / 1000) : 0);
+  }
+
+  /**
+   * Count a failed operation, and whether it failed because it was cancelled or timed out.
+   */
+  private void recordError(Exception e) {
+    totalErrors.incrementAndGet();
+    if (JdbcExecutor.isCancelled()) {
+      cancelledQueries.incrementAndGet();
+    } else if (isTimeout(e)) {
+      timedOutQueries.incrementAndGet();
+    }
+  }
+
+  private static boolean isTimeout(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLTimeoutException) {
+        return true;
+      }
+      if (cause instanceof SQLException sqlException) {
+        String message = String.valueOf(sqlException.getMessage());
+        // PostgreSQL reports its statement timeout as a cancellation, SQLite as an interrupt
+        if (JdbcExecutor.QUERY_CANCELED.equals(sqlException.getSQLState()) || message.contains("SQLITE_INTERRUPT")) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private void tunePools() {
+    for (ConnectionPool pool : pools.values()) {
+      try {
+        pool.tune(adaptiveWaitThresholdMs, connectionBudget > 0 ? connectionBudget - budgetedConnections() : Integer.MAX_VALUE);
+      } catch (Exception e) {
+        logger.warn("Connection pool tuning failed", "error", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Number of connections the registered pools and the pools being created may open.
+   */
+  private int budgetedConnections() {
+    budgetLock.lock();
+    try {
+      int total = reservedConnections;
+      for (ConnectionPool pool : pools.values()) {
+        total += pool.capacity();
+      }
+      return total;
+    } finally {
+      budgetLock.unlock();
+    }
+  }
+
+  /**
+   * Reserve budget for a new pool, closing idle pools of other connections, least recently
+   * used first, if the budget is exhausted.
+   *
+   * @throws SQLException if the pool does not fit even after closing all idle pools
+   */
+  private void reserveConnections(String connectionId, int required) throws SQLException {
+    budgetLock.lock();
+    try {
+      if (connectionBudget > 0 && budgetedConnections() + required > connectionBudget) {
+        List<Map.Entry<String, ConnectionPool>> idle = new ArrayList<>(pools.entrySet());
+        idle.sort(Comparator.comparingLong((Map.Entry<String, ConnectionPool> entry) -> entry.getValue().idleNanos()).reversed());
+        for (Map.Entry<String, ConnectionPool> entry : idle) {
+          if (budgetedConnections() + required <= connectionBudget) {
+            break;
+          }
+          if (!entry.getKey().equals(connectionId) && entry.getValue().idleNanos() >= MIN_EVICTION_IDLE_NANOS
+            && reapPool(entry.getKey(), entry.getValue(), MIN_EVICTION_IDLE_NANOS)) {
+            budgetEvictions.incrementAndGet();
+          }
+        }
+
+        int used = budgetedConnections();
+        if (used + required > connectionBudget) {
+          budgetRejections.incrementAndGet();
+          throw new SQLException("Connection budget exhausted: " + connectionId + " needs " + required
+            + " connections, " + used + " of " + connectionBudget + " are in use. Disconnect unused connections or raise database.connection-pool.budget");
+        }
+      }
+      reservedConnections += required;
+    } finally {
+      budgetLock.unlock();
+    }
+  }
+
+  /**
+   * Maximum number of connections the pools of a connection open, see {@link #createPool}.
+   */
+  private static int requiredConnections(DatabaseConfig config, PoolSettings settings) {
+    boolean sqlite = config instanceof DatabaseConfig.SQLiteConfig;
+    int required = sqlite ? 1 : settings.maximumPoolSize();
+    if (sqlite && settings.readerPoolSize() > 0 && !((DatabaseConfig.SQLiteConfig) config).inMemory()) {
+      required += settings.readerPoolSize();
+    }
+    int perReplica = sqlite ? Math.max(1, settings.readerPoolSize()) : settings.maximumPoolSize();
+    return required + perReplica * config.replicas().endpoints().size();
+  }
+
+  private void reapIdlePools() {
+    long timeoutNanos = idlePoolTimeoutMs * 1_000_000;
+    for (Map.Entry<String, ConnectionPool> entry : pools.entrySet()) {
+      if (entry.getValue().idleNanos() >= timeoutNanos) {
+        try {
+          reapPool(entry.getKey(), entry.getValue(), timeoutNanos);
+        } catch (Exception e) {
+          logger.warn("Closing idle connection pool failed", "connectionId", entry.getKey(), "error", e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * Close the pools of a connection that has no connection checked out, keeping its
+   * configuration so that the next use creates them again.
+   * <p>
+   * The pool is checked again after it has left the pool map, and put back if it was used in the
+   * meantime; see {@link #getPool}. Requests for the connection wait on the pending entry's lock
+   * until the pool has been either closed or put back.
+   *
+   * @param minIdleNanos Time the pool must have been unused to be closed
+   * @return Whether the pools were closed
+   */
+  private boolean reapPool(String connectionId, ConnectionPool pool, long minIdleNanos) {
+    DatabaseConfig config = configurations.get(connectionId);
+    if (config == null || pool.activeConnections() > 0) {
+      return false;
+    }
+
+    PendingConnection pending = new PendingConnection(config, pool.settings(), new ReentrantLock(), true);
+    pending.lock().lock();
+    try {
+      // Registered as pending before it leaves the pool map, so the connection never appears to be gone
+      if (pendingConnections.putIfAbsent(connectionId, pending) != null) {
+        return false;
+      }
+      if (!pools.remove(connectionId, pool)) {
+        pendingConnections.remove(connectionId, pending);
+        return false;
+      }
+
+      if (pool.idleNanos() < minIdleNanos || pool.activeConnections() > 0) {
+        pools.put(connectionId, pool);
+        if (!pendingConnections.remove(connectionId, pending) && pools.remove(connectionId, pool)) {
+          // Disconnected meanwhile
+          pool.close();
+        }
+        return false;
+      }
+
+      statementCache.invalidate(connectionId);
+      pool.close();
+    } finally {
+      pending.lock().unlock();
+    }
+
+    reapedPools.incrementAndGet();
+    logger.info("Closed idle connection pool, it is recreated on next use",
+      "connectionId", connectionId,
+      "idleMs", pool.idleNanos() / 1_000_000
+    );
+    return true;
+  }
+
+  private void checkReplicas() {
+    for (Map.Entry<String, ConnectionPool> entry : pools.entrySet()) {
+      DatabaseConfig config = configurations.get(entry.getKey());
+      if (config != null) {
+        checkReplicas(entry.getValue(), config);
+      }
     }
-    if (dataSource.isClosed()) {
-      throw new SQLException("Connection pool is closed: " + connectionId);
+  }
+
+  /**
+   * Measure the lag of each replica of a connection and take lagging or unreachable replicas out of rotation.
+   */
+  private void checkReplicas(ConnectionPool pool, DatabaseConfig config) {
+    DatabaseConfig.Replicas settings = config.replicas();
+    for (ConnectionPool.Replica replica : pool.replicas()) {
+      try (Connection connection = replica.dataSource.getConnection()) {
+        pool.markChecked(replica, measureReplicaLag(connection, config), settings.maxLagMs());
+      } catch (Exception e) {
+        pool.markUnhealthy(replica, e.getMessage());
+      }
     }
-    return dataSource;
   }
 
-  private HikariConfig createHikariConfig(String connectionId, DatabaseConfig config) {
+  /**
+   * Measure how far a replica is behind its primary.
+   *
+   * @return Lag in milliseconds; 0 for SQLite without a lag query, and for servers that are not replicas
+   */
+  private long measureReplicaLag(Connection connection, DatabaseConfig config) throws SQLException {
+    String lagQuery = config.replicas().lagQuery();
+    if (lagQuery != null) {
+      return queryLag(connection, lagQuery, null);
+    }
+
+    return switch (config) {
+      case DatabaseConfig.SQLiteConfig sqlite -> {
+        if (!connection.isValid(5)) {
+          throw new SQLException("Replica connection validation failed");
+        }
+        yield 0;
+      }
+      // Time since the last replayed transaction; a quiet primary also shows up as lag
+      case DatabaseConfig.PostgreSQLConfig postgres -> queryLag(connection, "SELECT CASE WHEN pg_is_in_recovery() THEN "
+        + "COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) ELSE 0 END", null);
+      case DatabaseConfig.MySQLConfig mysql -> {
+        try {
+          yield queryLag(connection, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+        } catch (SQLException e) {
+          // Servers before 8.0.22
+          yield queryLag(connection, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+        }
+      }
+    };
+  }
+
+  /**
+   * Run a lag query.
+   *
+   * @param secondsColumn Column holding the lag in seconds, or null to read milliseconds from the first column
+   * @return Lag in milliseconds, 0 if the query returns no rows, or {@link Long#MAX_VALUE} if the
+   * lag is NULL, which MySQL reports while replication is stopped
+   */
+  private static long queryLag(Connection connection, String lagQuery, @Nullable String secondsColumn) throws SQLException {
+    try (Statement stmt = connection.createStatement()) {
+      stmt.setQueryTimeout(5);
+      try (ResultSet rs = stmt.executeQuery(lagQuery)) {
+        if (!rs.next()) {
+          return 0;
+        }
+        double lag = secondsColumn != null ? rs.getDouble(secondsColumn) * 1000 : rs.getDouble(1);
+        return rs.wasNull() ? Long.MAX_VALUE : Math.round(lag);
+      }
+    }
+  }
+
+  /**
+   * Configuration of a replica: the primary's configuration with the replica's host or file.
+   */
+  private DatabaseConfig replicaConfig(DatabaseConfig config, String endpoint) {
+    return switch (config) {
+      case DatabaseConfig.SQLiteConfig sqlite -> new DatabaseConfig.SQLiteConfig(endpoint, sqlite.profile());
+      case DatabaseConfig.MySQLConfig mysql -> new DatabaseConfig.MySQLConfig(replicaHost(endpoint),
+        replicaPort(endpoint, mysql.port()), mysql.database(), mysql.username(), mysql.password());
+      case DatabaseConfig.PostgreSQLConfig postgres -> new DatabaseConfig.PostgreSQLConfig(replicaHost(endpoint),
+        replicaPort(endpoint, postgres.port()), postgres.database(), postgres.username(), postgres.password());
+    };
+  }
+
+  private static String replicaHost(String endpoint) {
+    int colon = endpoint.lastIndexOf(':');
+    return colon < 0 ? endpoint : endpoint.substring(0, colon);
+  }
+
+  private static int replicaPort(String endpoint, int defaultPort) {
+    int colon = endpoint.lastIndexOf(':');
+    if (colon < 0) {
+      return defaultPort;
+    }
+    try {
+      return Integer.parseInt(endpoint.substring(colon + 1));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid replica port in '" + endpoint + "'");
+    }
+  }
+
+  private HikariConfig createHikariConfig(String connectionId, DatabaseConfig config, PoolSettings settings,
+                                          String poolSuffix, int maximumPoolSize, boolean readOnly) {
     HikariConfig hikariConfig = new HikariConfig();
 
     // Set basic connection properties
@@ -570,16 +1937,16 @@ public class DatabaseConnectionManager {
     hikariConfig.setPassword(getPassword(config));
 
     // Set connection pool properties
-    hikariConfig.setPoolName("mcp-" + connectionId);
-    hikariConfig.setMaximumPoolSize(10);
-    hikariConfig.setMinimumIdle(2);
-    hikariConfig.setConnectionTimeout(30000);
-    hikariConfig.setIdleTimeout(600000);
-    hikariConfig.setMaxLifetime(1800000);
-    hikariConfig.setLeakDetectionThreshold(60000);
+    hikariConfig.setPoolName("mcp-" + connectionId + poolSuffix);
+    hikariConfig.setMaximumPoolSize(maximumPoolSize);
+    hikariConfig.setMinimumIdle(Math.min(settings.minimumIdle(), maximumPoolSize));
+    hikariConfig.setConnectionTimeout(settings.connectionTimeout());
+    hikariConfig.setIdleTimeout(settings.idleTimeout());
+    hikariConfig.setMaxLifetime(settings.maxLifetime());
+    hikariConfig.setLeakDetectionThreshold(settings.leakDetectionThreshold());
 
     // Set database-specific properties
-    setDatabaseSpecificProperties(hikariConfig, config);
+    setDatabaseSpecificProperties(hikariConfig, config, readOnly);
 
     return hikariConfig;
   }
@@ -589,7 +1956,7 @@ public class DatabaseConnectionManager {
       case DatabaseConfig.SQLiteConfig sqlite -> "jdbc:sqlite:" + sqlite.file();
       case DatabaseConfig.MySQLConfig mysql ->
         "jdbc:mysql://" + mysql.host() + ":" + mysql.port() + "/" + mysql.database() +
-          "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+          "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&useCursorFetch=true";
       case DatabaseConfig.PostgreSQLConfig postgres ->
         "jdbc:postgresql://" + postgres.host() + ":" + postgres.port() + "/" + postgres.database();
     };
@@ -611,21 +1978,36 @@ public class DatabaseConnectionManager {
     };
   }
 
-  private void setDatabaseSpecificProperties(HikariConfig config, DatabaseConfig dbConfig) {
+  private void setDatabaseSpecificProperties(HikariConfig config, DatabaseConfig dbConfig, boolean readOnly) {
     switch (dbConfig) {
       case DatabaseConfig.SQLiteConfig sqlite -> {
-        // SQLite specific properties
-        config.addDataSourceProperty("cache", "shared");
-        config.addDataSourceProperty("mode", "memory");
+        // The SQLite driver runs these as pragmas when it opens a connection
+        DatabaseConfig.SQLiteConfig.Profile profile = sqlite.profile();
+        if (!readOnly && !sqlite.inMemory()) {
+          // The journal mode is stored in the database file, so the writer sets it for all connections
+          config.addDataSourceProperty("journal_mode", profile.journalMode());
+        }
+        config.addDataSourceProperty("synchronous", profile.synchronous());
+        config.addDataSourceProperty("mmap_size", String.valueOf(profile.mmapSize()));
+        config.addDataSourceProperty("cache_size", String.valueOf(profile.cacheSize()));
+        config.addDataSourceProperty("temp_store", profile.tempStore());
+        config.addDataSourceProperty("busy_timeout", String.valueOf(profile.busyTimeout()));
+        if (readOnly) {
+          // SQLITE_OPEN_READONLY; the connection cannot take the write lock, so it never blocks the writer
+          config.addDataSourceProperty("open_mode", String.valueOf(SQLITE_OPEN_READONLY));
+        }
       }
       case DatabaseConfig.MySQLConfig mysql -> {
+        config.setReadOnly(readOnly);
         // MySQL specific properties
         config.addDataSourceProperty("cachePrepStmts", "true");
         config.addDataSourceProperty("prepStmtCacheSize", "250");
         config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
         config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
       }
       case DatabaseConfig.PostgreSQLConfig postgres -> {
+        config.setReadOnly(readOnly);
         // PostgreSQL specific properties
         config.addDataSourceProperty("reWriteBatchedInserts", "true");
         config.addDataSourceProperty("cachePrepStmts", "true");
@@ -667,75 +2049,138 @@ public class DatabaseConnectionManager {
   }
 
   private QueryResult buildQueryResult(ResultSet rs, int limit) throws SQLException {
+    List<String> columns = columnNames(rs);
+
+    List<Map<String, Object>> rows = new ArrayList<>();
+    int rowCount = 0;
+
+    while (rs.next() && rowCount < limit) {
+      rows.add(readRow(rs, columns));
+      rowCount++;
+    }
+
+    return QueryResult.forSelect(columns, rows);
+  }
+
+  private int countBatchRows(int[] updateCounts) {
+    int rows = 0;
+    for (int count : updateCounts) {
+      // Drivers that rewrite batches into multi-row statements report SUCCESS_NO_INFO per row
+      rows += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+    }
+    return rows;
+  }
+
+  static List<String> columnNames(ResultSet rs) throws SQLException {
     ResultSetMetaData metaData = rs.getMetaData();
     int columnCount = metaData.getColumnCount();
 
-    List<String> columns = new ArrayList<>();
+    List<String> columns = new ArrayList<>(columnCount);
     for (int i = 1; i <= columnCount; i++) {
       columns.add(metaData.getColumnName(i));
     }
+    return columns;
+  }
 
-    List<Map<String, Object>> rows = new ArrayList<>();
-    int rowCount = 0;
+  static Map<String, Object> readRow(ResultSet rs, List<String> columns) throws SQLException {
+    Map<String, Object> row = new HashMap<>();
+    for (int i = 1; i <= columns.size(); i++) {
+      row.put(columns.get(i - 1), readValue(rs, i));
+    }
+    return row;
+  }
 
-    while (rs.next() && rowCount < limit) {
-      Map<String, Object> row = new HashMap<>();
-      for (int i = 1; i <= columnCount; i++) {
-        Object value = rs.getObject(i);
-        // Handle special types
-        if (value instanceof java.sql.Timestamp) {
-          value = ((java.sql.Timestamp) value).toInstant().toString();
-        } else if (value instanceof java.sql.Date) {
-          value = ((java.sql.Date) value).toLocalDate().toString();
-        }
-        row.put(columns.get(i - 1), value);
-      }
-      rows.add(row);
-      rowCount++;
+  static Object readValue(ResultSet rs, int column) throws SQLException {
+    Object value = rs.getObject(column);
+    // Handle special types
+    if (value instanceof java.sql.Timestamp) {
+      value = ((java.sql.Timestamp) value).toInstant().toString();
+    } else if (value instanceof java.sql.Date) {
+      value = ((java.sql.Date) value).toLocalDate().toString();
     }
+    return value;
+  }
 
-    return QueryResult.forSelect(columns, rows);
+  /**
+   * Roll back after a failure. A failed rollback is attached to the original failure as a
+   * suppressed exception, so it does not hide what went wrong.
+   */
+  private void rollback(Connection connection, Exception failure) {
+    try {
+      connection.rollback();
+    } catch (SQLException e) {
+      failure.addSuppressed(e);
+    }
+  }
+
+  private void closeQuietly(AutoCloseable... resources) {
+    for (AutoCloseable resource : resources) {
+      if (resource == null) {
+        continue;
+      }
+      try {
+        resource.close();
+      } catch (Exception e) {
+        logger.debug("Failed to close database resource", "error", e.getMessage());
+      }
+    }
   }
 
   private void logQuerySuccess(String connectionId, String query, long startTime, int resultCount) {
-    long duration = System.currentTimeMillis() - startTime;
+    long durationNanos = System.nanoTime() - startTime;
+    queryStatistics.record(connectionId, query, durationNanos, resultCount, false);
+    recordFirstQuery(connectionId);
     logger.debug("Query executed successfully",
       "connectionId", connectionId,
-      "duration", duration,
+      "duration", durationNanos / 1_000_000,
       "resultCount", resultCount,
       "query", query.length() > 100 ? query.substring(0, 100) + "..." : query
     );
   }
 
   private void logQueryError(String connectionId, String query, long startTime, Exception error) {
-    long duration = System.currentTimeMillis() - startTime;
+    long durationNanos = System.nanoTime() - startTime;
+    queryStatistics.record(connectionId, query, durationNanos, 0, true);
     logger.error("Query execution failed",
       "connectionId", connectionId,
-      "duration", duration,
+      "duration", durationNanos / 1_000_000,
       "error", error.getMessage(),
       "query", query.length() > 100 ? query.substring(0, 100) + "..." : query
     );
   }
 
   private void logTransactionSuccess(String connectionId, int queryCount, long startTime) {
-    long duration = System.currentTimeMillis() - startTime;
+    recordFirstQuery(connectionId);
     logger.debug("Transaction executed successfully",
       "connectionId", connectionId,
-      "duration", duration,
+      "duration", elapsedMillis(startTime),
       "queryCount", queryCount
     );
   }
 
   private void logTransactionError(String connectionId, int queryCount, long startTime, Exception error) {
-    long duration = System.currentTimeMillis() - startTime;
     logger.error("Transaction execution failed",
       "connectionId", connectionId,
-      "duration", duration,
+      "duration", elapsedMillis(startTime),
       "queryCount", queryCount,
       "error", error.getMessage()
     );
   }
 
+  private void recordFirstQuery(String connectionId) {
+    ConnectionStartup startup = startups.get(connectionId);
+    if (startup != null) {
+      long elapsed = startup.queryCompleted();
+      if (elapsed >= 0) {
+        timeToFirstQuery.record(elapsed, 0, false);
+      }
+    }
+  }
+
+  private static long elapsedMillis(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1_000_000;
+  }
+
   private Exception createDetailedException(String connectionId, String operation, Exception original) {
     DatabaseConfig config = configurations.get(connectionId);
     String message = String.format("Database operation failed for %s database (connection: %s): %s",
@@ -748,4 +2193,51 @@ public class DatabaseConnectionManager {
    */
   public record QueryWithParams(String query, List<Object> params) {
   }
+
+  /**
+   * Results of {@link #executeParallel}.
+   *
+   * @param concurrency Number of statements that could run at a time
+   * @param durationMs  Time until the last statement finished
+   * @param results     Result of each statement, in the order of the statements
+   */
+  public record ParallelExecution(int concurrency, long durationMs, List<ParallelResult> results) {
+  }
+
+  /**
+   * Result of one statement of {@link #executeParallel}.
+   *
+   * @param index      Position of the statement
+   * @param result     Result of the statement, or null if it failed
+   * @param error      Error message if the statement failed
+   * @param startMs    Time from the start of the batch until the statement started
+   * @param durationMs Execution time of the statement
+   */
+  public record ParallelResult(int index, @Nullable QueryResult result, @Nullable String error, double startMs,
+                               double durationMs) {
+  }
+
+  /**
+   * A connection whose pool has not been created yet, or was closed while idle.
+   *
+   * @param lock   Held while the pool is created
+   * @param reaped Whether the pool existed before and was closed while idle
+   */
+  private record PendingConnection(DatabaseConfig config, PoolSettings settings, ReentrantLock lock, boolean reaped) {
+  }
+
+  /**
+   * Reads a query result from a result set.
+   */
+  @FunctionalInterface
+  private interface ResultSetReader<T> {
+    T read(ResultSet rs) throws SQLException;
+  }
+
+  /**
+   * How to build, count and weigh one kind of query result.
+   */
+  private record ResultHandler<T>(Class<T> type, ResultSetReader<T> reader, ToIntFunction<T> rowCount,
+                                  IntFunction<T> forUpdate, ToLongFunction<T> size) {
+  }
 }
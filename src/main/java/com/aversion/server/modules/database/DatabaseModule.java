@@ -1,11 +1,15 @@
 package com.aversion.server.modules.database;
 
 import com.aversion.server.modules.BaseModule;
+import com.aversion.server.utils.ApplicationConfig;
 import com.aversion.server.utils.JsonUtil;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,6 +25,11 @@ public final class DatabaseModule extends BaseModule {
   private static final String MODULE_DESCRIPTION =
     "A set of database interaction tools supporting SQLite, MySQL, and PostgreSQL.";
 
+  private static final int DEFAULT_PAGE_SIZE = 500;
+  private static final int DEFAULT_BULK_INSERT_BATCH_SIZE = ApplicationConfig.getInt("database.bulk-insert.batch-size", 1000);
+  private static final long DEFAULT_REPLICA_MAX_LAG = ApplicationConfig.getLong("database.replicas.max-lag", 10_000);
+  private static final int DEFAULT_IMPORT_COMMIT_INTERVAL = ApplicationConfig.getInt("database.import.commit-interval", 10_000);
+
   private final DatabaseConnectionManager connectionManager;
 
   public DatabaseModule() {
@@ -44,7 +53,7 @@ public final class DatabaseModule extends BaseModule {
   // Tool handlers
 
   @com.aversion.server.tools.ToolDefinition(name = "connect_database", description = "Connect to a SQL database (SQLite, MySQL, or PostgreSQL) with connection pooling")
-  private Map<String, Object> handleConnectDatabase(JsonNode args) throws Exception {
+  Map<String, Object> handleConnectDatabase(JsonNode args) throws Exception {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
     JsonNode configNode = JsonUtil.getObjectField(args, "config");
 
@@ -53,24 +62,47 @@ public final class DatabaseModule extends BaseModule {
     }
 
     DatabaseConfig config = parseDatabaseConfig(configNode);
-    connectionManager.connect(connectionId, config);
+    PoolSettings poolSettings = parsePoolSettings(configNode.get("pool"));
+    connectionManager.connect(connectionId, config, poolSettings);
 
+    if (poolSettings.lazy()) {
+      return createTextResponse("Registered " + config.type() + " database: " + connectionId + ", connecting on first use");
+    }
     return createTextResponse("Successfully connected to " + config.type() + " database: " + connectionId);
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "execute_query", description = "Execute a SQL query against a connected database")
-  private Map<String, Object> handleExecuteQuery(JsonNode args) throws Exception {
+  Map<String, Object> handleExecuteQuery(JsonNode args) throws Exception {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
     String query = JsonUtil.getStringField(args, "query");
     JsonNode paramsNode = args.get("params");
     int limit = JsonUtil.getIntField(args, "limit", 1000);
+    boolean useCache = JsonUtil.getBooleanField(args, "cache", false);
+    int timeout = JsonUtil.getIntField(args, "timeout", 0);
+    boolean primary = JsonUtil.getBooleanField(args, "primary", false);
 
     List<Object> params = new ArrayList<>();
     if (paramsNode != null && paramsNode.isArray()) {
       paramsNode.forEach(param -> params.add(JsonUtil.convertJsonValue(param)));
     }
 
-    QueryResult result = connectionManager.executeQuery(connectionId, query, params, limit);
+    String format = JsonUtil.getStringField(args, "format", "rows");
+    if (!"rows".equalsIgnoreCase(format) && !"columnar".equalsIgnoreCase(format)) {
+      throw new IllegalArgumentException("Invalid result format: " + format);
+    }
+
+    if (JsonUtil.getBooleanField(args, "cursor", false)) {
+      int pageSize = JsonUtil.getIntField(args, "pageSize", DEFAULT_PAGE_SIZE);
+      return createCursorPageResponse(connectionManager.openCursor(connectionId, query, params, pageSize, timeout, primary));
+    }
+
+    if ("columnar".equalsIgnoreCase(format)) {
+      ColumnarQueryResult result = connectionManager.executeColumnarQuery(connectionId, query, params, limit, useCache, timeout, primary);
+      // Compact output: pretty-printing would put every value of a column on its own line
+      return createTextResponse(JsonUtil.getObjectMapper().writeValueAsString(result));
+    }
+
+    QueryResult result = connectionManager.executeQuery(connectionId, query, params, limit, useCache, timeout, primary);
 
     Map<String, Object> response = Map.of(
       "rowCount", result.rowCount(),
@@ -83,10 +115,58 @@ public final class DatabaseModule extends BaseModule {
     return createTextResponse(JsonUtil.formatJson(response));
   }
 
+  @com.aversion.server.tools.ToolDefinition(name = "fetch_next", description = "Fetch the next page of rows from a cursor opened by execute_query")
+  Map<String, Object> handleFetchNext(JsonNode args) throws Exception {
+    String cursorId = JsonUtil.getStringField(args, "cursorId");
+    int pageSize = JsonUtil.getIntField(args, "pageSize", DEFAULT_PAGE_SIZE);
+
+    return createCursorPageResponse(connectionManager.fetchNext(cursorId, pageSize));
+  }
+
+  @com.aversion.server.tools.ToolDefinition(name = "close_cursor", description = "Close a query cursor before all of its rows have been fetched")
+  Map<String, Object> handleCloseCursor(JsonNode args) {
+    String cursorId = JsonUtil.getStringField(args, "cursorId");
+
+    if (!connectionManager.closeCursor(cursorId)) {
+      throw new IllegalArgumentException("Cursor not found or expired: " + cursorId);
+    }
+
+    return createTextResponse("Successfully closed cursor: " + cursorId);
+  }
+
+  @com.aversion.server.tools.ToolDefinition(name = "export_query", description = "Stream the rows of a SQL query to a CSV, NDJSON or columnar binary file and return a summary")
+  Map<String, Object> handleExportQuery(JsonNode args) throws Exception {
+    String connectionId = JsonUtil.getStringField(args, "connectionId");
+    String query = JsonUtil.getStringField(args, "query");
+    String path = JsonUtil.getStringField(args, "path");
+    QueryExporter.Format format = QueryExporter.Format.parse(JsonUtil.getStringField(args, "format", "csv"));
+    boolean header = JsonUtil.getBooleanField(args, "header", true);
+    boolean overwrite = JsonUtil.getBooleanField(args, "overwrite", false);
+    int timeout = JsonUtil.getIntField(args, "timeout", 0);
+    JsonNode paramsNode = args.get("params");
+
+    List<Object> params = new ArrayList<>();
+    if (paramsNode != null && paramsNode.isArray()) {
+      paramsNode.forEach(param -> params.add(JsonUtil.convertJsonValue(param)));
+    }
+
+    QueryExporter.ExportSummary summary = connectionManager.exportQuery(connectionId, query, params, Path.of(path), format,
+      header, overwrite, timeout);
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("path", summary.path());
+    response.put("format", summary.format());
+    response.put("rows", summary.rows());
+    response.put("bytes", summary.bytes());
+    response.put("durationMs", summary.durationMs());
+    return createTextResponse(JsonUtil.formatJson(response));
+  }
+
   @com.aversion.server.tools.ToolDefinition(name = "execute_transaction", description = "Execute multiple SQL statements as a transaction with automatic rollback on failure")
-  private Map<String, Object> handleExecuteTransaction(JsonNode args) throws Exception {
+  Map<String, Object> handleExecuteTransaction(JsonNode args) throws Exception {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
     JsonNode queriesNode = JsonUtil.getArrayField(args, "queries");
+    int timeout = JsonUtil.getIntField(args, "timeout", 0);
 
     List<DatabaseConnectionManager.QueryWithParams> queries = new ArrayList<>();
     for (JsonNode queryNode : queriesNode) {
@@ -101,7 +181,7 @@ public final class DatabaseModule extends BaseModule {
       queries.add(new DatabaseConnectionManager.QueryWithParams(query, params));
     }
 
-    List<QueryResult> results = connectionManager.executeTransaction(connectionId, queries);
+    List<QueryResult> results = connectionManager.executeTransaction(connectionId, queries, timeout);
 
     List<Map<String, Object>> resultList = new ArrayList<>();
     for (int i = 0; i < results.size(); i++) {
@@ -122,8 +202,61 @@ public final class DatabaseModule extends BaseModule {
     return createTextResponse(JsonUtil.formatJson(response));
   }
 
+  @com.aversion.server.tools.ToolDefinition(name = "execute_parallel", description = "Execute independent SQL statements concurrently on separate pooled connections and return each statement's result and timing")
+  Map<String, Object> handleExecuteParallel(JsonNode args) throws Exception {
+    String connectionId = JsonUtil.getStringField(args, "connectionId");
+    JsonNode queriesNode = JsonUtil.getArrayField(args, "queries");
+    int concurrency = JsonUtil.getIntField(args, "concurrency", 0);
+    int limit = JsonUtil.getIntField(args, "limit", 1000);
+    int timeout = JsonUtil.getIntField(args, "timeout", 0);
+
+    List<DatabaseConnectionManager.QueryWithParams> queries = new ArrayList<>();
+    for (JsonNode queryNode : queriesNode) {
+      String query = JsonUtil.getStringField(queryNode, "query");
+      JsonNode paramsNode = queryNode.get("params");
+
+      List<Object> params = new ArrayList<>();
+      if (paramsNode != null && paramsNode.isArray()) {
+        paramsNode.forEach(param -> params.add(JsonUtil.convertJsonValue(param)));
+      }
+
+      queries.add(new DatabaseConnectionManager.QueryWithParams(query, params));
+    }
+
+    DatabaseConnectionManager.ParallelExecution execution = connectionManager.executeParallel(connectionId, queries,
+      concurrency, limit, timeout);
+
+    List<Map<String, Object>> resultList = new ArrayList<>();
+    int failed = 0;
+    for (DatabaseConnectionManager.ParallelResult result : execution.results()) {
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("queryIndex", result.index());
+      entry.put("success", result.error() == null);
+      if (result.result() != null) {
+        entry.put("rowCount", result.result().rowCount());
+        entry.put("columns", result.result().columns());
+        entry.put("rows", result.result().rows());
+        entry.put("affectedRows", result.result().affectedRows());
+      } else {
+        entry.put("error", result.error());
+        failed++;
+      }
+      entry.put("startMs", result.startMs());
+      entry.put("durationMs", result.durationMs());
+      resultList.add(entry);
+    }
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("queryCount", queries.size());
+    response.put("failed", failed);
+    response.put("concurrency", execution.concurrency());
+    response.put("durationMs", execution.durationMs());
+    response.put("results", resultList);
+    return createTextResponse(JsonUtil.formatJson(response));
+  }
+
   @com.aversion.server.tools.ToolDefinition(name = "get_table_schema", description = "Get detailed schema information for a specific table including primary keys and constraints")
-  private Map<String, Object> handleGetTableSchema(JsonNode args) throws Exception {
+  Map<String, Object> handleGetTableSchema(JsonNode args) throws Exception {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
     String tableName = JsonUtil.getStringField(args, "tableName");
 
@@ -138,7 +271,7 @@ public final class DatabaseModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "list_tables", description = "List all tables in the connected database")
-  private Map<String, Object> handleListTables(JsonNode args) throws Exception {
+  Map<String, Object> handleListTables(JsonNode args) throws Exception {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
 
     List<Map<String, Object>> tables = connectionManager.listTables(connectionId);
@@ -152,7 +285,7 @@ public final class DatabaseModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "disconnect_database", description = "Disconnect from a previously connected database")
-  private Map<String, Object> handleDisconnectDatabase(JsonNode args) {
+  Map<String, Object> handleDisconnectDatabase(JsonNode args) {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
 
     connectionManager.disconnect(connectionId);
@@ -161,13 +294,15 @@ public final class DatabaseModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "get_database_metrics", description = "Get performance metrics for database connections including query counts and pool statistics")
-  private @NotNull Map<String, Object> handleGetMetrics(@NotNull JsonNode args) {
-    Map<String, Object> metrics = connectionManager.getMetrics();
+  @NotNull Map<String, Object> handleGetMetrics(@NotNull JsonNode args) {
+    int top = JsonUtil.getIntField(args, "top", 20);
+    int slowQueryLimit = JsonUtil.getIntField(args, "slowQueryLimit", 20);
+    Map<String, Object> metrics = connectionManager.getMetrics(top, slowQueryLimit);
     return createTextResponse(JsonUtil.formatJson(metrics));
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "insert_data", description = "Insert new data into a specified table")
-  private Map<String, Object> handleInsertData(JsonNode args) throws Exception {
+  Map<String, Object> handleInsertData(JsonNode args) throws Exception {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
     String tableName = JsonUtil.getStringField(args, "tableName");
     JsonNode dataNode = JsonUtil.getObjectField(args, "data");
@@ -184,8 +319,82 @@ public final class DatabaseModule extends BaseModule {
     return createTextResponse(JsonUtil.formatJson(response));
   }
 
+  @com.aversion.server.tools.ToolDefinition(name = "bulk_insert", description = "Insert many rows into a specified table using batched statements in a single transaction")
+  Map<String, Object> handleBulkInsert(JsonNode args) throws Exception {
+    String connectionId = JsonUtil.getStringField(args, "connectionId");
+    String tableName = JsonUtil.getStringField(args, "tableName");
+    JsonNode rowsNode = JsonUtil.getArrayField(args, "rows");
+    int batchSize = JsonUtil.getIntField(args, "batchSize", DEFAULT_BULK_INSERT_BATCH_SIZE);
+
+    List<Map<String, Object>> rows = new ArrayList<>(rowsNode.size());
+    for (JsonNode rowNode : rowsNode) {
+      rows.add(JsonUtil.getObjectMapper().convertValue(rowNode, Map.class));
+    }
+
+    int affectedRows = connectionManager.bulkInsert(connectionId, tableName, rows, batchSize);
+
+    Map<String, Object> response = Map.of(
+      "tableName", tableName,
+      "affectedRows", affectedRows
+    );
+
+    return createTextResponse(JsonUtil.formatJson(response));
+  }
+
+  @com.aversion.server.tools.ToolDefinition(name = "import_file", description = "Stream the rows of a CSV or NDJSON file into a table using batched statements with periodic commits")
+  Map<String, Object> handleImportFile(JsonNode args) throws Exception {
+    String connectionId = JsonUtil.getStringField(args, "connectionId");
+    String tableName = JsonUtil.getStringField(args, "tableName");
+    Path path = Path.of(JsonUtil.getStringField(args, "path"));
+    String fileName = path.getFileName().toString().toLowerCase();
+    String defaultFormat = fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl") ? "ndjson" : "csv";
+    ImportFileReader.Format format = ImportFileReader.Format.parse(JsonUtil.getStringField(args, "format", defaultFormat));
+    String delimiter = JsonUtil.getStringField(args, "delimiter", ",");
+    boolean header = JsonUtil.getBooleanField(args, "header", true);
+    int batchSize = JsonUtil.getIntField(args, "batchSize", DEFAULT_BULK_INSERT_BATCH_SIZE);
+    int commitInterval = JsonUtil.getIntField(args, "commitInterval", DEFAULT_IMPORT_COMMIT_INTERVAL);
+
+    if (delimiter.length() != 1) {
+      throw new IllegalArgumentException("Delimiter must be a single character");
+    }
+
+    List<String> columns = null;
+    JsonNode columnsNode = args.get("columns");
+    if (columnsNode != null && columnsNode.isArray()) {
+      columns = new ArrayList<>();
+      for (JsonNode column : columnsNode) {
+        columns.add(column.asText());
+      }
+    }
+
+    Map<String, String> mapping = null;
+    JsonNode mappingNode = args.get("mapping");
+    if (mappingNode != null && mappingNode.isObject()) {
+      mapping = new LinkedHashMap<>();
+      for (Map.Entry<String, JsonNode> entry : mappingNode.properties()) {
+        mapping.put(entry.getKey(), entry.getValue().asText());
+      }
+    }
+
+    ImportFileReader.ImportSummary summary;
+    try (ImportFileReader reader = ImportFileReader.open(path, format, delimiter.charAt(0), header, columns)) {
+      summary = connectionManager.importFile(connectionId, tableName, reader, mapping, batchSize, commitInterval);
+    }
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("tableName", tableName);
+    response.put("path", path.toAbsolutePath().toString());
+    response.put("format", format.name().toLowerCase());
+    response.put("rows", summary.rows());
+    response.put("bytes", Files.size(path));
+    response.put("commits", summary.commits());
+    response.put("durationMs", summary.durationMs());
+    response.put("rowsPerSecond", Math.round(summary.rowsPerSecond()));
+    return createTextResponse(JsonUtil.formatJson(response));
+  }
+
   @com.aversion.server.tools.ToolDefinition(name = "update_data", description = "Update existing data in a specified table")
-  private Map<String, Object> handleUpdateData(JsonNode args) throws Exception {
+  Map<String, Object> handleUpdateData(JsonNode args) throws Exception {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
     String tableName = JsonUtil.getStringField(args, "tableName");
     JsonNode dataNode = JsonUtil.getObjectField(args, "data");
@@ -210,7 +419,7 @@ public final class DatabaseModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "delete_data", description = "Delete data from a specified table")
-  private Map<String, Object> handleDeleteData(JsonNode args) throws Exception {
+  Map<String, Object> handleDeleteData(JsonNode args) throws Exception {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
     String tableName = JsonUtil.getStringField(args, "tableName");
     String whereClause = JsonUtil.getStringField(args, "where");
@@ -232,7 +441,7 @@ public final class DatabaseModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "create_table", description = "Create a new table in the database")
-  private Map<String, Object> handleCreateTable(JsonNode args) throws Exception {
+  Map<String, Object> handleCreateTable(JsonNode args) throws Exception {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
     String tableName = JsonUtil.getStringField(args, "tableName");
     JsonNode columnsNode = JsonUtil.getArrayField(args, "columns");
@@ -248,7 +457,7 @@ public final class DatabaseModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "drop_table", description = "Drop an existing table from the database")
-  private Map<String, Object> handleDropTable(JsonNode args) throws Exception {
+  Map<String, Object> handleDropTable(JsonNode args) throws Exception {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
     String tableName = JsonUtil.getStringField(args, "tableName");
 
@@ -258,7 +467,7 @@ public final class DatabaseModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "alter_table", description = "Alter an existing table (add or drop columns)")
-  private Map<String, Object> handleAlterTable(JsonNode args) throws Exception {
+  Map<String, Object> handleAlterTable(JsonNode args) throws Exception {
     String connectionId = JsonUtil.getStringField(args, "connectionId");
     String tableName = JsonUtil.getStringField(args, "tableName");
     String action = JsonUtil.getStringField(args, "action"); // "add_column" or "drop_column"
@@ -454,29 +663,126 @@ public final class DatabaseModule extends BaseModule {
 
   // Utility methods
 
+  private Map<String, Object> createCursorPageResponse(QueryCursorManager.CursorPage page) {
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("cursorId", page.cursorId());
+    response.put("hasMore", page.hasMore());
+    response.put("offset", page.offset());
+    response.put("rowCount", page.rows().size());
+    response.put("columns", page.columns());
+    response.put("rows", page.rows());
+    response.put("affectedRows", page.affectedRows());
+
+    return createTextResponse(JsonUtil.formatJson(response));
+  }
+
   private DatabaseConfig parseDatabaseConfig(JsonNode configNode) {
     String type = JsonUtil.getStringField(configNode, "type");
 
     return switch (type.toLowerCase()) {
       case "sqlite" -> new DatabaseConfig.SQLiteConfig(
-        JsonUtil.getStringField(configNode, "file")
+        JsonUtil.getStringField(configNode, "file"),
+        parseSQLiteProfile(configNode),
+        parseReplicas(configNode.get("replicas"))
       );
       case "mysql" -> new DatabaseConfig.MySQLConfig(
         JsonUtil.getStringField(configNode, "host", "localhost"),
         JsonUtil.getIntField(configNode, "port", 3306),
         JsonUtil.getStringField(configNode, "database"),
         JsonUtil.getStringField(configNode, "username"),
-        JsonUtil.getStringField(configNode, "password")
+        JsonUtil.getStringField(configNode, "password"),
+        parseReplicas(configNode.get("replicas"))
       );
       case "postgresql" -> new DatabaseConfig.PostgreSQLConfig(
         JsonUtil.getStringField(configNode, "host", "localhost"),
         JsonUtil.getIntField(configNode, "port", 5432),
         JsonUtil.getStringField(configNode, "database"),
         JsonUtil.getStringField(configNode, "username"),
-        JsonUtil.getStringField(configNode, "password")
+        JsonUtil.getStringField(configNode, "password"),
+        parseReplicas(configNode.get("replicas"))
       );
       default -> throw new IllegalArgumentException("Unsupported database type: " + type);
     };
   }
 
+  private DatabaseConfig.SQLiteConfig.Profile parseSQLiteProfile(JsonNode configNode) {
+    DatabaseConfig.SQLiteConfig.Profile defaults = DatabaseConfig.SQLiteConfig.Profile.defaults();
+    JsonNode mmapSize = configNode.get("mmapSize");
+
+    return new DatabaseConfig.SQLiteConfig.Profile(
+      JsonUtil.getStringField(configNode, "journalMode", defaults.journalMode()),
+      JsonUtil.getStringField(configNode, "synchronous", defaults.synchronous()),
+      mmapSize == null || mmapSize.isNull() ? defaults.mmapSize() : mmapSize.asLong(),
+      JsonUtil.getIntField(configNode, "cacheSize", defaults.cacheSize()),
+      JsonUtil.getStringField(configNode, "tempStore", defaults.tempStore()),
+      JsonUtil.getIntField(configNode, "busyTimeout", defaults.busyTimeout())
+    );
+  }
+
+  private DatabaseConfig.Replicas parseReplicas(JsonNode replicasNode) {
+    if (replicasNode == null || replicasNode.isNull()) {
+      return DatabaseConfig.Replicas.none();
+    }
+    if (!replicasNode.isObject()) {
+      throw new IllegalArgumentException("Field 'replicas' must be an object");
+    }
+
+    List<String> endpoints = new ArrayList<>();
+    JsonNode endpointsNode = replicasNode.get("endpoints");
+    if (endpointsNode != null && endpointsNode.isArray()) {
+      endpointsNode.forEach(endpoint -> endpoints.add(endpoint.asText()));
+    }
+    JsonNode maxLagMs = replicasNode.get("maxLagMs");
+    JsonNode lagQuery = replicasNode.get("lagQuery");
+
+    return new DatabaseConfig.Replicas(
+      endpoints,
+      maxLagMs == null || maxLagMs.isNull() ? DEFAULT_REPLICA_MAX_LAG : maxLagMs.asLong(),
+      lagQuery == null || lagQuery.isNull() ? null : lagQuery.asText()
+    );
+  }
+
+  private PoolSettings parsePoolSettings(JsonNode poolNode) {
+    PoolSettings defaults = PoolSettings.defaults();
+    if (poolNode == null || poolNode.isNull()) {
+      return defaults;
+    }
+    if (!poolNode.isObject()) {
+      throw new IllegalArgumentException("Field 'pool' must be an object");
+    }
+
+    int maximumPoolSize = JsonUtil.getIntField(poolNode, "maximumPoolSize", defaults.maximumPoolSize());
+    return new PoolSettings(
+      maximumPoolSize,
+      JsonUtil.getIntField(poolNode, "minimumIdle", Math.min(defaults.minimumIdle(), maximumPoolSize)),
+      JsonUtil.getIntField(poolNode, "connectionTimeout", (int) defaults.connectionTimeout()),
+      JsonUtil.getIntField(poolNode, "idleTimeout", (int) defaults.idleTimeout()),
+      JsonUtil.getIntField(poolNode, "maxLifetime", (int) defaults.maxLifetime()),
+      JsonUtil.getIntField(poolNode, "leakDetectionThreshold", (int) defaults.leakDetectionThreshold()),
+      JsonUtil.getBooleanField(poolNode, "adaptive", defaults.adaptive()),
+      JsonUtil.getIntField(poolNode, "adaptiveMaxPoolSize", defaults.adaptiveMaxPoolSize()),
+      JsonUtil.getIntField(poolNode, "readerPoolSize", defaults.readerPoolSize()),
+      JsonUtil.getIntField(poolNode, "queryTimeout", (int) defaults.queryTimeout()),
+      JsonUtil.getBooleanField(poolNode, "lazy", defaults.lazy()),
+      parseWarmUpQueries(poolNode.get("warmUpQueries"))
+    );
+  }
+
+  private static List<String> parseWarmUpQueries(JsonNode queriesNode) {
+    List<String> queries = new ArrayList<>();
+    if (queriesNode == null || queriesNode.isNull()) {
+      return queries;
+    }
+    if (!queriesNode.isArray()) {
+      throw new IllegalArgumentException("Field 'warmUpQueries' must be an array");
+    }
+    queriesNode.forEach(query -> {
+      if (!query.isTextual() || query.asText().isBlank()) {
+        throw new IllegalArgumentException("Warm-up queries must be non-empty strings");
+      }
+      queries.add(query.asText());
+    });
+    return queries;
+  }
+
 }
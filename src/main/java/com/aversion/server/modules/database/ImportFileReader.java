@@ -0,0 +1,401 @@
+package com.aversion.server.modules.database;
+
+import com.aversion.server.utils.JsonUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads the rows of a CSV or NDJSON file one at a time, for importing into a table.
+ * <p>
+ * The file is decoded through a large read buffer and parsed incrementally, so only the
+ * current row is held in memory. CSV follows RFC 4180: quoted fields may contain delimiters,
+ * quotes and line breaks, and unquoted empty fields are read as null. NDJSON files contain one
+ * JSON object per line; blank lines are skipped.
+ */
+public final class ImportFileReader implements AutoCloseable {
+
+  private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+  private final Format format;
+  private final BufferedReader reader;
+  private final List<String> columns;
+  private final char delimiter;
+  private boolean ignoreUnknownKeys;
+  private @Nullable Object[] pending;
+  private long line;
+
+  private ImportFileReader(Format format, BufferedReader reader, List<String> columns, char delimiter) {
+    this.format = format;
+    this.reader = reader;
+    this.columns = columns;
+    this.delimiter = delimiter;
+  }
+
+  /**
+   * Import file formats.
+   */
+  public enum Format {
+    CSV, NDJSON;
+
+    public static Format parse(String name) {
+      try {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Invalid import format: " + name + ", expected csv or ndjson");
+      }
+    }
+  }
+
+  /**
+   * Summary of a finished import.
+   *
+   * @param rows          Number of rows inserted
+   * @param commits       Number of commits made
+   * @param durationMs    Time taken by the import
+   * @param rowsPerSecond Import throughput
+   */
+  public record ImportSummary(long rows, long commits, long durationMs, double rowsPerSecond) {
+  }
+
+  /**
+   * Open a file and determine its columns.
+   *
+   * @param path      File to read
+   * @param format    File format
+   * @param delimiter Field delimiter, for CSV
+   * @param header    Whether the first CSV record holds the column names
+   * @param columns   Column names, required for CSV without a header. For NDJSON, the keys to
+   *                  read; defaults to the keys of the first object, and other keys are then errors
+   * @return The reader, positioned before the first row
+   * @throws IOException if the file cannot be read
+   */
+  public static ImportFileReader open(Path path, Format format, char delimiter, boolean header,
+                                      @Nullable List<String> columns) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    BufferedReader reader = new BufferedReader(
+      new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8.newDecoder()), READ_BUFFER_SIZE);
+    try {
+      ImportFileReader importReader = switch (format) {
+        case CSV -> openCsv(reader, delimiter, header, columns);
+        case NDJSON -> openNdjson(reader, columns);
+      };
+      if (importReader.columns.isEmpty()) {
+        throw new IllegalArgumentException("Import file has no columns: " + path);
+      }
+      return importReader;
+    } catch (IOException | RuntimeException e) {
+      reader.close();
+      throw e;
+    }
+  }
+
+  public List<String> columns() {
+    return columns;
+  }
+
+  /**
+   * Line number of the last row read, for error messages.
+   */
+  public long line() {
+    return line;
+  }
+
+  /**
+   * Read the next row.
+   *
+   * @return Values in the order of {@link #columns()}, or null at the end of the file. CSV values
+   * are strings; NDJSON values are strings, numbers, booleans or null.
+   * @throws IOException if reading fails or a row is malformed
+   */
+  public @Nullable Object[] next() throws IOException {
+    if (pending != null) {
+      Object[] row = pending;
+      pending = null;
+      return row;
+    }
+    return format == Format.CSV ? nextCsv() : nextNdjson();
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private static ImportFileReader openCsv(BufferedReader reader, char delimiter, boolean header,
+                                          @Nullable List<String> columns) throws IOException {
+    ImportFileReader importReader = new ImportFileReader(Format.CSV, reader, List.of(), delimiter);
+    List<String> names = columns;
+    if (header) {
+      List<String> headerRecord = importReader.readCsvRecord();
+      if (headerRecord == null) {
+        throw new IllegalArgumentException("CSV file is empty");
+      }
+      if (names == null) {
+        names = headerRecord.stream().map(name -> name == null ? "" : name.replace("\uFEFF", "").strip()).toList();
+      }
+    }
+    if (names == null) {
+      throw new IllegalArgumentException("Column names are required for CSV files without a header");
+    }
+
+    ImportFileReader result = new ImportFileReader(Format.CSV, reader, List.copyOf(names), delimiter);
+    result.line = importReader.line;
+    return result;
+  }
+
+  private static ImportFileReader openNdjson(BufferedReader reader, @Nullable List<String> columns) throws IOException {
+    if (columns != null) {
+      // Explicit columns select which keys are read
+      ImportFileReader result = new ImportFileReader(Format.NDJSON, reader, List.copyOf(columns), ',');
+      result.ignoreUnknownKeys = true;
+      return result;
+    }
+
+    // Columns come from the first object, which is then returned as the first row
+    ImportFileReader probe = new ImportFileReader(Format.NDJSON, reader, List.of(), ',');
+    JsonNode first = probe.readJsonObject();
+    List<String> names = new ArrayList<>();
+    if (first != null) {
+      first.fieldNames().forEachRemaining(names::add);
+    }
+
+    ImportFileReader result = new ImportFileReader(Format.NDJSON, reader, List.copyOf(names), ',');
+    result.line = probe.line;
+    if (first != null) {
+      result.pending = result.toRow(first);
+    }
+    return result;
+  }
+
+  private @Nullable Object[] nextCsv() throws IOException {
+    List<String> record = readCsvRecord();
+    if (record == null) {
+      return null;
+    }
+    if (record.size() != columns.size()) {
+      throw new IOException("Line " + line + " has " + record.size() + " fields, expected " + columns.size());
+    }
+    return record.toArray();
+  }
+
+  private @Nullable Object[] nextNdjson() throws IOException {
+    JsonNode object = readJsonObject();
+    return object == null ? null : toRow(object);
+  }
+
+  private Object[] toRow(JsonNode object) throws IOException {
+    Object[] row = new Object[columns.size()];
+    for (int i = 0; i < row.length; i++) {
+      JsonNode value = object.get(columns.get(i));
+      if (value == null || value.isNull()) {
+        continue;
+      }
+      // Nested values are stored as their JSON text
+      row[i] = value.isContainerNode() ? value.toString() : JsonUtil.convertJsonValue(value);
+    }
+
+    Iterator<String> names = object.fieldNames();
+    while (!ignoreUnknownKeys && names.hasNext()) {
+      String name = names.next();
+      if (!columns.contains(name)) {
+        throw new IOException("Line " + line + " has unknown column '" + name + "'");
+      }
+    }
+    return row;
+  }
+
+  private @Nullable JsonNode readJsonObject() throws IOException {
+    String text;
+    do {
+      text = reader.readLine();
+      if (text == null) {
+        return null;
+      }
+      line++;
+    } while (text.isBlank());
+
+    JsonNode node;
+    try {
+      node = JsonUtil.getObjectMapper().readTree(text);
+    } catch (JsonProcessingException e) {
+      throw new IOException("Line " + line + " is not valid JSON: " + e.getOriginalMessage(), e);
+    }
+    if (!node.isObject()) {
+      throw new IOException("Line " + line + " is not a JSON object");
+    }
+    return node;
+  }
+
+  /**
+   * Read one CSV record, which may span several lines if a quoted field contains line breaks.
+   *
+   * @return The fields, null for unquoted empty fields, or null at the end of the file
+   */
+  private @Nullable List<String> readCsvRecord() throws IOException {
+    int c = reader.read();
+    // Skip blank lines between records
+    while (c == '\r' || c == '\n') {
+      if (c == '\n') {
+        line++;
+      }
+      c = reader.read();
+    }
+    if (c == -1) {
+      return null;
+    }
+    line++;
+
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean inQuotes = false;
+    while (true) {
+      if (inQuotes) {
+        if (c == -1) {
+          throw new IOException("Line " + line + " has an unterminated quoted field");
+        }
+        if (c == '"') {
+          int next = reader.read();
+          if (next == '"') {
+            field.append('"');
+          } else {
+            inQuotes = false;
+            c = next;
+            continue;
+          }
+        } else {
+          if (c == '\n') {
+            line++;
+          }
+          field.append((char) c);
+        }
+      } else if (c == delimiter || c == '\n' || c == '\r' || c == -1) {
+        fields.add(quoted || !field.isEmpty() ? field.toString() : null);
+        field.setLength(0);
+        quoted = false;
+        if (c == '\r') {
+          reader.mark(1);
+          if (reader.read() != '\n') {
+            reader.reset();
+          }
+          return fields;
+        }
+        if (c == '\n' || c == -1) {
+          return fields;
+        }
+      } else if (c == '"' && field.isEmpty() && !quoted) {
+        quoted = true;
+        inQuotes = true;
+      } else {
+        field.append((char) c);
+      }
+      c = reader.read();
+    }
+  }
+
+  /**
+   * Convert a value read from a file to the type of the column it is inserted into.
+   * <p>
+   * CSV values are text, which some drivers refuse to bind to numeric or boolean columns.
+   *
+   * @param value    Value read from the file
+   * @param sqlType  JDBC type of the target column, from {@link Types}, or null if unknown
+   * @param column   Column name, for error messages
+   * @return The converted value
+   */
+  static @Nullable Object convert(@Nullable Object value, @Nullable Integer sqlType, String column) {
+    if (!(value instanceof String text) || sqlType == null) {
+      return value;
+    }
+    String trimmed = text.strip();
+    try {
+      return switch (sqlType) {
+        case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT ->
+          trimmed.isEmpty() ? null : Long.parseLong(trimmed);
+        case Types.REAL, Types.FLOAT, Types.DOUBLE ->
+          trimmed.isEmpty() ? null : Double.parseDouble(trimmed);
+        case Types.NUMERIC, Types.DECIMAL ->
+          trimmed.isEmpty() ? null : new BigDecimal(trimmed);
+        case Types.BOOLEAN, Types.BIT -> trimmed.isEmpty() ? null : parseBoolean(trimmed);
+        default -> text;
+      };
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid value '" + text + "' for numeric column " + column);
+    }
+  }
+
+  private static Boolean parseBoolean(String text) {
+    return switch (text.toLowerCase(Locale.ROOT)) {
+      case "true", "t", "yes", "y", "1" -> true;
+      case "false", "f", "no", "n", "0" -> false;
+      default -> throw new NumberFormatException(text);
+    };
+  }
+
+  /**
+   * Map file columns to table columns.
+   *
+   * @param columns Columns of the file
+   * @param mapping File column to table column; columns missing from a non-empty mapping are
+   *                skipped. Null or empty to import every column under its own name.
+   * @return Table column for each file column, null for skipped columns
+   */
+  static List<@Nullable String> targetColumns(List<String> columns, @Nullable Map<String, String> mapping) {
+    List<String> targets = new ArrayList<>(columns.size());
+    for (String column : columns) {
+      targets.add(mapping == null || mapping.isEmpty() ? column : mapping.get(column));
+    }
+    if (mapping != null) {
+      for (String source : mapping.keySet()) {
+        if (!columns.contains(source)) {
+          throw new IllegalArgumentException("Mapped column '" + source + "' is not in the import file");
+        }
+      }
+    }
+    if (targets.stream().allMatch(Objects::isNull)) {
+      throw new IllegalArgumentException("No columns to import");
+    }
+    return targets;
+  }
+
+  /**
+   * Read the JDBC types of a table's columns, keyed by lower-case column name.
+   */
+  static Map<String, Integer> columnTypes(Connection connection, String tableName) throws SQLException {
+    Map<String, Integer> types = new LinkedHashMap<>();
+    for (String name : List.of(tableName, tableName.toUpperCase(Locale.ROOT), tableName.toLowerCase(Locale.ROOT))) {
+      try (ResultSet rs = connection.getMetaData().getColumns(null, null, name, null)) {
+        while (rs.next()) {
+          types.put(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT), rs.getInt("DATA_TYPE"));
+        }
+      }
+      // Databases store unquoted names in upper or lower case
+      if (!types.isEmpty()) {
+        break;
+      }
+    }
+    return types;
+  }
+}
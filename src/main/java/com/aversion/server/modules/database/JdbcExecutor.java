@@ -0,0 +1,214 @@
+package com.aversion.server.modules.database;
+
+import com.aversion.server.execution.Cancellation;
+import com.aversion.server.execution.ServerBusyException;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded executor that runs blocking JDBC work off the caller's thread.
+ * <p>
+ * Tasks run on a fixed number of platform threads, normally as many as a pool has connections,
+ * since further threads would only wait inside the pool. JDBC drivers block in synchronized
+ * code, so virtual threads would pin their carriers. Tasks beyond the queue capacity are
+ * rejected with a {@link ServerBusyException}.
+ * <p>
+ * Each task runs with its own {@link Cancellation}, which is also cancelled when the work that
+ * submitted it is. When a returned future is cancelled or times out, the statement its task is
+ * executing is cancelled with {@link Statement#cancel()}, and statements it has not started yet
+ * fail. Statements take part in this by being {@linkplain #register registered} while they run;
+ * outside of tasks they are registered with the cancellation of the current request.
+ */
+public final class JdbcExecutor {
+
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+
+  /**
+   * SQLSTATE for a statement cancelled on request, as used by PostgreSQL and DB2.
+   */
+  static final String QUERY_CANCELED = "57014";
+
+  private static final Cancellation.Scope NOT_REGISTERED = () -> {
+  };
+
+  private final ThreadPoolExecutor workers;
+  private final int queueCapacity;
+
+  private final AtomicLong completedTasks = new AtomicLong();
+  private final AtomicLong cancelledTasks = new AtomicLong();
+  private final AtomicLong timedOutTasks = new AtomicLong();
+  private final AtomicLong rejectedTasks = new AtomicLong();
+
+  /**
+   * Create an executor.
+   *
+   * @param threads       Number of worker threads
+   * @param queueCapacity Number of tasks that may wait for a worker
+   */
+  public JdbcExecutor(int threads, int queueCapacity) {
+    if (threads < 1 || queueCapacity < 0) {
+      throw new IllegalArgumentException("Executor limits must be positive");
+    }
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.queueCapacity = queueCapacity;
+    this.workers = new ThreadPoolExecutor(
+      threads, threads,
+      60, TimeUnit.SECONDS,
+      new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+      r -> {
+        Thread thread = new Thread(r, "jdbc-worker-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    );
+    this.workers.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Run a task on the executor.
+   *
+   * @param task    The JDBC work
+   * @param timeout Time after which the future fails with a {@link TimeoutException} and the task is cancelled, or null for none
+   * @return A future completed with the task's result. Cancelling it cancels the running statement.
+   */
+  public <T> CompletableFuture<T> submit(JdbcTask<T> task, @Nullable Duration timeout) {
+    Cancellation cancellation = new Cancellation();
+    CompletableFuture<T> future = new CompletableFuture<>();
+    Cancellation.Scope parentRegistration = registerWithParent(future);
+    future.whenComplete((result, error) -> {
+      parentRegistration.close();
+      if (error instanceof CancellationException) {
+        cancelledTasks.incrementAndGet();
+        cancellation.cancel();
+      } else if (error instanceof TimeoutException) {
+        timedOutTasks.incrementAndGet();
+        cancellation.cancel();
+      }
+    });
+
+    try {
+      workers.execute(() -> {
+        if (future.isDone()) {
+          return;
+        }
+
+        try (Cancellation.Scope ignored = cancellation.enter()) {
+          future.complete(task.run());
+        } catch (Throwable error) {
+          future.completeExceptionally(error);
+        } finally {
+          completedTasks.incrementAndGet();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      rejectedTasks.incrementAndGet();
+      future.completeExceptionally(new ServerBusyException("Database executor queue is full"));
+      return future;
+    }
+
+    if (timeout != null) {
+      future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    return future;
+  }
+
+  /**
+   * Make a statement cancellable by the work running on the current thread, until the returned
+   * registration is closed. Does nothing if the current work cannot be cancelled.
+   *
+   * @param statement The statement about to be executed
+   * @return The registration to close once the statement and its results are no longer used
+   * @throws SQLException if the work was already cancelled
+   */
+  static Cancellation.Scope register(Statement statement) throws SQLException {
+    Cancellation cancellation = Cancellation.current();
+    if (cancellation == null) {
+      return NOT_REGISTERED;
+    }
+
+    try {
+      return cancellation.onCancel(() -> {
+        try {
+          statement.cancel();
+        } catch (SQLException e) {
+          logger.debug("Failed to cancel statement", "error", e.getMessage());
+        }
+      });
+    } catch (CancellationException e) {
+      throw new SQLException("Statement was cancelled", QUERY_CANCELED);
+    }
+  }
+
+  /**
+   * Check whether the work running on the current thread has been cancelled.
+   */
+  static boolean isCancelled() {
+    Cancellation cancellation = Cancellation.current();
+    return cancellation != null && cancellation.isCancelled();
+  }
+
+  /**
+   * Get executor metrics.
+   *
+   * @return Map containing thread and queue usage and task outcome counts
+   */
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("threads", workers.getMaximumPoolSize());
+    metrics.put("activeThreads", workers.getActiveCount());
+    metrics.put("queuedTasks", workers.getQueue().size());
+    metrics.put("queueCapacity", queueCapacity);
+    metrics.put("completedTasks", completedTasks.get());
+    metrics.put("cancelledTasks", cancelledTasks.get());
+    metrics.put("timedOutTasks", timedOutTasks.get());
+    metrics.put("rejectedTasks", rejectedTasks.get());
+    return metrics;
+  }
+
+  /**
+   * Stop accepting tasks and let running tasks finish.
+   */
+  public void shutdown() {
+    workers.shutdown();
+  }
+
+  /**
+   * Blocking JDBC work.
+   */
+  @FunctionalInterface
+  public interface JdbcTask<T> {
+    T run() throws Exception;
+  }
+
+  /**
+   * Cancel a task's future when the work that submitted it is cancelled.
+   */
+  private static Cancellation.Scope registerWithParent(CompletableFuture<?> future) {
+    Cancellation parent = Cancellation.current();
+    if (parent == null) {
+      return NOT_REGISTERED;
+    }
+
+    try {
+      return parent.onCancel(() -> future.cancel(false));
+    } catch (CancellationException e) {
+      future.cancel(false);
+      return NOT_REGISTERED;
+    }
+  }
+}
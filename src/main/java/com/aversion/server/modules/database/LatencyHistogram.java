@@ -0,0 +1,127 @@
+package com.aversion.server.modules.database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * <p>
+ * Latencies are recorded in microseconds. Every power of two is split into 16 linear
+ * sub-buckets, so percentiles are accurate to about 6% over the whole range, from single
+ * microseconds to days, in a fixed 5KB of counters.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+  // Values of up to 2^40 microseconds, about 12 days
+  private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + SUB_BUCKET_HALF * (40 - SUB_BUCKET_BITS + 1);
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalMicros = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Record one execution.
+   *
+   * @param durationNanos Execution time in nanoseconds
+   * @param rowCount      Rows returned or affected
+   * @param failed        Whether the execution failed
+   */
+  public void record(long durationNanos, long rowCount, boolean failed) {
+    long micros = Math.max(0, durationNanos / 1000);
+    counts.incrementAndGet(indexFor(micros));
+    count.increment();
+    totalMicros.add(micros);
+    rows.add(Math.max(0, rowCount));
+    maxMicros.accumulate(micros);
+    if (failed) {
+      errors.increment();
+    }
+  }
+
+  public long count() {
+    return count.sum();
+  }
+
+  public long totalMicros() {
+    return totalMicros.sum();
+  }
+
+  /**
+   * Get the latency at a percentile.
+   *
+   * @param percentile Percentile between 0 and 100
+   * @return Upper bound of the bucket holding the percentile, in microseconds, or 0 if empty
+   */
+  public long percentileMicros(double percentile) {
+    long total = 0;
+    long[] snapshot = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += snapshot[i];
+      if (seen >= target) {
+        return Math.min(upperBound(i), maxMicros.get());
+      }
+    }
+    return maxMicros.get();
+  }
+
+  /**
+   * Summarize the histogram.
+   *
+   * @return Map containing counts, total and mean time, percentiles and maximum, in milliseconds
+   */
+  public Map<String, Object> toMap() {
+    long executions = count.sum();
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("count", executions);
+    summary.put("errors", errors.sum());
+    summary.put("rows", rows.sum());
+    summary.put("totalMs", toMillis(totalMicros.sum()));
+    summary.put("meanMs", executions == 0 ? 0.0 : toMillis(totalMicros.sum() / executions));
+    summary.put("p50Ms", toMillis(percentileMicros(50)));
+    summary.put("p95Ms", toMillis(percentileMicros(95)));
+    summary.put("p99Ms", toMillis(percentileMicros(99)));
+    summary.put("maxMs", toMillis(maxMicros.get()));
+    return summary;
+  }
+
+  static int indexFor(long micros) {
+    if (micros < SUB_BUCKET_COUNT) {
+      return (int) micros;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS + 1;
+    int index = SUB_BUCKET_HALF * shift + (int) (micros >>> shift);
+    return Math.min(index, BUCKET_COUNT - 1);
+  }
+
+  static long upperBound(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = index / SUB_BUCKET_HALF - 1;
+    long subBucket = index - (long) SUB_BUCKET_HALF * shift;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+  private static double toMillis(long micros) {
+    return micros / 1000.0;
+  }
+}
@@ -0,0 +1,76 @@
+package com.aversion.server.modules.database;
+
+import com.aversion.server.utils.ApplicationConfig;
+
+import java.util.List;
+
+/**
+ * Connection pool settings for a database connection.
+ *
+ * @param maximumPoolSize        Maximum number of pooled connections; the starting size in adaptive mode
+ * @param minimumIdle            Minimum number of idle connections; the smallest size in adaptive mode
+ * @param connectionTimeout      Maximum time in milliseconds to wait for a connection
+ * @param idleTimeout            Time in milliseconds after which an idle connection is retired
+ * @param maxLifetime            Maximum lifetime in milliseconds of a pooled connection
+ * @param leakDetectionThreshold Time in milliseconds a connection may be held before a leak is logged, 0 to disable
+ * @param adaptive               Whether the pool is resized based on observed wait time and saturation
+ * @param adaptiveMaxPoolSize    Largest size the pool may grow to in adaptive mode
+ * @param readerPoolSize         SQLite only: size of the reader pool next to the single writer, 0 for a single pool
+ * @param queryTimeout           Default time in milliseconds after which a statement is cancelled, 0 for none
+ * @param lazy                   Whether the pool is created on first use instead of when connecting
+ * @param warmUpQueries          Queries run in the background once the pool exists, e.g. to load hot tables into the server's cache
+ */
+public record PoolSettings(
+  int maximumPoolSize,
+  int minimumIdle,
+  long connectionTimeout,
+  long idleTimeout,
+  long maxLifetime,
+  long leakDetectionThreshold,
+  boolean adaptive,
+  int adaptiveMaxPoolSize,
+  int readerPoolSize,
+  long queryTimeout,
+  boolean lazy,
+  List<String> warmUpQueries
+) {
+
+  public PoolSettings {
+    if (maximumPoolSize < 1) {
+      throw new IllegalArgumentException("maximumPoolSize must be at least 1");
+    }
+    if (minimumIdle < 0 || minimumIdle > maximumPoolSize) {
+      throw new IllegalArgumentException("minimumIdle must be between 0 and maximumPoolSize");
+    }
+    if (adaptiveMaxPoolSize < maximumPoolSize) {
+      adaptiveMaxPoolSize = maximumPoolSize;
+    }
+    if (readerPoolSize < 0) {
+      throw new IllegalArgumentException("readerPoolSize cannot be negative");
+    }
+    if (queryTimeout < 0) {
+      throw new IllegalArgumentException("queryTimeout cannot be negative");
+    }
+    warmUpQueries = List.copyOf(warmUpQueries);
+  }
+
+  /**
+   * Create settings from the {@code database.connection-pool} section of the application config.
+   */
+  public static PoolSettings defaults() {
+    return new PoolSettings(
+      ApplicationConfig.getInt("database.connection-pool.maximum-pool-size", 10),
+      ApplicationConfig.getInt("database.connection-pool.minimum-idle", 2),
+      ApplicationConfig.getLong("database.connection-pool.connection-timeout", 30000),
+      ApplicationConfig.getLong("database.connection-pool.idle-timeout", 600000),
+      ApplicationConfig.getLong("database.connection-pool.max-lifetime", 1800000),
+      ApplicationConfig.getLong("database.connection-pool.leak-detection-threshold", 60000),
+      ApplicationConfig.getBoolean("database.connection-pool.adaptive.enabled", false),
+      ApplicationConfig.getInt("database.connection-pool.adaptive.max-pool-size", 32),
+      ApplicationConfig.getInt("database.sqlite.reader-pool-size", 4),
+      ApplicationConfig.getLong("database.connection-pool.query-timeout", 300000),
+      ApplicationConfig.getBoolean("database.connection-pool.lazy", false),
+      List.of()
+    );
+  }
+}
@@ -0,0 +1,244 @@
+package com.aversion.server.modules.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Driver-independent cache of prepared statements.
+ * <p>
+ * Statements belong to a physical connection, so they are prepared on the connection underneath
+ * the pool's proxy and cached per physical connection and SQL text. They survive the connection
+ * being returned to the pool and are reused the next time the same connection is checked out.
+ * Each physical connection keeps at most {@code maxStatements} statements, evicting the least
+ * recently used.
+ */
+public class PreparedStatementCache {
+
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+
+  private final int maxStatements;
+  private final Map<Connection, ConnectionStatements> connections = new ConcurrentHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Create a statement cache.
+   *
+   * @param maxStatements Maximum cached statements per physical connection, 0 to disable caching
+   */
+  public PreparedStatementCache(int maxStatements) {
+    this.maxStatements = maxStatements;
+  }
+
+  /**
+   * Get a prepared statement for a query, reusing a cached one when possible.
+   * <p>
+   * The returned lease must be closed after use. Closing it clears the parameters of a cached
+   * statement instead of closing it.
+   *
+   * @param connectionId Connection identifier the connection belongs to
+   * @param connection   Connection checked out from the pool
+   * @param sql          SQL text
+   * @return A lease on the statement
+   * @throws SQLException if preparing the statement fails
+   */
+  public Lease prepare(String connectionId, Connection connection, String sql) throws SQLException {
+    if (maxStatements <= 0) {
+      return new Lease(connection.prepareStatement(sql), null);
+    }
+
+    Connection physical = connection.isWrapperFor(Connection.class) ? connection.unwrap(Connection.class) : connection;
+    ConnectionStatements statements = connections.get(physical);
+    if (statements == null) {
+      // A new physical connection usually means the pool retired an old one
+      removeClosedConnections();
+      statements = connections.computeIfAbsent(physical, key -> new ConnectionStatements(connectionId));
+    }
+
+    statements.lock.lock();
+    try {
+      CachedStatement cached = statements.byQuery.get(sql);
+      if (cached != null && !cached.inUse && !cached.statement.isClosed()) {
+        hits.incrementAndGet();
+        cached.inUse = true;
+        return new Lease(cached.statement, cached);
+      }
+
+      misses.incrementAndGet();
+      if (cached != null && cached.inUse) {
+        // Same query already running on this connection, e.g. nested in a transaction
+        return new Lease(connection.prepareStatement(sql), null);
+      }
+
+      CachedStatement created = new CachedStatement(physical.prepareStatement(sql));
+      created.inUse = true;
+      statements.byQuery.put(sql, created);
+      return new Lease(created.statement, created);
+    } finally {
+      statements.lock.unlock();
+    }
+  }
+
+  /**
+   * Drop and close all statements cached for a connection identifier.
+   *
+   * @param connectionId Connection identifier
+   */
+  public void invalidate(String connectionId) {
+    connections.entrySet().removeIf(entry -> {
+      if (!entry.getValue().connectionId.equals(connectionId)) {
+        return false;
+      }
+      entry.getValue().closeAll();
+      return true;
+    });
+  }
+
+  /**
+   * Get statement cache metrics.
+   *
+   * @return Map containing hit, miss and eviction counts and the number of cached statements
+   */
+  public Map<String, Object> getMetrics() {
+    long hitCount = hits.get();
+    long total = hitCount + misses.get();
+
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("hits", hitCount);
+    metrics.put("misses", misses.get());
+    metrics.put("evictions", evictions.get());
+    metrics.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+    metrics.put("cachedStatements", connections.values().stream().mapToInt(ConnectionStatements::size).sum());
+    metrics.put("maxStatementsPerConnection", maxStatements);
+    return metrics;
+  }
+
+  /**
+   * Close all cached statements.
+   */
+  public void clear() {
+    connections.values().forEach(ConnectionStatements::closeAll);
+    connections.clear();
+  }
+
+  private void removeClosedConnections() {
+    for (Iterator<Map.Entry<Connection, ConnectionStatements>> it = connections.entrySet().iterator(); it.hasNext(); ) {
+      Map.Entry<Connection, ConnectionStatements> entry = it.next();
+      try {
+        if (entry.getKey().isClosed()) {
+          it.remove();
+        }
+      } catch (SQLException e) {
+        it.remove();
+      }
+    }
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      logger.debug("Failed to close cached statement", "error", e.getMessage());
+    }
+  }
+
+  /**
+   * A statement taken from the cache, or an uncached statement when caching is not possible.
+   */
+  public static final class Lease implements AutoCloseable {
+    private final PreparedStatement statement;
+    private final CachedStatement cached;
+
+    private Lease(PreparedStatement statement, CachedStatement cached) {
+      this.statement = statement;
+      this.cached = cached;
+    }
+
+    public PreparedStatement statement() {
+      return statement;
+    }
+
+    @Override
+    public void close() throws SQLException {
+      if (cached == null) {
+        statement.close();
+        return;
+      }
+
+      try {
+        statement.clearParameters();
+        statement.clearBatch();
+      } catch (SQLException e) {
+        // A statement that cannot be reset is not reused
+        statement.close();
+      } finally {
+        cached.inUse = false;
+      }
+    }
+  }
+
+  /**
+   * A cached statement and whether it is currently leased.
+   */
+  private static final class CachedStatement {
+    private final PreparedStatement statement;
+    private volatile boolean inUse;
+
+    private CachedStatement(PreparedStatement statement) {
+      this.statement = statement;
+    }
+  }
+
+  /**
+   * Statements cached for one physical connection, in least recently used order.
+   */
+  private final class ConnectionStatements {
+    private final String connectionId;
+    // Not synchronized: statements are prepared while holding the lock, which would pin virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, CachedStatement> byQuery = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+        if (size() <= maxStatements || eldest.getValue().inUse) {
+          return false;
+        }
+        evictions.incrementAndGet();
+        closeQuietly(eldest.getValue().statement);
+        return true;
+      }
+    };
+
+    private ConnectionStatements(String connectionId) {
+      this.connectionId = connectionId;
+    }
+
+    private int size() {
+      lock.lock();
+      try {
+        return byQuery.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void closeAll() {
+      lock.lock();
+      try {
+        byQuery.values().forEach(cached -> closeQuietly(cached.statement));
+        byQuery.clear();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
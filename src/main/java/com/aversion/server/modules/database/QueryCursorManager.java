@@ -0,0 +1,358 @@
+package com.aversion.server.modules.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps query result sets open on the server so their rows can be fetched page by page.
+ * <p>
+ * Each cursor owns a pooled connection, inside an open transaction, until its last row has been
+ * read, it is closed explicitly, or it has been idle for longer than the configured TTL. The
+ * number of cursors per connection is therefore kept below the size of its pool. On SQLite an
+ * open read transaction also keeps WAL checkpoints from completing, so the TTL is kept short.
+ */
+public class QueryCursorManager {
+
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+
+  private final Map<String, QueryCursor> cursors = new ConcurrentHashMap<>();
+  private final long ttlMillis;
+  private final int maxOpenCursors;
+  private final ScheduledExecutorService reaper;
+
+  // Slots are reserved before a cursor's query runs, so the limit check and the reservation
+  // happen under one lock instead of counting the open cursors
+  private final ReentrantLock slotLock = new ReentrantLock();
+  private final Map<String, Integer> slotsPerConnection = new HashMap<>();
+  private int reservedSlots;
+
+  private final AtomicLong openedCursors = new AtomicLong();
+  private final AtomicLong expiredCursors = new AtomicLong();
+  private final AtomicLong rejectedCursors = new AtomicLong();
+
+  /**
+   * Create a cursor manager.
+   *
+   * @param ttlMillis      Idle time after which a cursor is closed
+   * @param maxOpenCursors Maximum number of cursors open at the same time
+   */
+  public QueryCursorManager(long ttlMillis, int maxOpenCursors) {
+    this.ttlMillis = ttlMillis;
+    this.maxOpenCursors = maxOpenCursors;
+    this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "query-cursor-reaper");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    long interval = Math.max(1000, ttlMillis / 2);
+    reaper.scheduleWithFixedDelay(this::evictExpired, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Reserve a cursor slot on a connection, before a query is executed for it.
+   * <p>
+   * The slot is held by the cursor opened with {@link #open} and is freed when the cursor is
+   * closed. If the query fails before a cursor is opened, the slot must be freed with
+   * {@link #release}.
+   *
+   * @param connectionId     Connection the cursor would be opened on
+   * @param maxForConnection Maximum number of cursors open on the connection at the same time
+   * @throws IllegalStateException if the global or the per-connection limit is reached
+   */
+  public void reserve(String connectionId, int maxForConnection) {
+    if (maxForConnection <= 0) {
+      rejectedCursors.incrementAndGet();
+      throw new IllegalStateException("Cursors are not available on connection '" + connectionId
+        + "': its connection pool has no connection to spare for a cursor, use execute_query instead");
+    }
+
+    slotLock.lock();
+    try {
+      if (reservedSlots >= maxOpenCursors) {
+        rejectedCursors.incrementAndGet();
+        throw new IllegalStateException("Too many open cursors (max " + maxOpenCursors + "), close or drain existing cursors first");
+      }
+
+      int openOnConnection = slotsPerConnection.getOrDefault(connectionId, 0);
+      if (openOnConnection >= maxForConnection) {
+        rejectedCursors.incrementAndGet();
+        throw new IllegalStateException("Too many open cursors on connection '" + connectionId + "' (max " + maxForConnection
+          + ", so the connection pool is not exhausted), close or drain existing cursors first");
+      }
+
+      slotsPerConnection.put(connectionId, openOnConnection + 1);
+      reservedSlots++;
+    } finally {
+      slotLock.unlock();
+    }
+  }
+
+  /**
+   * Free a cursor slot reserved with {@link #reserve} that no cursor was opened for.
+   *
+   * @param connectionId Connection the slot was reserved on
+   */
+  public void release(String connectionId) {
+    slotLock.lock();
+    try {
+      slotsPerConnection.computeIfPresent(connectionId, (id, slots) -> slots > 1 ? slots - 1 : null);
+      reservedSlots--;
+    } finally {
+      slotLock.unlock();
+    }
+  }
+
+  /**
+   * Register an executed query as a cursor and read its first page.
+   * <p>
+   * A slot must have been reserved for the cursor with {@link #reserve}. The cursor takes
+   * ownership of the connection, statement, result set and slot. If the first page already
+   * contains every row, they are released immediately and no cursor is kept.
+   *
+   * @param connectionId Connection the query was executed on
+   * @param connection   Connection holding the result set
+   * @param statement    Statement that produced the result set
+   * @param resultSet    Result set positioned before the first row
+   * @param columns      Column names of the result set
+   * @param pageSize     Maximum rows in the first page
+   * @return The first page of rows
+   * @throws SQLException if reading the result set fails
+   */
+  public CursorPage open(String connectionId, Connection connection, PreparedStatement statement, ResultSet resultSet,
+                         List<String> columns, int pageSize) throws SQLException {
+    QueryCursor cursor = new QueryCursor(UUID.randomUUID().toString(), connectionId, connection, statement, resultSet, columns);
+
+    cursor.lock.lock();
+    try {
+      cursors.put(cursor.id, cursor);
+      openedCursors.incrementAndGet();
+      return readPage(cursor, pageSize);
+    } finally {
+      cursor.lock.unlock();
+    }
+  }
+
+  /**
+   * Read the next page of a cursor.
+   *
+   * @param cursorId Cursor identifier returned with the previous page
+   * @param pageSize Maximum rows in the page
+   * @return The next page of rows
+   * @throws SQLException if reading the result set fails
+   */
+  public CursorPage fetchNext(String cursorId, int pageSize) throws SQLException {
+    QueryCursor cursor = cursors.get(cursorId);
+    if (cursor == null) {
+      throw new IllegalArgumentException("Cursor not found or expired: " + cursorId);
+    }
+
+    cursor.lock.lock();
+    try {
+      if (cursor.closed) {
+        throw new IllegalArgumentException("Cursor not found or expired: " + cursorId);
+      }
+      return readPage(cursor, pageSize);
+    } finally {
+      cursor.lock.unlock();
+    }
+  }
+
+  /**
+   * Close a cursor and release its connection.
+   *
+   * @param cursorId Cursor identifier
+   * @return True if the cursor was open
+   */
+  public boolean close(String cursorId) {
+    QueryCursor cursor = cursors.get(cursorId);
+    if (cursor == null || !remove(cursor)) {
+      return false;
+    }
+
+    cursor.lock.lock();
+    try {
+      cursor.close();
+    } finally {
+      cursor.lock.unlock();
+    }
+    return true;
+  }
+
+  /**
+   * Close every cursor opened on a connection.
+   *
+   * @param connectionId Connection identifier
+   */
+  public void closeAll(String connectionId) {
+    cursors.values().stream()
+      .filter(cursor -> cursor.connectionId.equals(connectionId))
+      .map(cursor -> cursor.id)
+      .toList()
+      .forEach(this::close);
+  }
+
+  /**
+   * Get cursor metrics.
+   *
+   * @return Map containing open, opened, expired and rejected cursor counts
+   */
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("openCursors", cursors.size());
+    metrics.put("openedCursors", openedCursors.get());
+    metrics.put("expiredCursors", expiredCursors.get());
+    metrics.put("rejectedCursors", rejectedCursors.get());
+    return metrics;
+  }
+
+  /**
+   * Close all cursors and stop the reaper.
+   */
+  public void shutdown() {
+    reaper.shutdownNow();
+    List.copyOf(cursors.keySet()).forEach(this::close);
+  }
+
+  private CursorPage readPage(QueryCursor cursor, int pageSize) throws SQLException {
+    cursor.lastAccess = System.currentTimeMillis();
+
+    List<Map<String, Object>> rows = new ArrayList<>(Math.min(pageSize, 1024));
+    boolean hasMore = false;
+
+    try {
+      while (rows.size() < pageSize) {
+        if (!cursor.resultSet.next()) {
+          cursor.exhausted = true;
+          break;
+        }
+        rows.add(DatabaseConnectionManager.readRow(cursor.resultSet, cursor.columns));
+      }
+      hasMore = !cursor.exhausted;
+    } catch (SQLException e) {
+      remove(cursor);
+      cursor.close();
+      throw e;
+    }
+
+    long offset = cursor.rowsRead;
+    cursor.rowsRead += rows.size();
+
+    if (!hasMore) {
+      remove(cursor);
+      cursor.close();
+    }
+
+    return new CursorPage(hasMore ? cursor.id : null, cursor.columns, rows, offset, hasMore, 0);
+  }
+
+  /**
+   * Remove a cursor from the open cursors and free its slot.
+   *
+   * @return True if the cursor was still open
+   */
+  private boolean remove(QueryCursor cursor) {
+    if (!cursors.remove(cursor.id, cursor)) {
+      return false;
+    }
+    release(cursor.connectionId);
+    return true;
+  }
+
+  private void evictExpired() {
+    long cutoff = System.currentTimeMillis() - ttlMillis;
+
+    for (QueryCursor cursor : cursors.values()) {
+      if (cursor.lastAccess >= cutoff || !cursor.lock.tryLock()) {
+        continue;
+      }
+
+      try {
+        if (cursor.lastAccess < cutoff && remove(cursor)) {
+          cursor.close();
+          expiredCursors.incrementAndGet();
+          logger.debug("Query cursor expired", "cursorId", cursor.id, "connectionId", cursor.connectionId);
+        }
+      } finally {
+        cursor.lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * A page of rows read from a cursor.
+   *
+   * @param cursorId     Identifier to pass to the next fetch, or null once all rows have been read
+   * @param columns      Column names of the result set
+   * @param rows         Rows in this page
+   * @param offset       Number of rows read from the cursor before this page
+   * @param hasMore      Whether more rows may be available
+   * @param affectedRows The number of rows affected if the query was not a SELECT, otherwise 0
+   */
+  public record CursorPage(String cursorId, List<String> columns, List<Map<String, Object>> rows, long offset,
+                           boolean hasMore, int affectedRows) {
+    /**
+     * Create a page for a query that did not produce a result set.
+     */
+    public static CursorPage forUpdate(int affectedRows) {
+      return new CursorPage(null, List.of(), List.of(), 0, false, affectedRows);
+    }
+  }
+
+  /**
+   * An open result set and the resources it depends on.
+   */
+  private static final class QueryCursor {
+    private final String id;
+    private final String connectionId;
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final List<String> columns;
+    // Not synchronized: JDBC calls made while holding a monitor would pin virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long lastAccess = System.currentTimeMillis();
+    private long rowsRead;
+    private boolean exhausted;
+    private boolean closed;
+
+    private QueryCursor(String id, String connectionId, Connection connection, PreparedStatement statement,
+                        ResultSet resultSet, List<String> columns) {
+      this.id = id;
+      this.connectionId = connectionId;
+      this.connection = connection;
+      this.statement = statement;
+      this.resultSet = resultSet;
+      this.columns = columns;
+    }
+
+    private void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+
+      try (connection; statement; resultSet) {
+        if (!connection.getAutoCommit()) {
+          connection.rollback();
+          connection.setAutoCommit(true);
+        }
+      } catch (SQLException e) {
+        logger.warn("Failed to close query cursor", "cursorId", id, "error", e.getMessage());
+      }
+    }
+  }
+}
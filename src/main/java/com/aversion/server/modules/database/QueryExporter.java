@@ -0,0 +1,260 @@
+package com.aversion.server.modules.database;
+
+import com.aversion.server.utils.JsonUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams a result set to a file without holding more than a bounded number of rows in memory.
+ * <p>
+ * Output goes through a single heap buffer that is written to the file channel whenever it
+ * fills up. Supported formats:
+ * <ul>
+ *   <li>{@code csv}: RFC 4180, with an optional header row. Nulls are empty fields.</li>
+ *   <li>{@code ndjson}: one JSON object per row and line.</li>
+ *   <li>{@code columnar}: a compact binary format of row groups, each laid out column by column
+ *   as described in {@link ColumnarQueryResult#writeTo}. The file starts with the magic bytes
+ *   {@code AVCOL1}, the column count and the column names, and ends with an empty row group
+ *   followed by the total row count. Integers are big-endian and strings are UTF-8 with an
+ *   {@code int} length prefix.</li>
+ * </ul>
+ * Binary values are written as Base64 in the text formats.
+ */
+public final class QueryExporter {
+
+  static final byte[] COLUMNAR_MAGIC = "AVCOL1".getBytes(StandardCharsets.US_ASCII);
+
+  /**
+   * Rows between checks whether the export has been cancelled.
+   */
+  private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+  private final int bufferSize;
+  private final int rowGroupSize;
+
+  /**
+   * Create an exporter.
+   *
+   * @param bufferSize   Bytes buffered before each write to the file
+   * @param rowGroupSize Rows per row group of the columnar format
+   */
+  public QueryExporter(int bufferSize, int rowGroupSize) {
+    if (bufferSize < 1 || rowGroupSize < 1) {
+      throw new IllegalArgumentException("Export buffer and row group sizes must be positive");
+    }
+    this.bufferSize = bufferSize;
+    this.rowGroupSize = rowGroupSize;
+  }
+
+  /**
+   * Export formats.
+   */
+  public enum Format {
+    CSV, NDJSON, COLUMNAR;
+
+    public static Format parse(String name) {
+      try {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Invalid export format: " + name + ", expected csv, ndjson or columnar");
+      }
+    }
+  }
+
+  /**
+   * Summary of a finished export.
+   *
+   * @param path       Absolute path of the written file
+   * @param format     Format of the file
+   * @param rows       Number of rows written
+   * @param bytes      Size of the file in bytes
+   * @param durationMs Time taken by the query and the export
+   */
+  public record ExportSummary(String path, String format, long rows, long bytes, long durationMs) {
+  }
+
+  /**
+   * Write all remaining rows of a result set.
+   *
+   * @param rs      Result set positioned before the first row
+   * @param format  Output format
+   * @param channel Channel to write to, positioned at the start of the file
+   * @param header  Whether to write a header row, for CSV
+   * @return Number of rows written
+   * @throws SQLException if reading the result set fails or the export is cancelled
+   * @throws IOException  if writing the file fails
+   */
+  public long write(ResultSet rs, Format format, FileChannel channel, boolean header) throws SQLException, IOException {
+    List<String> columns = DatabaseConnectionManager.columnNames(rs);
+    try (ChannelOutputStream out = new ChannelOutputStream(channel, bufferSize)) {
+      return switch (format) {
+        case CSV -> writeCsv(rs, columns, out, header);
+        case NDJSON -> writeNdjson(rs, columns, out);
+        case COLUMNAR -> writeColumnar(rs, columns, out);
+      };
+    }
+  }
+
+  private long writeCsv(ResultSet rs, List<String> columns, OutputStream out, boolean header) throws SQLException, IOException {
+    Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    if (header) {
+      for (int i = 0; i < columns.size(); i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writeCsvField(writer, columns.get(i));
+      }
+      writer.write("\r\n");
+    }
+
+    long rows = 0;
+    while (rs.next()) {
+      for (int i = 1; i <= columns.size(); i++) {
+        if (i > 1) {
+          writer.write(',');
+        }
+        Object value = DatabaseConnectionManager.readValue(rs, i);
+        if (value != null) {
+          writeCsvField(writer, value instanceof byte[] bytes ? Base64.getEncoder().encodeToString(bytes) : value.toString());
+        }
+      }
+      writer.write("\r\n");
+      checkCancelled(++rows);
+    }
+    writer.flush();
+    return rows;
+  }
+
+  private static void writeCsvField(Writer writer, String value) throws IOException {
+    boolean quote = value.isEmpty() || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+      || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+    if (!quote) {
+      writer.write(value);
+      return;
+    }
+    writer.write('"');
+    writer.write(value.replace("\"", "\"\""));
+    writer.write('"');
+  }
+
+  private long writeNdjson(ResultSet rs, List<String> columns, OutputStream out) throws SQLException, IOException {
+    long rows = 0;
+    try (JsonGenerator gen = JsonUtil.getObjectMapper().getFactory().createGenerator(out)) {
+      // The channel stream is closed by the caller
+      gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      // Rows are separated by the newlines written below, not by the default space
+      gen.setRootValueSeparator(null);
+      while (rs.next()) {
+        gen.writeStartObject();
+        for (int i = 1; i <= columns.size(); i++) {
+          gen.writeFieldName(columns.get(i - 1));
+          gen.writeObject(DatabaseConnectionManager.readValue(rs, i));
+        }
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+        checkCancelled(++rows);
+      }
+    }
+    return rows;
+  }
+
+  private long writeColumnar(ResultSet rs, List<String> columns, OutputStream out) throws SQLException, IOException {
+    DataOutputStream data = new DataOutputStream(out);
+    data.write(COLUMNAR_MAGIC);
+    data.writeInt(columns.size());
+    for (String column : columns) {
+      ColumnarQueryResult.writeString(data, column);
+    }
+
+    long rows = 0;
+    while (true) {
+      ColumnarQueryResult group = ColumnarQueryResult.fromResultSet(rs, rowGroupSize);
+      if (group.rowCount() == 0) {
+        break;
+      }
+      group.writeTo(data);
+      rows += group.rowCount();
+      checkCancelled(rows);
+      if (group.rowCount() < rowGroupSize) {
+        break;
+      }
+    }
+
+    // An empty row group marks the end of the data
+    data.writeInt(0);
+    data.writeLong(rows);
+    data.flush();
+    return rows;
+  }
+
+  private static void checkCancelled(long rows) throws SQLException {
+    if (rows % CANCEL_CHECK_INTERVAL == 0 && JdbcExecutor.isCancelled()) {
+      throw new SQLException("Export was cancelled", JdbcExecutor.QUERY_CANCELED);
+    }
+  }
+
+  /**
+   * Output stream that buffers writes to a file channel.
+   */
+  private static final class ChannelOutputStream extends OutputStream {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    private ChannelOutputStream(FileChannel channel, int bufferSize) {
+      this.channel = channel;
+      this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      if (!buffer.hasRemaining()) {
+        drain();
+      }
+      buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      while (length > 0) {
+        if (!buffer.hasRemaining()) {
+          drain();
+        }
+        int chunk = Math.min(length, buffer.remaining());
+        buffer.put(bytes, offset, chunk);
+        offset += chunk;
+        length -= chunk;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+      drain();
+    }
+
+    private void drain() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
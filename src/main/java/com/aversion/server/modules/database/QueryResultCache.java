@@ -0,0 +1,340 @@
+package com.aversion.server.modules.database;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of SELECT results, invalidated per table when data is written.
+ * <p>
+ * Entries are keyed by connection, SQL, parameters, row limit and result type, and expire after a
+ * fixed TTL. The cache is bounded by the estimated memory of its entries and evicts the least
+ * recently used entries first. Only queries whose tables can all be identified are cached, so
+ * every cached entry can be invalidated by a write to one of its tables.
+ */
+public class QueryResultCache {
+
+  private static final Pattern SELECT = Pattern.compile("^\\s*SELECT\\b", Pattern.CASE_INSENSITIVE);
+  private static final Pattern LOCKING_READ = Pattern.compile("\\bFOR\\s+(UPDATE|SHARE)\\b", Pattern.CASE_INSENSITIVE);
+  private static final Pattern SELECT_INTO = Pattern.compile("\\bINTO\\b", Pattern.CASE_INSENSITIVE);
+  private static final Pattern SIDE_EFFECT = Pattern.compile(
+    "\\b(?:nextval|setval|pg_(?:try_)?advisory_\\w+|get_lock|release_lock)\\s*\\(", Pattern.CASE_INSENSITIVE);
+  private static final String ALIAS = "(?:\\s+(?:AS\\s+)?(?!(?:JOIN|INNER|LEFT|RIGHT|FULL|CROSS|OUTER|NATURAL|WHERE|ON|USING|GROUP|ORDER|HAVING|LIMIT|OFFSET|UNION|EXCEPT|INTERSECT|WINDOW)\\b)\\w+)?";
+  private static final Pattern READ_TABLES = Pattern.compile(
+    "\\b(?:FROM|JOIN)\\s+([\\w.\"`\\[\\]]+)(" + ALIAS + "(?:\\s*,\\s*[\\w.\"`\\[\\]]+" + ALIAS + ")*)",
+    Pattern.CASE_INSENSITIVE);
+  private static final Pattern WRITE_TABLE = Pattern.compile(
+    "^\\s*(?:INSERT\\s+(?:OR\\s+\\w+\\s+)?INTO|REPLACE\\s+INTO|UPDATE(?:\\s+OR\\s+\\w+)?|DELETE\\s+FROM|DROP\\s+TABLE(?:\\s+IF\\s+EXISTS)?|ALTER\\s+TABLE|TRUNCATE(?:\\s+TABLE)?)\\s+([\\w.\"`\\[\\]]+)",
+    Pattern.CASE_INSENSITIVE);
+
+  private final long maxBytes;
+  private final long ttlMillis;
+  // Not synchronized: keeps virtual threads from pinning while they wait for the lock
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+  private long usedBytes;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  /**
+   * Create a result cache.
+   *
+   * @param maxBytes  Maximum estimated memory of all cached results
+   * @param ttlMillis Time after which a cached result is no longer used
+   */
+  public QueryResultCache(long maxBytes, long ttlMillis) {
+    this.maxBytes = maxBytes;
+    this.ttlMillis = ttlMillis;
+  }
+
+  /**
+   * Build the cache key for a query, if its result may be cached.
+   *
+   * @return The key, or null if the query is not a plain SELECT on identifiable tables
+   */
+  public @Nullable Key keyFor(String connectionId, String query, List<Object> params, int limit, Class<?> resultType) {
+    if (maxBytes <= 0 || !isReadOnly(query)) {
+      return null;
+    }
+
+    Set<String> tables = readTables(query);
+    if (tables.isEmpty()) {
+      return null;
+    }
+
+    // Parameters may contain nulls, which List.copyOf rejects
+    List<Object> paramsCopy = params == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(params));
+    return new Key(connectionId, query, paramsCopy, limit, resultType, tables, generation(connectionId).get());
+  }
+
+  /**
+   * Check whether a statement only reads data, i.e. is a SELECT without a locking clause, an INTO
+   * clause or a call to a function with side effects such as {@code nextval} or an advisory lock.
+   * Only such statements are cached or sent to a read replica.
+   */
+  public static boolean isReadOnly(String query) {
+    return SELECT.matcher(query).find()
+      && !LOCKING_READ.matcher(query).find()
+      && !SELECT_INTO.matcher(query).find()
+      && !SIDE_EFFECT.matcher(query).find();
+  }
+
+  /**
+   * Get a cached result.
+   *
+   * @param key  Key from {@link #keyFor}
+   * @param type Result type
+   * @return The cached result, or null if absent or expired
+   */
+  public <T> @Nullable T get(Key key, Class<T> type) {
+    lock.lock();
+    try {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+        hits.incrementAndGet();
+        return type.cast(entry.result);
+      }
+      if (entry != null) {
+        remove(key, entry);
+      }
+      misses.incrementAndGet();
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Cache a result, unless a write to the connection was seen since the key was created.
+   *
+   * @param key    Key from {@link #keyFor}
+   * @param result The query result
+   * @param bytes  Estimated memory used by the result
+   */
+  public void put(Key key, Object result, long bytes) {
+    // Very large results would evict most of the cache for a single entry
+    if (bytes > maxBytes / 4) {
+      return;
+    }
+
+    lock.lock();
+    try {
+      if (generation(key.connectionId()).get() != key.generation()) {
+        return;
+      }
+
+      Entry previous = entries.put(key, new Entry(result, bytes, System.currentTimeMillis() + ttlMillis));
+      if (previous != null) {
+        usedBytes -= previous.bytes;
+      }
+      usedBytes += bytes;
+
+      for (Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator(); usedBytes > maxBytes && it.hasNext(); ) {
+        Map.Entry<Key, Entry> eldest = it.next();
+        it.remove();
+        usedBytes -= eldest.getValue().bytes;
+        evictions.incrementAndGet();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Invalidate the results that read a table.
+   *
+   * @param connectionId Connection identifier
+   * @param table        Table name
+   */
+  public void invalidate(String connectionId, String table) {
+    invalidate(connectionId, Set.of(normalize(table)));
+  }
+
+  /**
+   * Invalidate the results affected by a statement that is not a SELECT. If the written table
+   * cannot be determined, all results of the connection are invalidated.
+   *
+   * @param connectionId Connection identifier
+   * @param query        SQL statement
+   */
+  public void invalidateForStatement(String connectionId, String query) {
+    if (SELECT.matcher(query).find()) {
+      return;
+    }
+
+    Matcher matcher = WRITE_TABLE.matcher(query);
+    invalidate(connectionId, matcher.find() ? Set.of(normalize(matcher.group(1))) : null);
+  }
+
+  /**
+   * Invalidate all results of a connection.
+   *
+   * @param connectionId Connection identifier
+   */
+  public void invalidateAll(String connectionId) {
+    invalidate(connectionId, (Set<String>) null);
+  }
+
+  /**
+   * Get result cache metrics.
+   *
+   * @return Map containing hit ratio, entry count and memory use
+   */
+  public Map<String, Object> getMetrics() {
+    long hitCount = hits.get();
+    long total = hitCount + misses.get();
+
+    Map<String, Object> metrics = new HashMap<>();
+    lock.lock();
+    try {
+      metrics.put("entries", entries.size());
+      metrics.put("memoryBytes", usedBytes);
+    } finally {
+      lock.unlock();
+    }
+    metrics.put("maxMemoryBytes", maxBytes);
+    metrics.put("hits", hitCount);
+    metrics.put("misses", misses.get());
+    metrics.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+    metrics.put("evictions", evictions.get());
+    metrics.put("invalidations", invalidations.get());
+    return metrics;
+  }
+
+  /**
+   * Estimate the memory used by a row-based result.
+   */
+  public static long estimateSize(QueryResult result) {
+    long bytes = 64;
+    for (String column : result.columns()) {
+      bytes += 40 + 2L * column.length();
+    }
+    for (Map<String, Object> row : result.rows()) {
+      bytes += 48;
+      for (Object value : row.values()) {
+        // Hash map node plus the value
+        bytes += 32 + estimateValueSize(value);
+      }
+    }
+    return bytes;
+  }
+
+  static long estimateValueSize(@Nullable Object value) {
+    return switch (value) {
+      case null -> 0;
+      case String s -> 40 + 2L * s.length();
+      case byte[] bytes -> 16 + bytes.length;
+      default -> 24;
+    };
+  }
+
+  private void invalidate(String connectionId, @Nullable Set<String> tables) {
+    lock.lock();
+    try {
+      // Results computed before this point must not be stored
+      generation(connectionId).incrementAndGet();
+
+      for (Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+        Map.Entry<Key, Entry> entry = it.next();
+        Key key = entry.getKey();
+        if (key.connectionId().equals(connectionId) && (tables == null || !disjoint(key.tables(), tables))) {
+          it.remove();
+          usedBytes -= entry.getValue().bytes;
+          invalidations.incrementAndGet();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void remove(Key key, Entry entry) {
+    entries.remove(key);
+    usedBytes -= entry.bytes;
+  }
+
+  private AtomicLong generation(String connectionId) {
+    return generations.computeIfAbsent(connectionId, id -> new AtomicLong());
+  }
+
+  private static boolean disjoint(Set<String> a, Set<String> b) {
+    for (String table : b) {
+      if (a.contains(table)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Set<String> readTables(String query) {
+    Set<String> tables = new HashSet<>();
+    Matcher matcher = READ_TABLES.matcher(query);
+    while (matcher.find()) {
+      tables.add(normalize(matcher.group(1)));
+      String rest = matcher.group(2);
+      if (rest != null && rest.contains(",")) {
+        String[] parts = rest.split(",");
+        for (int i = 1; i < parts.length; i++) {
+          tables.add(normalize(parts[i].trim().split("\\s+")[0]));
+        }
+      }
+    }
+    return tables;
+  }
+
+  private static String normalize(String table) {
+    String name = table.replaceAll("[\"`\\[\\]]", "");
+    int dot = name.lastIndexOf('.');
+    return (dot >= 0 ? name.substring(dot + 1) : name).toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Identity of a cached result.
+   * <p>
+   * The tables and generation are not part of equality; they are derived from the query and
+   * only used for invalidation.
+   */
+  public record Key(String connectionId, String query, List<Object> params, int limit, Class<?> resultType,
+                    Set<String> tables, long generation) {
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key other
+        && limit == other.limit
+        && connectionId.equals(other.connectionId)
+        && query.equals(other.query)
+        && params.equals(other.params)
+        && resultType == other.resultType;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = connectionId.hashCode();
+      result = 31 * result + query.hashCode();
+      result = 31 * result + params.hashCode();
+      result = 31 * result + limit;
+      return 31 * result + resultType.hashCode();
+    }
+  }
+
+  private record Entry(Object result, long bytes, long expiresAt) {
+  }
+}
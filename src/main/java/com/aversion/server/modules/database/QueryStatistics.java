@@ -0,0 +1,215 @@
+package com.aversion.server.modules.database;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Query latency statistics and slow-query log.
+ * <p>
+ * Executions are recorded in a latency histogram per connection and per statement fingerprint,
+ * the SQL text with literals replaced by {@code ?}, so the same query with different values is
+ * counted once. At most {@code maxStatements} fingerprints are tracked; when a new one arrives,
+ * the fingerprint with the least total time is dropped, which keeps the statements that
+ * dominate database time. Executions slower than the threshold are also kept in a ring buffer.
+ */
+public class QueryStatistics {
+
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+
+  private static final int MAX_FINGERPRINT_LENGTH = 500;
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?:[eE][+-]?\\d+)?\\b");
+  private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final int maxStatements;
+  private final long slowThresholdNanos;
+  private final Map<String, LatencyHistogram> connections = new ConcurrentHashMap<>();
+  private final Map<StatementKey, LatencyHistogram> statements = new ConcurrentHashMap<>();
+  private final AtomicLong droppedStatements = new AtomicLong();
+  // Makes the size check, eviction and insert of a new fingerprint one step, so concurrent
+  // inserts cannot grow the map past maxStatements; known fingerprints never take it
+  private final ReentrantLock statementLock = new ReentrantLock();
+
+  private final ReentrantLock slowLock = new ReentrantLock();
+  private final SlowQuery[] slowQueries;
+  private int slowNext;
+  private long slowTotal;
+
+  /**
+   * Create query statistics.
+   *
+   * @param maxStatements   Maximum number of statement fingerprints to track
+   * @param slowThresholdMs Execution time from which a query is logged as slow, 0 to disable
+   * @param slowLogSize     Number of slow queries kept
+   */
+  public QueryStatistics(int maxStatements, long slowThresholdMs, int slowLogSize) {
+    this.maxStatements = Math.max(1, maxStatements);
+    this.slowThresholdNanos = slowThresholdMs * 1_000_000;
+    this.slowQueries = new SlowQuery[Math.max(1, slowLogSize)];
+  }
+
+  /**
+   * Record one execution.
+   *
+   * @param connectionId  Connection identifier
+   * @param sql           SQL text or operation description
+   * @param durationNanos Execution time in nanoseconds
+   * @param rowCount      Rows returned or affected
+   * @param failed        Whether the execution failed
+   */
+  public void record(String connectionId, String sql, long durationNanos, long rowCount, boolean failed) {
+    connections.computeIfAbsent(connectionId, id -> new LatencyHistogram()).record(durationNanos, rowCount, failed);
+
+    String fingerprint = fingerprint(sql);
+    StatementKey key = new StatementKey(connectionId, fingerprint);
+    LatencyHistogram histogram = statements.get(key);
+    if (histogram == null) {
+      histogram = addStatement(key);
+    }
+    histogram.record(durationNanos, rowCount, failed);
+
+    if (slowThresholdNanos > 0 && durationNanos >= slowThresholdNanos) {
+      recordSlowQuery(new SlowQuery(Instant.now().toString(), connectionId, fingerprint, durationNanos / 1_000_000.0, rowCount, failed));
+    }
+  }
+
+  /**
+   * Forget the statistics of a connection.
+   *
+   * @param connectionId Connection identifier
+   */
+  public void remove(String connectionId) {
+    connections.remove(connectionId);
+    statements.keySet().removeIf(key -> key.connectionId().equals(connectionId));
+  }
+
+  /**
+   * Get query statistics.
+   *
+   * @param topStatements  Number of statements to include, by total time
+   * @param slowQueryCount Number of most recent slow queries to include
+   * @return Map containing latency summaries per connection and per statement, and slow queries
+   */
+  public Map<String, Object> getMetrics(int topStatements, int slowQueryCount) {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+
+    Map<String, Object> connectionMetrics = new LinkedHashMap<>();
+    connections.forEach((id, histogram) -> connectionMetrics.put(id, histogram.toMap()));
+    metrics.put("connections", connectionMetrics);
+
+    List<Map<String, Object>> statementMetrics = new ArrayList<>();
+    statements.entrySet().stream()
+      .sorted(Comparator.comparingLong((Map.Entry<StatementKey, LatencyHistogram> entry) -> entry.getValue().totalMicros()).reversed())
+      .limit(Math.max(0, topStatements))
+      .forEach(entry -> {
+        Map<String, Object> statement = new LinkedHashMap<>();
+        statement.put("connectionId", entry.getKey().connectionId());
+        statement.put("fingerprint", entry.getKey().fingerprint());
+        statement.putAll(entry.getValue().toMap());
+        statementMetrics.add(statement);
+      });
+    metrics.put("statements", statementMetrics);
+    metrics.put("trackedStatements", statements.size());
+    metrics.put("droppedStatements", droppedStatements.get());
+
+    slowLock.lock();
+    try {
+      metrics.put("slowQueryThresholdMs", slowThresholdNanos / 1_000_000);
+      metrics.put("slowQueryTotal", slowTotal);
+      metrics.put("slowQueries", recentSlowQueries(slowQueryCount));
+    } finally {
+      slowLock.unlock();
+    }
+    return metrics;
+  }
+
+  /**
+   * Normalize SQL so that executions differing only in literal values share a fingerprint.
+   *
+   * @param sql SQL text
+   * @return The SQL with literals replaced by {@code ?}, lists of placeholders collapsed and whitespace normalized
+   */
+  public static String fingerprint(String sql) {
+    String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+    normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("(?+)");
+    normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    return normalized.length() > MAX_FINGERPRINT_LENGTH ? normalized.substring(0, MAX_FINGERPRINT_LENGTH) + "..." : normalized;
+  }
+
+  private LatencyHistogram addStatement(StatementKey key) {
+    statementLock.lock();
+    try {
+      LatencyHistogram existing = statements.get(key);
+      if (existing != null) {
+        return existing;
+      }
+
+      if (statements.size() >= maxStatements) {
+        statements.entrySet().stream()
+          .min(Comparator.comparingLong(entry -> entry.getValue().totalMicros()))
+          .ifPresent(entry -> {
+            statements.remove(entry.getKey());
+            droppedStatements.incrementAndGet();
+          });
+      }
+
+      LatencyHistogram histogram = new LatencyHistogram();
+      statements.put(key, histogram);
+      return histogram;
+    } finally {
+      statementLock.unlock();
+    }
+  }
+
+  private void recordSlowQuery(SlowQuery slowQuery) {
+    slowLock.lock();
+    try {
+      slowQueries[slowNext] = slowQuery;
+      slowNext = (slowNext + 1) % slowQueries.length;
+      slowTotal++;
+    } finally {
+      slowLock.unlock();
+    }
+
+    logger.warn("Slow query",
+      "connectionId", slowQuery.connectionId(),
+      "durationMs", slowQuery.durationMs(),
+      "query", slowQuery.fingerprint()
+    );
+  }
+
+  /**
+   * Slow queries from newest to oldest. Must be called with the slow-query lock held.
+   */
+  private List<SlowQuery> recentSlowQueries(int limit) {
+    List<SlowQuery> recent = new ArrayList<>();
+    for (int i = 1; i <= slowQueries.length && recent.size() < limit; i++) {
+      SlowQuery slowQuery = slowQueries[Math.floorMod(slowNext - i, slowQueries.length)];
+      if (slowQuery == null) {
+        break;
+      }
+      recent.add(slowQuery);
+    }
+    return recent;
+  }
+
+  private record StatementKey(String connectionId, String fingerprint) {
+  }
+
+  /**
+   * A query that took at least the slow-query threshold.
+   */
+  public record SlowQuery(String timestamp, String connectionId, String fingerprint, double durationMs, long rows,
+                          boolean failed) {
+  }
+}
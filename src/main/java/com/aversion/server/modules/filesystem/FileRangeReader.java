@@ -0,0 +1,392 @@
+package com.aversion.server.modules.filesystem;
+
+import com.aversion.server.utils.ApplicationConfig;
+import com.aversion.server.utils.JsonUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * Reads a part of a file without loading the rest of it.
+ * <p>
+ * Byte ranges are read with positional reads. Line ranges are located by scanning a memory
+ * mapping of the file for newline bytes, and the tail of a file by scanning backwards from its
+ * end in blocks, so only the requested part is copied onto the heap. Line modes need a charset
+ * in which a newline is the single byte {@code 0x0A}, such as UTF-8 or ISO-8859-1.
+ */
+public final class FileRangeReader {
+
+  /**
+   * Size of each memory mapping while scanning for lines.
+   */
+  private static final long MAP_WINDOW = 64L * 1024 * 1024;
+
+  private static final int DEFAULT_RANGE_LENGTH = 64 * 1024;
+  private static final int DEFAULT_LINE_COUNT = 100;
+
+  private final long maxBytes;
+  private final int blockSize;
+
+  /**
+   * Create a reader.
+   *
+   * @param maxBytes  Maximum number of bytes returned by one read; longer slices are truncated
+   * @param blockSize Bytes read at a time while scanning backwards from the end of a file
+   */
+  public FileRangeReader(long maxBytes, int blockSize) {
+    if (maxBytes < 1 || blockSize < 1) {
+      throw new IllegalArgumentException("Read limits must be positive");
+    }
+    // Slices are read into a single array
+    this.maxBytes = Math.min(maxBytes, Integer.MAX_VALUE - 8);
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * Create a reader limited to {@code filesystem.security.max-file-size} bytes per read.
+   */
+  public static FileRangeReader fromConfig() {
+    return new FileRangeReader(
+      ApplicationConfig.getLong("filesystem.security.max-file-size", 100L * 1024 * 1024),
+      ApplicationConfig.getInt("filesystem.operations.buffer-size", 8192)
+    );
+  }
+
+  /**
+   * A part of a file.
+   *
+   * @param content   Decoded content
+   * @param offset    Byte offset of the first byte read
+   * @param length    Number of bytes read
+   * @param fileSize  Size of the file in bytes
+   * @param startLine Number of the first line, starting at 1, or -1 if not known
+   * @param lines     Number of lines in the content, or -1 if not counted
+   * @param truncated Whether the slice was cut off at the maximum read size
+   */
+  public record Slice(String content, long offset, long length, long fileSize, long startLine, int lines,
+                      boolean truncated) {
+
+    /**
+     * Offset of the byte after this slice, where a following read continues.
+     */
+    public long nextOffset() {
+      return offset + length;
+    }
+
+    /**
+     * Whether the slice reaches the end of the file.
+     */
+    public boolean endOfFile() {
+      return offset + length >= fileSize;
+    }
+  }
+
+  /**
+   * Whether read_file arguments ask for a part of the file rather than all of it.
+   *
+   * @param args Tool arguments
+   */
+  public static boolean isPartialRead(JsonNode args) {
+    return Stream.of("offset", "length", "startLine", "lineCount", "head", "tail").anyMatch(args::hasNonNull);
+  }
+
+  /**
+   * Read the part of a file selected by read_file arguments: {@code offset}/{@code length} for
+   * bytes, {@code startLine}/{@code lineCount} for lines, or {@code head} or {@code tail} with
+   * a number of lines. Without any of these, the whole file is read.
+   *
+   * @param path    File to read
+   * @param charset Encoding of the file
+   * @param args    Tool arguments
+   * @throws IllegalArgumentException if the arguments combine several modes or are out of range
+   */
+  public Slice read(Path path, Charset charset, JsonNode args) throws IOException {
+    boolean range = args.hasNonNull("offset") || args.hasNonNull("length");
+    boolean lines = args.hasNonNull("startLine") || args.hasNonNull("lineCount");
+    boolean head = args.hasNonNull("head");
+    boolean tail = args.hasNonNull("tail");
+    if ((range ? 1 : 0) + (lines ? 1 : 0) + (head ? 1 : 0) + (tail ? 1 : 0) > 1) {
+      throw new IllegalArgumentException("Use only one of offset/length, startLine/lineCount, head and tail");
+    }
+
+    if (range) {
+      long offset = args.hasNonNull("offset") ? args.get("offset").asLong() : 0;
+      long length = args.hasNonNull("length") ? args.get("length").asLong() : DEFAULT_RANGE_LENGTH;
+      return readRange(path, charset, offset, length);
+    }
+    if (lines) {
+      long startLine = args.hasNonNull("startLine") ? args.get("startLine").asLong() : 1;
+      return readLines(path, charset, startLine, JsonUtil.getIntField(args, "lineCount", DEFAULT_LINE_COUNT));
+    }
+    if (head) {
+      return head(path, charset, args.get("head").asInt());
+    }
+    if (tail) {
+      return tail(path, charset, args.get("tail").asInt());
+    }
+    return readAll(path, charset);
+  }
+
+  /**
+   * Read a whole file.
+   *
+   * @throws IllegalArgumentException if the file is larger than the maximum read size
+   */
+  public Slice readAll(Path path, Charset charset) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > maxBytes) {
+        throw new IllegalArgumentException("File is " + size + " bytes, more than the " + maxBytes
+          + " bytes that can be read at once; read it in parts with offset/length, startLine/lineCount, head or tail");
+      }
+      return new Slice(decode(read(channel, 0, (int) size), charset), 0, size, size, 1, -1, false);
+    }
+  }
+
+  /**
+   * Read a byte range. For UTF-8, the range is narrowed to whole characters.
+   *
+   * @param offset Byte offset to start at
+   * @param length Maximum number of bytes to read
+   */
+  public Slice readRange(Path path, Charset charset, long offset, long length) throws IOException {
+    if (offset < 0 || length < 0) {
+      throw new IllegalArgumentException("Offset and length cannot be negative");
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long start = Math.min(offset, size);
+      long end = Math.min(size, start + Math.min(length, maxBytes));
+      boolean truncated = length > maxBytes && end < size;
+
+      byte[] bytes = read(channel, start, (int) (end - start));
+      int from = 0;
+      int to = bytes.length;
+      if (charset.equals(StandardCharsets.UTF_8)) {
+        // Skip the continuation bytes of a character that started before the range
+        if (start > 0) {
+          from = utf8ContinuationLength(bytes, to);
+        }
+        // Leave out a character that continues after the range
+        if (end < size) {
+          to = completeUtf8Length(bytes, from, to);
+        }
+      }
+      String content = new String(bytes, from, to - from, charset);
+      return new Slice(content, start + from, to - from, size, -1, -1, truncated);
+    }
+  }
+
+  /**
+   * Read a range of lines.
+   *
+   * @param startLine Number of the first line, starting at 1
+   * @param lineCount Maximum number of lines to read
+   */
+  public Slice readLines(Path path, Charset charset, long startLine, int lineCount) throws IOException {
+    requireSingleByteNewline(charset);
+    if (startLine < 1 || lineCount < 0) {
+      throw new IllegalArgumentException("startLine must be at least 1 and lineCount cannot be negative");
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long start = startLine == 1 ? 0 : skipLines(channel, 0, size, startLine - 1);
+      long end = lineCount == 0 ? start : skipLines(channel, start, size, lineCount);
+      return slice(channel, charset, start, end, size, startLine, false);
+    }
+  }
+
+  /**
+   * Read the first lines of a file.
+   */
+  public Slice head(Path path, Charset charset, int lineCount) throws IOException {
+    return readLines(path, charset, 1, lineCount);
+  }
+
+  /**
+   * Read the last lines of a file. A newline at the very end of the file does not start
+   * another line. If the lines are longer than the maximum read size, the slice is truncated at
+   * its start, so it still ends at the end of the file.
+   */
+  public Slice tail(Path path, Charset charset, int lineCount) throws IOException {
+    requireSingleByteNewline(charset);
+    if (lineCount < 0) {
+      throw new IllegalArgumentException("lineCount cannot be negative");
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long start = lineCount == 0 ? size : tailStart(channel, size, lineCount);
+      return slice(channel, charset, start, size, size, -1, true);
+    }
+  }
+
+  /**
+   * Read the bytes from {@code start} to {@code end}, at most the maximum read size of them.
+   *
+   * @param keepEnd Whether a truncated slice keeps its last bytes rather than its first
+   */
+  private Slice slice(FileChannel channel, Charset charset, long start, long end, long size, long startLine,
+                      boolean keepEnd) throws IOException {
+    boolean truncated = end - start > maxBytes;
+    boolean utf8 = charset.equals(StandardCharsets.UTF_8);
+    if (truncated && keepEnd) {
+      long from = end - maxBytes;
+      byte[] bytes = read(channel, from, (int) maxBytes);
+      int skipped = utf8 ? utf8ContinuationLength(bytes, bytes.length) : 0;
+      String content = new String(bytes, skipped, bytes.length - skipped, charset);
+      return new Slice(content, from + skipped, bytes.length - skipped, size, -1, countLines(bytes, skipped, bytes.length), true);
+    }
+
+    long stop = truncated ? start + maxBytes : end;
+    byte[] bytes = read(channel, start, (int) (stop - start));
+    int length = truncated && utf8 ? completeUtf8Length(bytes, 0, bytes.length) : bytes.length;
+    String content = new String(bytes, 0, length, charset);
+    return new Slice(content, start, length, size, startLine, countLines(bytes, 0, length), truncated);
+  }
+
+  /**
+   * Find the offset after the given number of newlines, scanning a memory mapping of the file.
+   *
+   * @return Offset of the first byte after the last newline skipped, or the file size if the file has fewer lines
+   */
+  private static long skipLines(FileChannel channel, long from, long size, long lines) throws IOException {
+    long remaining = lines;
+    for (long position = from; position < size; position += MAP_WINDOW) {
+      long windowSize = Math.min(MAP_WINDOW, size - position);
+      MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+      for (int i = 0; i < windowSize; i++) {
+        if (window.get(i) == '\n' && --remaining == 0) {
+          return position + i + 1;
+        }
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Find the offset of the first of the last {@code lines} lines by reading blocks backwards from the end.
+   */
+  private long tailStart(FileChannel channel, long size, int lines) throws IOException {
+    ByteBuffer block = ByteBuffer.allocate(blockSize);
+    long remaining = lines;
+    long blockEnd = size;
+    boolean last = true;
+    while (blockEnd > 0) {
+      long blockStart = Math.max(0, blockEnd - blockSize);
+      block.clear().limit((int) (blockEnd - blockStart));
+      readFully(channel, block, blockStart);
+      for (int i = block.limit() - 1; i >= 0; i--) {
+        if (block.get(i) != '\n') {
+          last = false;
+          continue;
+        }
+        if (last) {
+          // Trailing newline of the file
+          last = false;
+          continue;
+        }
+        if (--remaining == 0) {
+          return blockStart + i + 1;
+        }
+      }
+      blockEnd = blockStart;
+    }
+    return 0;
+  }
+
+  private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    readFully(channel, buffer, position);
+    return buffer.array();
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    long offset = position;
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, offset);
+      if (read < 0) {
+        throw new EOFException("File was truncated while reading");
+      }
+      offset += read;
+    }
+  }
+
+  private static String decode(byte[] bytes, Charset charset) {
+    try {
+      return charset.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+        .decode(ByteBuffer.wrap(bytes))
+        .toString();
+    } catch (CharacterCodingException e) {
+      // Not thrown with REPLACE
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Length of the bytes up to {@code to} without a trailing incomplete UTF-8 character.
+   */
+  private static int completeUtf8Length(byte[] bytes, int from, int to) {
+    for (int i = to - 1; i >= from && i >= to - 4; i--) {
+      int b = bytes[i] & 0xFF;
+      if (b < 0x80) {
+        return to;
+      }
+      if (b >= 0xC0) {
+        int charLength = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : 2;
+        return to - i >= charLength ? to : i;
+      }
+    }
+    return to;
+  }
+
+  /**
+   * Number of UTF-8 continuation bytes at the start of the bytes, belonging to a character that
+   * started before them.
+   */
+  private static int utf8ContinuationLength(byte[] bytes, int to) {
+    int length = 0;
+    while (length < to && length < 3 && (bytes[length] & 0xC0) == 0x80) {
+      length++;
+    }
+    return length;
+  }
+
+  private static int countLines(byte[] bytes, int from, int to) {
+    if (to == from) {
+      return 0;
+    }
+    int lines = 0;
+    for (int i = from; i < to; i++) {
+      if (bytes[i] == '\n') {
+        lines++;
+      }
+    }
+    return bytes[to - 1] == '\n' ? lines : lines + 1;
+  }
+
+  private static void requireSingleByteNewline(Charset charset) {
+    ByteBuffer newline;
+    try {
+      newline = charset.newEncoder().encode(CharBuffer.wrap("\n"));
+    } catch (CharacterCodingException | UnsupportedOperationException e) {
+      newline = null;
+    }
+    if (newline == null || newline.remaining() != 1 || newline.get(0) != '\n') {
+      throw new IllegalArgumentException("Line reads are not supported for encoding " + charset.name());
+    }
+  }
+}
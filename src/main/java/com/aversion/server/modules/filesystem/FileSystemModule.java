@@ -5,10 +5,12 @@ import com.aversion.server.utils.JsonUtil;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -22,6 +24,8 @@ public class FileSystemModule extends BaseModule {
   private static final String MODULE_VERSION = "1.0.0";
   private static final String MODULE_DESCRIPTION = "A module for interacting with the file system.";
 
+  private final FileRangeReader rangeReader = FileRangeReader.fromConfig();
+
   // TODO: Implement security for allowed paths from application.yml
 
   @Override
@@ -30,7 +34,7 @@ public class FileSystemModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "list_directory", description = "Lists the contents of a directory.")
-  private Map<String, Object> handleListDirectory(JsonNode args) throws IOException {
+  Map<String, Object> handleListDirectory(JsonNode args) throws IOException {
     String pathString = JsonUtil.getStringField(args, "path");
     Path path = Paths.get(pathString);
 
@@ -53,7 +57,7 @@ public class FileSystemModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "read_file", description = "Reads the content of a file.")
-  private Map<String, Object> handleReadFile(JsonNode args) throws IOException {
+  Map<String, Object> handleReadFile(JsonNode args) throws IOException {
     String pathString = JsonUtil.getStringField(args, "path");
     Path path = Paths.get(pathString);
 
@@ -61,12 +65,31 @@ public class FileSystemModule extends BaseModule {
       throw new IllegalArgumentException("Path is not a regular file: " + pathString);
     }
 
-    String content = Files.readString(path);
-    return createTextResponse(content);
+    FileRangeReader.Slice slice = rangeReader.read(path, StandardCharsets.UTF_8, args);
+    if (!FileRangeReader.isPartialRead(args)) {
+      return createTextResponse(slice.content());
+    }
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("path", pathString);
+    result.put("offset", slice.offset());
+    result.put("length", slice.length());
+    result.put("nextOffset", slice.nextOffset());
+    result.put("fileSize", slice.fileSize());
+    result.put("endOfFile", slice.endOfFile());
+    if (slice.startLine() > 0) {
+      result.put("startLine", slice.startLine());
+    }
+    if (slice.lines() >= 0) {
+      result.put("lines", slice.lines());
+    }
+    result.put("truncated", slice.truncated());
+    result.put("content", slice.content());
+    return createTextResponse(JsonUtil.formatJson(result));
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "write_file", description = "Writes content to a file.")
-  private Map<String, Object> handleWriteFile(JsonNode args) throws IOException {
+  Map<String, Object> handleWriteFile(JsonNode args) throws IOException {
     String pathString = JsonUtil.getStringField(args, "path");
     String content = JsonUtil.getStringField(args, "content");
     Path path = Paths.get(pathString);
@@ -76,7 +99,7 @@ public class FileSystemModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "create_directory", description = "Creates a new directory.")
-  private Map<String, Object> handleCreateDirectory(JsonNode args) throws IOException {
+  Map<String, Object> handleCreateDirectory(JsonNode args) throws IOException {
     String pathString = JsonUtil.getStringField(args, "path");
     Path path = Paths.get(pathString);
 
@@ -85,7 +108,7 @@ public class FileSystemModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "delete_path", description = "Deletes a file or directory.")
-  private Map<String, Object> handleDeletePath(JsonNode args) throws IOException {
+  Map<String, Object> handleDeletePath(JsonNode args) throws IOException {
     String pathString = JsonUtil.getStringField(args, "path");
     Path path = Paths.get(pathString);
 
@@ -111,7 +134,7 @@ public class FileSystemModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "move_path", description = "Moves or renames a file or directory.")
-  private Map<String, Object> handleMovePath(JsonNode args) throws IOException {
+  Map<String, Object> handleMovePath(JsonNode args) throws IOException {
     String sourcePathString = JsonUtil.getStringField(args, "sourcePath");
     String destinationPathString = JsonUtil.getStringField(args, "destinationPath");
     Path sourcePath = Paths.get(sourcePathString);
@@ -122,7 +145,7 @@ public class FileSystemModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "copy_path", description = "Copies a file or directory.")
-  private Map<String, Object> handleCopyPath(JsonNode args) throws IOException {
+  Map<String, Object> handleCopyPath(JsonNode args) throws IOException {
     String sourcePathString = JsonUtil.getStringField(args, "sourcePath");
     String destinationPathString = JsonUtil.getStringField(args, "destinationPath");
     Path sourcePath = Paths.get(sourcePathString);
@@ -146,7 +169,7 @@ public class FileSystemModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "get_file_metadata", description = "Gets metadata for a file or directory.")
-  private Map<String, Object> handleGetFileMetadata(JsonNode args) throws IOException {
+  Map<String, Object> handleGetFileMetadata(JsonNode args) throws IOException {
     String pathString = JsonUtil.getStringField(args, "path");
     Path path = Paths.get(pathString);
 
@@ -170,7 +193,7 @@ public class FileSystemModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "search_files", description = "Searches for files by name or content within a directory.")
-  private Map<String, Object> handleSearchFiles(JsonNode args) throws IOException {
+  Map<String, Object> handleSearchFiles(JsonNode args) throws IOException {
     String directoryString = JsonUtil.getStringField(args, "directory");
     String fileNamePattern = JsonUtil.getStringField(args, "fileNamePattern", null);
     String contentPattern = JsonUtil.getStringField(args, "contentPattern", null);
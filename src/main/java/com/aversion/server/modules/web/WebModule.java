@@ -36,7 +36,7 @@ public class WebModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "get_webpage_content", description = "Fetches the content of a given URL.")
-  private Map<String, Object> handleGetWebpageContent(JsonNode args) throws IOException {
+  Map<String, Object> handleGetWebpageContent(JsonNode args) throws IOException {
     String url = JsonUtil.getStringField(args, "url");
 
     Request request = new Request.Builder()
@@ -53,7 +53,7 @@ public class WebModule extends BaseModule {
   }
 
   @com.aversion.server.tools.ToolDefinition(name = "search_web", description = "Searches the web for a given query using DuckDuckGo Lite.")
-  private Map<String, Object> handleSearchWeb(JsonNode args) throws IOException {
+  Map<String, Object> handleSearchWeb(JsonNode args) throws IOException {
     String query = JsonUtil.getStringField(args, "query");
     String searchUrl = "https://lite.duckduckgo.com/lite/?q=" + query;
 
@@ -57,15 +57,7 @@ public record Tool(String name, String description, InputSchema inputSchema, Too
 
     InputSchema inputSchema = InputSchema.fromStream(inputStream);
 
-    ToolHandler handler = jsonNode -> {
-      try {
-        return (Map<String, Object>) method.invoke(module, jsonNode);
-      } catch (Throwable e) {
-        throw new RuntimeException("Failed to execute tool method", e);
-      }
-    };
-
-    return new Tool(name, description, inputSchema, handler);
+    return new Tool(name, description, inputSchema, ToolInvokers.create(module, method));
   }
 
   @FunctionalInterface
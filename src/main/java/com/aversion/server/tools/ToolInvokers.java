@@ -0,0 +1,131 @@
+package com.aversion.server.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * Factory for {@link Tool.ToolHandler} instances that call {@link ToolDefinition} methods.
+ * <p>
+ * The preferred invoker is a {@code ToolHandler} implementation spun at registration time with
+ * {@link LambdaMetafactory}, which calls the tool method directly. Dispatch is then a plain
+ * interface call that the JIT can inline, without reflective access checks, argument arrays or
+ * exception wrapping. If the class cannot be spun, a bound {@link MethodHandle} is used instead.
+ */
+public final class ToolInvokers {
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+  private static final MethodType HANDLER_TYPE = MethodType.methodType(Map.class, JsonNode.class);
+
+  private ToolInvokers() {
+    // Utility class should not be instantiated
+  }
+
+  /**
+   * Create the fastest available invoker for a tool method.
+   *
+   * @param target The object the method belongs to, ignored for static methods
+   * @param method The tool method, taking a single {@link JsonNode} and returning a {@code Map}
+   * @return A handler that invokes the method
+   */
+  public static Tool.ToolHandler create(Object target, @NotNull Method method) {
+    try {
+      return generated(target, method);
+    } catch (Throwable e) {
+      logger.debug("Falling back to method handle invoker for {}: {}", method.getName(), e.getMessage());
+      return methodHandle(target, method);
+    }
+  }
+
+  /**
+   * Spin a {@code ToolHandler} class whose {@code handle} method calls the tool method directly.
+   *
+   * @param target The object the method belongs to, ignored for static methods
+   * @param method The tool method
+   * @return A generated handler
+   * @throws Throwable if the handler class cannot be created
+   */
+  public static Tool.ToolHandler generated(Object target, @NotNull Method method) throws Throwable {
+    boolean isStatic = Modifier.isStatic(method.getModifiers());
+    MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+    MethodHandle implementation = lookup.unreflect(method);
+
+    MethodType factoryType = isStatic
+      ? MethodType.methodType(Tool.ToolHandler.class)
+      : MethodType.methodType(Tool.ToolHandler.class, method.getDeclaringClass());
+
+    CallSite callSite = LambdaMetafactory.metafactory(
+      lookup,
+      "handle",
+      factoryType,
+      HANDLER_TYPE,
+      implementation,
+      HANDLER_TYPE
+    );
+
+    return isStatic
+      ? (Tool.ToolHandler) callSite.getTarget().invoke()
+      : (Tool.ToolHandler) callSite.getTarget().invoke(target);
+  }
+
+  /**
+   * Create a handler that calls the tool method through a bound {@link MethodHandle}.
+   *
+   * @param target The object the method belongs to, ignored for static methods
+   * @param method The tool method
+   * @return A method handle based handler
+   */
+  @SuppressWarnings("unchecked")
+  public static Tool.ToolHandler methodHandle(Object target, @NotNull Method method) {
+    MethodHandle handle;
+    try {
+      handle = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup()).unreflect(method);
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Tool method " + method.getName() + " is not accessible", e);
+    }
+
+    MethodHandle bound = (Modifier.isStatic(method.getModifiers()) ? handle : handle.bindTo(target)).asType(HANDLER_TYPE);
+
+    return arguments -> {
+      try {
+        return (Map<String, Object>) bound.invokeExact(arguments);
+      } catch (Exception | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new RuntimeException(e);
+      }
+    };
+  }
+
+  /**
+   * Create a handler that calls the tool method with {@link Method#invoke}. This is the slowest
+   * path and is kept for comparison in benchmarks.
+   *
+   * @param target The object the method belongs to, ignored for static methods
+   * @param method The tool method
+   * @return A reflective handler
+   */
+  @SuppressWarnings("unchecked")
+  public static Tool.ToolHandler reflective(Object target, @NotNull Method method) {
+    method.setAccessible(true);
+
+    return arguments -> {
+      try {
+        return (Map<String, Object>) method.invoke(target, arguments);
+      } catch (InvocationTargetException e) {
+        if (e.getCause() instanceof Exception cause) {
+          throw cause;
+        }
+        throw e;
+      }
+    };
+  }
+}
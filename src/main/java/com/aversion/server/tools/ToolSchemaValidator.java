@@ -0,0 +1,270 @@
+package com.aversion.server.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import com.networknt.schema.ValidationMessage;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Central validation of tool arguments against the tools' input schemas.
+ * <p>
+ * Each distinct schema is compiled once and shared by every tool that uses it. For schemas whose
+ * outcome depends only on the structure of the arguments (types, property names, required
+ * properties and length/size limits), validation results are memoized by argument shape, so
+ * repeated calls with the same shape skip validation entirely.
+ */
+public class ToolSchemaValidator {
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final JsonNode EMPTY_ARGUMENTS = JsonNodeFactory.instance.objectNode();
+  private static final int MAX_MEMOIZED_SHAPES = 1024;
+  private static final int MAX_SHAPE_LENGTH = 4096;
+
+  /**
+   * Keywords whose result is fully determined by the argument shape computed in
+   * {@link CompiledSchema#shapeOf}. Any other keyword disables memoization for the schema.
+   */
+  private static final Set<String> SHAPE_KEYWORDS = Set.of(
+    "$schema", "$id", "title", "description", "default", "examples",
+    "type", "properties", "required", "additionalProperties", "items",
+    "minLength", "maxLength", "minItems", "maxItems", "minProperties", "maxProperties"
+  );
+
+  private final JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
+  private final Map<JsonNode, CompiledSchema> compiledSchemas = new ConcurrentHashMap<>();
+
+  private final AtomicLong validations = new AtomicLong();
+  private final AtomicLong memoizedResults = new AtomicLong();
+  private final AtomicLong failedValidations = new AtomicLong();
+  private final AtomicLong validationNanos = new AtomicLong();
+  private final AtomicLong compilations = new AtomicLong();
+
+  /**
+   * Compile an input schema, reusing an earlier compilation of an identical schema.
+   *
+   * @param inputSchema The tool's input schema
+   * @return The compiled schema, or null if the tool has no schema
+   */
+  public @Nullable CompiledSchema compile(@Nullable Map<String, Object> inputSchema) {
+    if (inputSchema == null || inputSchema.isEmpty()) {
+      return null;
+    }
+
+    JsonNode schemaNode = objectMapper.valueToTree(inputSchema);
+
+    // Schema files that describe the whole tool keep the actual schema under "input_schema"
+    if (schemaNode.path("input_schema").isObject() && !schemaNode.has("type") && !schemaNode.has("properties")) {
+      schemaNode = schemaNode.get("input_schema");
+    }
+
+    return compiledSchemas.computeIfAbsent(schemaNode, node -> {
+      compilations.incrementAndGet();
+      JsonSchema schema = factory.getSchema(node);
+      schema.initializeValidators();
+      return new CompiledSchema(schema, node);
+    });
+  }
+
+  /**
+   * Get validation metrics.
+   *
+   * @return Map containing validation counts and time spent validating
+   */
+  public Map<String, Object> getMetrics() {
+    long count = validations.get();
+    long nanos = validationNanos.get();
+
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("compiledSchemas", compiledSchemas.size());
+    metrics.put("compilations", compilations.get());
+    metrics.put("validations", count);
+    metrics.put("memoizedResults", memoizedResults.get());
+    metrics.put("failedValidations", failedValidations.get());
+    metrics.put("totalValidationTimeMs", nanos / 1_000_000.0);
+    metrics.put("averageValidationTimeUs", count == 0 ? 0.0 : nanos / 1_000.0 / count);
+    return metrics;
+  }
+
+  /**
+   * Check whether every keyword in a schema can be decided from the argument shape alone.
+   */
+  private static boolean isShapeOnly(JsonNode schema) {
+    if (!schema.isObject()) {
+      return schema.isBoolean();
+    }
+
+    for (Iterator<Map.Entry<String, JsonNode>> it = schema.fields(); it.hasNext(); ) {
+      Map.Entry<String, JsonNode> keyword = it.next();
+      String name = keyword.getKey();
+      JsonNode value = keyword.getValue();
+
+      if (!SHAPE_KEYWORDS.contains(name)) {
+        return false;
+      }
+
+      boolean nestedShapeOnly = switch (name) {
+        case "properties" -> {
+          for (JsonNode property : value) {
+            if (!isShapeOnly(property)) {
+              yield false;
+            }
+          }
+          yield true;
+        }
+        case "items" -> {
+          if (value.isArray()) {
+            for (JsonNode item : value) {
+              if (!isShapeOnly(item)) {
+                yield false;
+              }
+            }
+            yield true;
+          }
+          yield isShapeOnly(value);
+        }
+        case "additionalProperties" -> isShapeOnly(value);
+        default -> true;
+      };
+
+      if (!nestedShapeOnly) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Largest numeric value used by any of the given keywords anywhere in the schema.
+   */
+  private static int maxLimit(JsonNode schema, Set<String> keywords) {
+    int max = 0;
+    if (schema.isObject()) {
+      for (Iterator<Map.Entry<String, JsonNode>> it = schema.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> keyword = it.next();
+        if (keywords.contains(keyword.getKey()) && keyword.getValue().isNumber()) {
+          max = Math.max(max, keyword.getValue().asInt());
+        } else if (keyword.getValue().isContainerNode()) {
+          max = Math.max(max, maxLimit(keyword.getValue(), keywords));
+        }
+      }
+    } else if (schema.isArray()) {
+      for (JsonNode element : schema) {
+        max = Math.max(max, maxLimit(element, keywords));
+      }
+    }
+    return max;
+  }
+
+  /**
+   * A compiled input schema shared by all tools with the same schema.
+   */
+  public final class CompiledSchema {
+    private final JsonSchema schema;
+    private final boolean memoizable;
+    private final int lengthLimit;
+    private final int sizeLimit;
+    private final Map<String, List<String>> resultsByShape = new ConcurrentHashMap<>();
+
+    private CompiledSchema(JsonSchema schema, JsonNode node) {
+      this.schema = schema;
+      this.memoizable = isShapeOnly(node);
+      this.lengthLimit = maxLimit(node, Set.of("minLength", "maxLength"));
+      this.sizeLimit = maxLimit(node, Set.of("minItems", "maxItems", "minProperties", "maxProperties"));
+    }
+
+    /**
+     * Validate tool arguments.
+     *
+     * @param arguments The arguments of a tool call, may be missing
+     * @return Validation error messages, empty if the arguments are valid
+     */
+    public List<String> validate(@Nullable JsonNode arguments) {
+      JsonNode target = arguments == null || arguments.isMissingNode() || arguments.isNull() ? EMPTY_ARGUMENTS : arguments;
+      long start = System.nanoTime();
+
+      try {
+        if (!memoizable) {
+          return run(target);
+        }
+
+        String shape = shapeOf(target);
+        List<String> cached = resultsByShape.get(shape);
+        if (cached != null) {
+          memoizedResults.incrementAndGet();
+          return cached;
+        }
+
+        List<String> errors = run(target);
+        if (resultsByShape.size() < MAX_MEMOIZED_SHAPES && shape.length() <= MAX_SHAPE_LENGTH) {
+          resultsByShape.put(shape, errors);
+        }
+        return errors;
+
+      } finally {
+        validations.incrementAndGet();
+        validationNanos.addAndGet(System.nanoTime() - start);
+      }
+    }
+
+    private List<String> run(JsonNode arguments) {
+      Set<ValidationMessage> messages = schema.validate(arguments);
+      if (messages.isEmpty()) {
+        return List.of();
+      }
+
+      failedValidations.incrementAndGet();
+      logger.debug("Schema validation failed with {} errors", messages.size());
+      return messages.stream().map(ValidationMessage::getMessage).toList();
+    }
+
+    /**
+     * Describe the structure of a value: node types, property names, and string lengths and
+     * container sizes clamped just above the largest limit in the schema. Two values with the
+     * same shape always produce the same result for a shape-only schema.
+     */
+    private String shapeOf(JsonNode value) {
+      StringBuilder shape = new StringBuilder();
+      appendShape(shape, value);
+      return shape.toString();
+    }
+
+    private void appendShape(StringBuilder shape, JsonNode value) {
+      switch (value.getNodeType()) {
+        case OBJECT -> {
+          shape.append('{').append(Math.min(value.size(), sizeLimit + 1));
+          for (Iterator<Map.Entry<String, JsonNode>> it = value.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            shape.append(',').append(field.getKey().length()).append(':').append(field.getKey()).append('=');
+            appendShape(shape, field.getValue());
+          }
+          shape.append('}');
+        }
+        case ARRAY -> {
+          shape.append('[').append(Math.min(value.size(), sizeLimit + 1));
+          for (JsonNode element : value) {
+            shape.append(',');
+            appendShape(shape, element);
+          }
+          shape.append(']');
+        }
+        case STRING -> shape.append('s').append(Math.min(value.textValue().codePointCount(0, value.textValue().length()), lengthLimit + 1));
+        case NUMBER -> shape.append(value.isIntegralNumber() ? 'i' : value.asDouble() == Math.rint(value.asDouble()) ? 'f' : 'n');
+        case BOOLEAN -> shape.append('b');
+        case NULL -> shape.append('z');
+        default -> shape.append('?');
+      }
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.aversion.server.transport;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small pool of fixed-size direct byte buffers.
+ * <p>
+ * Transports borrow buffers for reading and encoding frames so that large messages
+ * are streamed through a bounded amount of memory instead of being copied into
+ * whole-message arrays.
+ */
+final class ByteBufferPool {
+
+  private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pooled = new AtomicInteger();
+  private final int bufferSize;
+  private final int maxPooled;
+
+  ByteBufferPool(int bufferSize, int maxPooled) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be positive");
+    }
+    this.bufferSize = bufferSize;
+    this.maxPooled = Math.max(0, maxPooled);
+  }
+
+  /**
+   * Borrow a cleared buffer, allocating a new one if the pool is empty.
+   *
+   * @return A buffer ready for writing
+   */
+  ByteBuffer acquire() {
+    ByteBuffer buffer = buffers.poll();
+    if (buffer == null) {
+      return ByteBuffer.allocateDirect(bufferSize);
+    }
+    pooled.decrementAndGet();
+    return buffer.clear();
+  }
+
+  /**
+   * Return a buffer to the pool. Buffers beyond the pool capacity are dropped.
+   *
+   * @param buffer The buffer to return
+   */
+  void release(ByteBuffer buffer) {
+    if (buffer == null || buffer.capacity() != bufferSize) {
+      return;
+    }
+
+    if (pooled.incrementAndGet() <= maxPooled) {
+      buffers.offer(buffer.clear());
+    } else {
+      pooled.decrementAndGet();
+    }
+  }
+
+  int bufferSize() {
+    return bufferSize;
+  }
+}
@@ -0,0 +1,348 @@
+package com.aversion.server.transport;
+
+import com.aversion.server.utils.ApplicationConfig;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Streaming byte-level transport for MCP server.
+ * <p>
+ * Reads JSON-RPC messages straight from a {@link ReadableByteChannel} into pooled byte buffers and
+ * feeds them to Jackson's non-blocking parser. Message boundaries are found from the token stream,
+ * so newline-delimited and back-to-back messages are both accepted, and a message is never
+ * turned into an intermediate {@code String} before it reaches the server.
+ */
+public class ChannelServerTransport implements ServerTransport {
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+  private static final byte NEWLINE = '\n';
+
+  private final ReadableByteChannel inputChannel;
+  private final WritableByteChannel outputChannel;
+  private final ByteBufferPool bufferPool;
+  private final ObjectMapper objectMapper;
+  private final long maxMessageSize;
+  private final ExecutorService writer;
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+  private Function<JsonNode, CompletableFuture<String>> messageHandler;
+  private Thread readerThread;
+  private volatile boolean running = false;
+
+  /**
+   * Create a transport bound to the process standard input and output.
+   */
+  public ChannelServerTransport() {
+    this(
+      new FileInputStream(FileDescriptor.in).getChannel(),
+      Channels.newChannel(new FileOutputStream(FileDescriptor.out))
+    );
+  }
+
+  /**
+   * Create a transport over arbitrary byte channels.
+   *
+   * @param inputChannel  Channel to read framed requests from
+   * @param outputChannel Channel to write responses to
+   */
+  public ChannelServerTransport(ReadableByteChannel inputChannel, WritableByteChannel outputChannel) {
+    this.inputChannel = inputChannel;
+    this.outputChannel = outputChannel;
+    this.bufferPool = new ByteBufferPool(
+      ApplicationConfig.getInt("transport.channel.buffer-size", 64 * 1024),
+      ApplicationConfig.getInt("transport.channel.pooled-buffers", 4)
+    );
+    this.maxMessageSize = ApplicationConfig.getLong("security.input-validation.max-request-size", 10L * 1024 * 1024);
+
+    JsonFactory jsonFactory = JsonFactory.builder()
+      .streamReadConstraints(StreamReadConstraints.builder()
+        .maxNestingDepth(ApplicationConfig.getInt("security.input-validation.max-json-depth", 20))
+        .maxStringLength((int) Math.min(Integer.MAX_VALUE, maxMessageSize))
+        .build())
+      .build();
+    this.objectMapper = new ObjectMapper(jsonFactory);
+
+    this.writer = Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, "channel-transport-writer");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  @Override
+  public void onMessage(Function<String, CompletableFuture<String>> handler) {
+    // Messages are delivered as parsed JSON trees through onJsonMessage
+  }
+
+  @Override
+  public void onJsonMessage(Function<JsonNode, CompletableFuture<String>> handler) {
+    this.messageHandler = handler;
+  }
+
+  @Override
+  public void start() {
+    if (running) {
+      throw new IllegalStateException("Transport is already running");
+    }
+
+    if (messageHandler == null) {
+      throw new IllegalStateException("Message handler must be set before starting");
+    }
+
+    running = true;
+
+    readerThread = new Thread(this::readLoop, "channel-transport-reader");
+    readerThread.setDaemon(true);
+    readerThread.start();
+
+    logger.info("Channel transport started");
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (readerThread != null) {
+      readerThread.interrupt();
+    }
+    writer.shutdown();
+    logger.info("Channel transport stopped");
+  }
+
+  @Override
+  public CompletableFuture<Void> sendMessage(String message) {
+    return CompletableFuture.runAsync(() -> {
+      try {
+        writeFrame(message);
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to write message", e);
+      }
+    }, writer);
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Encode a message through a pooled buffer, flushing to the channel whenever the buffer fills.
+   * Only ever called from the single writer thread.
+   */
+  private void writeFrame(String message) throws IOException {
+    ByteBuffer buffer = bufferPool.acquire();
+    try {
+      CharBuffer chars = CharBuffer.wrap(message);
+      encoder.reset();
+
+      CoderResult result;
+      do {
+        result = encoder.encode(chars, buffer, true);
+        if (result.isError()) {
+          result.throwException();
+        }
+        if (result.isOverflow()) {
+          drain(buffer);
+        }
+      } while (result.isOverflow());
+
+      while (encoder.flush(buffer).isOverflow()) {
+        drain(buffer);
+      }
+
+      if (!buffer.hasRemaining()) {
+        drain(buffer);
+      }
+      buffer.put(NEWLINE);
+      drain(buffer);
+    } finally {
+      bufferPool.release(buffer);
+    }
+  }
+
+  private void drain(ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      outputChannel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Main loop for reading framed messages from the input channel.
+   */
+  private void readLoop() {
+    ByteBuffer buffer = bufferPool.acquire();
+    FrameDecoder decoder = new FrameDecoder();
+
+    try {
+      while (running) {
+        buffer.clear();
+        int read = inputChannel.read(buffer);
+        if (read < 0) {
+          break;
+        }
+        if (read > 0) {
+          buffer.flip();
+          decoder.decode(buffer);
+        }
+      }
+    } catch (IOException e) {
+      if (running) {
+        logger.error("Error reading from input channel", e);
+      }
+    } finally {
+      bufferPool.release(buffer);
+      running = false;
+    }
+  }
+
+  private void dispatch(JsonNode message) {
+    messageHandler.apply(message)
+      .thenAccept(response -> {
+        if (response != null && !response.isEmpty()) {
+          sendMessage(response);
+        }
+      })
+      .exceptionally(throwable -> {
+        logger.error("Error processing message", throwable);
+        return null;
+      });
+  }
+
+  private void sendParseError(String reason) {
+    logger.warn("Discarding malformed message: {}", reason);
+    sendMessage("{\"jsonrpc\":\"2.0\",\"id\":null,\"error\":{\"code\":-32700,\"message\":\"Parse error\"}}");
+  }
+
+  /**
+   * Incremental decoder that turns the byte stream into one {@link JsonNode} per top-level value.
+   * <p>
+   * Tokens of the message in flight are buffered in a {@link TokenBuffer}; field names and string
+   * values are decoded once, directly from the input bytes. After a syntax error the decoder
+   * skips to the next newline and resumes with a fresh parser.
+   */
+  private final class FrameDecoder {
+    private JsonParser parser;
+    private ByteBufferFeeder feeder;
+    private long bytesFed;
+    private TokenBuffer message;
+    private long messageStart;
+    private int depth;
+    private boolean discarding;
+
+    FrameDecoder() {
+      resetParser();
+    }
+
+    void decode(ByteBuffer input) throws IOException {
+      if (discarding && !skipToNextLine(input, input.position())) {
+        return;
+      }
+
+      long fedBefore = bytesFed;
+      int basePosition = input.position();
+      bytesFed += input.remaining();
+      feeder.feedInput(input);
+
+      try {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+          if (message == null) {
+            message = new TokenBuffer(parser);
+            messageStart = parser.currentTokenLocation().getByteOffset();
+            depth = 0;
+          }
+
+          message.copyCurrentEvent(parser);
+
+          if (token.isStructStart()) {
+            depth++;
+          } else if (token.isStructEnd()) {
+            depth--;
+          }
+
+          if (parser.currentLocation().getByteOffset() - messageStart > maxMessageSize) {
+            throw new FrameTooLargeException();
+          }
+
+          if (depth == 0) {
+            JsonNode node = objectMapper.readTree(message.asParser());
+            message = null;
+            dispatch(node);
+          }
+        }
+      } catch (JsonProcessingException | FrameTooLargeException e) {
+        sendParseError(e.getMessage());
+        int errorPosition = (int) Math.min(
+          input.limit(),
+          basePosition + Math.max(0, parser.currentLocation().getByteOffset() - fedBefore)
+        );
+        resetParser();
+        bytesFed = 0;
+        if (skipToNextLine(input, errorPosition)) {
+          decode(input);
+        }
+      }
+    }
+
+    /**
+     * Skip input up to and including the next newline.
+     *
+     * @return true if a newline was found and {@code input} is positioned after it
+     */
+    private boolean skipToNextLine(ByteBuffer input, int from) {
+      for (int i = from; i < input.limit(); i++) {
+        if (input.get(i) == NEWLINE) {
+          input.position(i + 1);
+          discarding = false;
+          return input.hasRemaining();
+        }
+      }
+      discarding = true;
+      return false;
+    }
+
+    private void resetParser() {
+      try {
+        if (parser != null) {
+          parser.close();
+        }
+        parser = objectMapper.getFactory().createNonBlockingByteBufferParser();
+        feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        message = null;
+        depth = 0;
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to create non-blocking parser", e);
+      }
+    }
+  }
+
+  private static final class FrameTooLargeException extends IOException {
+    FrameTooLargeException() {
+      super("Message exceeds maximum request size");
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.aversion.server.transport;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
@@ -19,6 +21,19 @@ public interface ServerTransport {
    */
   void onMessage(Function<String, CompletableFuture<String>> handler);
 
+  /**
+   * Sets the handler for messages that the transport has already decoded into JSON trees.
+   * <p>
+   * Transports that parse frames directly from bytes use this handler so that a message is never
+   * materialized as an intermediate {@code String}. Line-based transports ignore it.
+   *
+   * @param handler A {@code Function} that takes a parsed message and returns a {@code CompletableFuture<String>}
+   *                representing the asynchronous processing of the message and its response.
+   */
+  default void onJsonMessage(Function<JsonNode, CompletableFuture<String>> handler) {
+    // Line-based transports deliver raw strings through onMessage
+  }
+
   /**
    * Start the transport layer.
    */
@@ -20,16 +20,17 @@ public class StdioServerTransport implements ServerTransport {
 
   private final BufferedReader inputReader;
   private final PrintWriter outputWriter;
-  private final ExecutorService executor;
+  private final ExecutorService writer;
 
   private Function<String, CompletableFuture<String>> messageHandler;
+  private Thread readerThread;
   private volatile boolean running = false;
 
   public StdioServerTransport() {
     this.inputReader = new BufferedReader(new InputStreamReader(System.in));
     this.outputWriter = new PrintWriter(System.out, true);
-    this.executor = Executors.newCachedThreadPool(r -> {
-      Thread t = new Thread(r, "stdio-transport");
+    this.writer = Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, "stdio-transport-writer");
       t.setDaemon(true);
       return t;
     });
@@ -53,7 +54,9 @@ public class StdioServerTransport implements ServerTransport {
     running = true;
 
     // Start reading from stdin
-    executor.submit(this::readLoop);
+    readerThread = new Thread(this::readLoop, "stdio-transport-reader");
+    readerThread.setDaemon(true);
+    readerThread.start();
 
     logger.info("Stdio transport started");
   }
@@ -61,18 +64,20 @@ public class StdioServerTransport implements ServerTransport {
   @Override
   public void stop() {
     running = false;
-    executor.shutdown();
+    if (readerThread != null) {
+      readerThread.interrupt();
+    }
+    writer.shutdown();
     logger.info("Stdio transport stopped");
   }
 
   @Override
   public CompletableFuture<Void> sendMessage(String message) {
+    // Writes are serialized by the single writer thread, so no lock is held around the stream
     return CompletableFuture.runAsync(() -> {
-      synchronized (outputWriter) {
-        outputWriter.println(message);
-        outputWriter.flush();
-      }
-    }, executor);
+      outputWriter.println(message);
+      outputWriter.flush();
+    }, writer);
   }
 
   @Override
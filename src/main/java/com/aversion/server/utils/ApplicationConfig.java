@@ -0,0 +1,130 @@
+package com.aversion.server.utils;
+
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only access to the settings in {@code application.yml}.
+ * <p>
+ * Nested keys are flattened to dotted paths (e.g. {@code performance.thread-pool.max-size}) and
+ * {@code ${VARIABLE:default}} placeholders are resolved against system properties first, then
+ * environment variables, then the inline default.
+ */
+public final class ApplicationConfig {
+
+  private static final com.aversion.server.utils.Logger logger = com.aversion.server.utils.Logger.getInstance();
+  private static final String CONFIG_RESOURCE = "/application.yml";
+  private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^:}]+)(?::([^}]*))?}");
+
+  private static final Map<String, String> values = load();
+
+  private ApplicationConfig() {
+    // Utility class should not be instantiated
+  }
+
+  /**
+   * Get a string setting.
+   *
+   * @param key          Dotted configuration key
+   * @param defaultValue Value to use if the key is missing or blank
+   * @return The resolved value
+   */
+  public static String getString(String key, String defaultValue) {
+    String value = values.get(key);
+    return value == null || value.isBlank() ? defaultValue : value.trim();
+  }
+
+  /**
+   * Get an integer setting.
+   *
+   * @param key          Dotted configuration key
+   * @param defaultValue Value to use if the key is missing or not a number
+   * @return The resolved value
+   */
+  public static int getInt(String key, int defaultValue) {
+    return (int) getLong(key, defaultValue);
+  }
+
+  /**
+   * Get a long setting.
+   *
+   * @param key          Dotted configuration key
+   * @param defaultValue Value to use if the key is missing or not a number
+   * @return The resolved value
+   */
+  public static long getLong(String key, long defaultValue) {
+    String value = getString(key, null);
+    if (value == null) {
+      return defaultValue;
+    }
+
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      logger.warn("Invalid numeric value for {}: {}", key, value);
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Get a boolean setting.
+   *
+   * @param key          Dotted configuration key
+   * @param defaultValue Value to use if the key is missing
+   * @return The resolved value
+   */
+  public static boolean getBoolean(String key, boolean defaultValue) {
+    String value = getString(key, null);
+    return value == null ? defaultValue : Boolean.parseBoolean(value);
+  }
+
+  private static Map<String, String> load() {
+    Map<String, String> flattened = new HashMap<>();
+
+    try (InputStream inputStream = ApplicationConfig.class.getResourceAsStream(CONFIG_RESOURCE)) {
+      if (inputStream == null) {
+        logger.warn("Configuration resource {} not found, using defaults", CONFIG_RESOURCE);
+        return flattened;
+      }
+
+      Object root = new Yaml().load(inputStream);
+      flatten("", root, flattened);
+    } catch (IOException | RuntimeException e) {
+      logger.error("Failed to load configuration, using defaults", e);
+    }
+
+    return flattened;
+  }
+
+  private static void flatten(String prefix, Object node, Map<String, String> target) {
+    if (node instanceof Map<?, ?> map) {
+      map.forEach((key, value) -> flatten(prefix.isEmpty() ? String.valueOf(key) : prefix + "." + key, value, target));
+    } else if (node != null) {
+      target.put(prefix, resolvePlaceholders(String.valueOf(node)));
+    }
+  }
+
+  private static String resolvePlaceholders(String value) {
+    Matcher matcher = PLACEHOLDER.matcher(value);
+    StringBuilder resolved = new StringBuilder();
+
+    while (matcher.find()) {
+      String variable = matcher.group(1);
+      String replacement = System.getProperty(variable, System.getenv(variable));
+      if (replacement == null) {
+        replacement = matcher.group(2) != null ? matcher.group(2) : "";
+      }
+      matcher.appendReplacement(resolved, Matcher.quoteReplacement(replacement));
+    }
+    matcher.appendTail(resolved);
+
+    return resolved.toString();
+  }
+
+}
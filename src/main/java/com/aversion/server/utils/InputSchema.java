@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -28,6 +29,21 @@ public record InputSchema(Map<String, Object> schema) implements Map<String, Obj
     }
   }
 
+  /**
+   * Build an unmodifiable map that keeps the order of its keys, as parsed schemas do.
+   * Used by generated tool registries to embed schemas as literals.
+   *
+   * @param keysAndValues Alternating keys and values
+   * @return The map
+   */
+  public static Map<String, Object> orderedMap(Object... keysAndValues) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+      map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return Collections.unmodifiableMap(map);
+  }
+
   public Map<String, Object> asMap() {
     return Collections.unmodifiableMap(schema);
   }
@@ -10,7 +10,6 @@ import org.slf4j.LoggerFactory;
  */
 public class Logger {
 
-  private static Logger instance;
   private final org.slf4j.Logger slf4jLogger;
 
   private Logger() {
@@ -22,10 +21,15 @@ public class Logger {
    *
    * @return The logger instance
    */
-  public static synchronized Logger getInstance() {
-    if (instance == null)
-      instance = new Logger();
-    return instance;
+  public static Logger getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Lazily initialized holder, so that callers never contend on a lock.
+   */
+  private static final class Holder {
+    private static final Logger INSTANCE = new Logger();
   }
 
   /**
@@ -6,11 +6,14 @@ import com.aversion.server.tools.ToolDefinition;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.BufferedReader;
-import java.io.InputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.net.URL;
 import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,11 +27,13 @@ import java.util.stream.Stream;
  */
 public class ReflectionUtil {
 
+  private static final Logger logger = Logger.getInstance();
   private static final Map<String, Class<?>> classCache = new ConcurrentHashMap<>();
 
   /**
    * Discovers and instantiates all modules extending {@link BaseModule} within the
-   * `com.aversion.server.modules` package.
+   * `com.aversion.server.modules` package and its subpackages. Modules with a tool whose input
+   * schema is missing are skipped with a warning, as they are left out of the generated registry.
    *
    * @return A set of instantiated {@link BaseModule} objects.
    * @throws RuntimeException if any module fails to instantiate.
@@ -38,6 +43,7 @@ public class ReflectionUtil {
 
     return classes.stream()
       .filter(BaseModule.class::isAssignableFrom)
+      .filter(clazz -> !java.lang.reflect.Modifier.isAbstract(clazz.getModifiers()))
       .map(clazz -> {
         try {
           return (BaseModule) clazz.getDeclaredConstructor().newInstance();
@@ -45,22 +51,55 @@ public class ReflectionUtil {
           throw new RuntimeException(String.format("Failed to instantiate module \"%s\"", clazz.getSimpleName()), e);
         }
       })
+      .filter(ReflectionUtil::hasToolSchemas)
       .collect(Collectors.toSet());
   }
 
   /**
-   * Scans a given package for all `.class` files and returns them as a set of {@link Class} objects.
+   * Checks that every tool of a module has an input schema resource, logging a warning otherwise.
+   *
+   * @param module The module to check.
+   * @return True if no schema is missing.
+   */
+  private static boolean hasToolSchemas(@NotNull BaseModule module) {
+    List<String> missing = getToolIds(module).stream()
+      .filter(name -> module.getClass().getResource("/tools/%s/%s.json".formatted(module.getId(), name)) == null)
+      .sorted()
+      .toList();
+    if (!missing.isEmpty()) {
+      logger.warn("Skipping module {}: input schema not found for tools {}", module.getClass().getName(), missing);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Scans a given package and its subpackages for all `.class` files and returns them as a set of
+   * {@link Class} objects. Every classpath directory containing the package is scanned.
    *
    * @param targetPackage The package to scan (e.g., "com.aversion.server.modules").
    * @return A set of {@link Class} objects found in the package.
+   * @throws RuntimeException if the package cannot be listed.
    */
   private static @NotNull Set<Class<?>> getClasses(String targetPackage) {
-    InputStream stream = ClassLoader.getSystemClassLoader().getResourceAsStream(targetPackage.replaceAll("\\.", "/"));
-    BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
-    return reader.lines()
-      .filter(line -> line.endsWith(".class"))
-      .map(clazz -> getClass(targetPackage, clazz))
-      .collect(Collectors.toSet());
+    Set<Class<?>> classes = new HashSet<>();
+    try {
+      Enumeration<URL> roots = ClassLoader.getSystemClassLoader().getResources(targetPackage.replaceAll("\\.", "/"));
+      while (roots.hasMoreElements()) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(roots.nextElement().openStream()))) {
+          reader.lines().forEach(line -> {
+            if (line.endsWith(".class")) {
+              classes.add(getClass(targetPackage, line));
+            } else if (!line.contains(".")) {
+              classes.addAll(getClasses(targetPackage + "." + line));
+            }
+          });
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(String.format("Failed to scan package \"%s\"", targetPackage), e);
+    }
+    return classes;
   }
 
   /**
@@ -1,10 +1,24 @@
 package com.aversion.server;
 
+import com.aversion.server.execution.Cancellation;
+import com.aversion.server.execution.RequestExecutor;
+import com.aversion.server.modules.ModuleManager;
+import com.aversion.server.modules.web.WebModule;
 import com.aversion.server.tools.Tool;
+import com.aversion.server.transport.ServerTransport;
+import com.aversion.server.utils.InputSchema;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -38,8 +52,8 @@ class AversionServerTest {
     Tool tool = new Tool(
       "test_tool",
       "Test tool",
-      new com.aversion.server.utils.InputSchema(java.util.Map.of("type", "object")),
-      (args) -> java.util.Map.of("result", "success")
+      new InputSchema(Map.of("type", "object")),
+      (args) -> Map.of("result", "success")
     );
 
     server.registerTool(tool);
@@ -54,12 +68,291 @@ class AversionServerTest {
     Tool tool = new Tool(
       "test_tool",
       "Test tool",
-      new com.aversion.server.utils.InputSchema(java.util.Map.of("type", "object")),
-      (args) -> java.util.Map.of("result", "success")
+      new InputSchema(Map.of("type", "object")),
+      (args) -> Map.of("result", "success")
     );
 
     server.registerTool(tool);
 
     assertThrows(IllegalArgumentException.class, () -> server.registerTool(tool));
   }
+
+  @Test
+  @DisplayName("Server should answer a JSON-RPC batch with a single array response")
+  void testBatchRequest() throws Exception {
+    server.registerTool(new Tool(
+      "echo_tool",
+      "Echo tool",
+      new InputSchema(Map.of("type", "object")),
+      (args) -> Map.of("echo", args.path("value").asText())
+    ));
+
+    CapturingTransport transport = new CapturingTransport();
+    server.connect(transport);
+
+    String batch = """
+      [
+        {"jsonrpc": "2.0", "id": 1, "method": "tools/call", "params": {"name": "echo_tool", "arguments": {"value": "a"}}},
+        {"jsonrpc": "2.0", "method": "tools/call", "params": {"name": "echo_tool", "arguments": {"value": "ignored"}}},
+        {"jsonrpc": "2.0", "id": 2, "method": "tools/call", "params": {"name": "echo_tool", "arguments": {"value": "b"}}}
+      ]
+      """;
+
+    JsonNode response = new ObjectMapper().readTree(transport.handler.apply(batch).get());
+
+    assertTrue(response.isArray());
+    assertEquals(2, response.size());
+    assertEquals(1, response.get(0).path("id").asInt());
+    assertEquals("a", response.get(0).path("result").path("echo").asText());
+    assertEquals(2, response.get(1).path("id").asInt());
+    assertEquals("b", response.get(1).path("result").path("echo").asText());
+  }
+
+  @Test
+  @DisplayName("Server should reuse the cached tools/list body while the tool set is unchanged")
+  void testToolsListCacheReused() throws Exception {
+    server.registerTool(createTool("first_tool"));
+
+    String first = server.getToolsListResult();
+
+    assertSame(first, server.getToolsListResult());
+  }
+
+  @Test
+  @DisplayName("Registering a tool should invalidate the cached tools/list body")
+  void testToolsListInvalidatedByRegisterTool() throws Exception {
+    CapturingTransport transport = new CapturingTransport();
+    server.connect(transport);
+    server.registerTool(createTool("first_tool"));
+    String cached = server.getToolsListResult();
+
+    server.registerTool(createTool("second_tool"));
+
+    assertNotSame(cached, server.getToolsListResult());
+    assertEquals(2, listTools(transport, "1").path("result").path("tools").size());
+  }
+
+  @Test
+  @DisplayName("Unregistering a tool should invalidate the cached tools/list body")
+  void testToolsListInvalidatedByUnregisterTool() throws Exception {
+    CapturingTransport transport = new CapturingTransport();
+    server.connect(transport);
+    server.registerTool(createTool("first_tool"));
+    server.registerTool(createTool("second_tool"));
+    assertEquals(2, listTools(transport, "1").path("result").path("tools").size());
+
+    assertTrue(server.unregisterTool("second_tool"));
+
+    JsonNode tools = listTools(transport, "2").path("result").path("tools");
+    assertEquals(1, tools.size());
+    assertEquals("first_tool", tools.get(0).path("name").asText());
+  }
+
+  @Test
+  @DisplayName("Unregistering a module should remove its tools from the cached tools/list body")
+  void testToolsListInvalidatedByUnregisterModule() throws Exception {
+    CapturingTransport transport = new CapturingTransport();
+    server.connect(transport);
+    ModuleManager moduleManager = new ModuleManager(server);
+    WebModule module = new WebModule();
+    moduleManager.registerModule(module);
+    int moduleTools = module.getTools().size();
+    assertTrue(moduleTools > 0);
+    assertEquals(moduleTools, listTools(transport, "1").path("result").path("tools").size());
+
+    assertTrue(moduleManager.unregisterModule(module.getConfig().name()));
+
+    assertEquals(0, listTools(transport, "2").path("result").path("tools").size());
+  }
+
+  @Test
+  @DisplayName("Cached tools/list responses should carry the request id")
+  void testToolsListSplicesRequestId() throws Exception {
+    CapturingTransport transport = new CapturingTransport();
+    server.connect(transport);
+    server.registerTool(createTool("first_tool"));
+
+    JsonNode numeric = listTools(transport, "42");
+    JsonNode string = listTools(transport, "\"req-\\\"7\\\"\"");
+
+    assertTrue(numeric.path("id").isNumber());
+    assertEquals(42, numeric.path("id").asInt());
+    assertTrue(string.path("id").isTextual());
+    assertEquals("req-\"7\"", string.path("id").asText());
+    assertEquals(numeric.path("result"), string.path("result"));
+  }
+
+  @Test
+  @DisplayName("Server should answer every element of a large batch")
+  void testLargeBatchRequest() throws Exception {
+    CapturingTransport transport = new CapturingTransport();
+    server.connect(transport);
+
+    StringBuilder batch = new StringBuilder("[");
+    for (int i = 0; i < 1000; i++) {
+      batch.append(i == 0 ? "" : ",").append(i);
+    }
+    batch.append(']');
+
+    JsonNode response = new ObjectMapper().readTree(transport.handler.apply(batch.toString()).get(5, TimeUnit.SECONDS));
+
+    assertTrue(response.isArray());
+    assertEquals(1000, response.size());
+    assertEquals(-32600, response.get(999).path("error").path("code").asInt());
+  }
+
+  @Test
+  @DisplayName("Server should reject a batch larger than the configured limit")
+  void testOversizedBatchRequest() throws Exception {
+    CapturingTransport transport = new CapturingTransport();
+    server.connect(transport);
+
+    StringBuilder batch = new StringBuilder("[");
+    for (int i = 0; i < 1001; i++) {
+      batch.append(i == 0 ? "" : ",").append("{\"jsonrpc\": \"2.0\", \"id\": ").append(i).append(", \"method\": \"tools/list\"}");
+    }
+    batch.append(']');
+
+    JsonNode response = new ObjectMapper().readTree(transport.handler.apply(batch.toString()).get(5, TimeUnit.SECONDS));
+
+    assertTrue(response.isObject());
+    assertEquals(-32600, response.path("error").path("code").asInt());
+  }
+
+  @Test
+  @DisplayName("Server should not run a batch request that repeats an earlier id")
+  void testBatchDuplicateIds() throws Exception {
+    CountDownLatch calls = new CountDownLatch(2);
+    server.registerTool(new Tool(
+      "echo_tool",
+      "Echoes its input",
+      new InputSchema(Map.of("type", "object")),
+      (args) -> {
+        calls.countDown();
+        return Map.of("echo", args.path("value").asText());
+      }
+    ));
+
+    CapturingTransport transport = new CapturingTransport();
+    server.connect(transport);
+
+    String batch = """
+      [
+        {"jsonrpc": "2.0", "id": 1, "method": "tools/call", "params": {"name": "echo_tool", "arguments": {"value": "a"}}},
+        {"jsonrpc": "2.0", "id": 1, "method": "tools/call", "params": {"name": "echo_tool", "arguments": {"value": "b"}}}
+      ]
+      """;
+
+    JsonNode response = new ObjectMapper().readTree(transport.handler.apply(batch).get(5, TimeUnit.SECONDS));
+
+    assertEquals(2, response.size());
+    assertEquals("a", response.get(0).path("result").path("echo").asText());
+    assertEquals(1, response.get(1).path("id").asInt());
+    assertEquals(-32600, response.get(1).path("error").path("code").asInt());
+    assertEquals(1, calls.getCount());
+  }
+
+  @Test
+  @DisplayName("Server should cancel a running tool call on $/cancelRequest")
+  void testCancelRequest() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch cancelled = new CountDownLatch(1);
+    server.registerTool(new Tool(
+      "blocking_tool",
+      "Blocks until cancelled",
+      new InputSchema(Map.of("type", "object")),
+      (args) -> {
+        try (Cancellation.Scope ignored = Cancellation.current().onCancel(cancelled::countDown)) {
+          started.countDown();
+          cancelled.await(5, TimeUnit.SECONDS);
+        }
+        return Map.of("result", "finished");
+      }
+    ));
+
+    CapturingTransport transport = new CapturingTransport();
+    server.connect(transport);
+
+    CompletableFuture<String> call = transport.handler.apply(
+      "{\"jsonrpc\": \"2.0\", \"id\": 7, \"method\": \"tools/call\", \"params\": {\"name\": \"blocking_tool\", \"arguments\": {}}}");
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    String ack = transport.handler.apply("{\"jsonrpc\": \"2.0\", \"method\": \"$/cancelRequest\", \"params\": {\"id\": 7}}").get();
+    JsonNode response = new ObjectMapper().readTree(call.get(5, TimeUnit.SECONDS));
+
+    assertNull(ack);
+    assertEquals(7, response.path("id").asInt());
+    assertEquals(-32800, response.path("error").path("code").asInt());
+    assertEquals(1L, server.getMetrics().get("cancelledRequests"));
+  }
+
+  @Test
+  @DisplayName("Server should answer with -32001 when the request executor is saturated")
+  void testServerBusy() throws Exception {
+    server = new AversionServer("test-server", "1.0.0", RequestExecutor.platform(1, 0, 60, 8));
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    server.registerTool(new Tool(
+      "blocking_tool",
+      "Blocks until released",
+      new InputSchema(Map.of("type", "object")),
+      (args) -> {
+        started.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        return Map.of("result", "finished");
+      }
+    ));
+
+    CapturingTransport transport = new CapturingTransport();
+    server.connect(transport);
+
+    CompletableFuture<String> running = transport.handler.apply(
+      "{\"jsonrpc\": \"2.0\", \"id\": 1, \"method\": \"tools/call\", \"params\": {\"name\": \"blocking_tool\", \"arguments\": {}}}");
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    JsonNode busy = new ObjectMapper().readTree(transport.handler.apply(
+      "{\"jsonrpc\": \"2.0\", \"id\": 2, \"method\": \"tools/call\", \"params\": {\"name\": \"blocking_tool\", \"arguments\": {}}}")
+      .get(5, TimeUnit.SECONDS));
+    release.countDown();
+
+    assertEquals(2, busy.path("id").asInt());
+    assertEquals(-32001, busy.path("error").path("code").asInt());
+    assertEquals(1, new ObjectMapper().readTree(running.get(5, TimeUnit.SECONDS)).path("id").asInt());
+  }
+
+  private static Tool createTool(String name) {
+    return new Tool(name, "A test tool", new InputSchema(Map.of("type", "object")), (args) -> Map.of("result", "success"));
+  }
+
+  private static JsonNode listTools(CapturingTransport transport, String idJson) throws Exception {
+    String request = "{\"jsonrpc\": \"2.0\", \"id\": " + idJson + ", \"method\": \"tools/list\"}";
+    return new ObjectMapper().readTree(transport.handler.apply(request).get(5, TimeUnit.SECONDS));
+  }
+
+  private static final class CapturingTransport implements ServerTransport {
+    private Function<String, CompletableFuture<String>> handler;
+
+    @Override
+    public void onMessage(Function<String, CompletableFuture<String>> handler) {
+      this.handler = handler;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public CompletableFuture<Void> sendMessage(String message) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public boolean isRunning() {
+      return true;
+    }
+  }
 }
@@ -0,0 +1,151 @@
+package com.aversion.server.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for request admission and per-lane concurrency limits.
+ */
+class RequestExecutorTest {
+
+  private static final String LANE = "test-lane";
+
+  private RequestExecutor executor;
+
+  @AfterEach
+  void tearDown() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Executor should reject requests beyond its admission capacity")
+  void testAdmissionLimit() throws Exception {
+    executor = RequestExecutor.platform(1, 1, 60, 8);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<String> running = executor.submit(LANE, () -> await(release, "running"));
+    CompletableFuture<String> waiting = executor.submit(LANE, () -> await(release, "waiting"));
+    CompletableFuture<String> rejected = executor.submit(LANE, () -> "rejected");
+
+    ExecutionException error = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(ServerBusyException.class, error.getCause());
+    assertEquals(2, executor.getMetrics().get("inFlight"));
+    assertEquals(1L, executor.getMetrics().get("rejectedRequests"));
+
+    release.countDown();
+    assertEquals("running", running.get(5, TimeUnit.SECONDS));
+    assertEquals("waiting", waiting.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @DisplayName("Executor should run at most the lane limit of requests at once")
+  @SuppressWarnings("unchecked")
+  void testLaneLimit() throws Exception {
+    executor = RequestExecutor.virtual(100, 2);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(2);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+
+    List<CompletableFuture<Integer>> calls = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      calls.add(executor.submit(LANE, () -> {
+        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+        started.countDown();
+        await(release, null);
+        return running.getAndDecrement();
+      }));
+    }
+
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    Map<String, Object> lane = (Map<String, Object>) ((Map<String, Object>) executor.getMetrics().get("lanes")).get(LANE);
+    assertEquals(2, lane.get("limit"));
+    assertEquals(2, lane.get("active"));
+    assertEquals(3, lane.get("waiting"));
+
+    release.countDown();
+    CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+    assertEquals(2, peak.get());
+  }
+
+  @Test
+  @DisplayName("Executor should start waiting requests of a lane in submission order")
+  void testLaneDrainsInOrder() throws Exception {
+    executor = RequestExecutor.virtual(100, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+    CompletableFuture<String> blocker = executor.submit(LANE, () -> await(release, "blocker"));
+    List<CompletableFuture<Boolean>> calls = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      int index = i;
+      calls.add(executor.submit(LANE, () -> order.add(index)));
+    }
+
+    assertTrue(order.isEmpty());
+    release.countDown();
+    blocker.get(5, TimeUnit.SECONDS);
+    CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), order);
+  }
+
+  @Test
+  @DisplayName("Lanes should not limit each other")
+  void testLanesAreIndependent() throws Exception {
+    executor = RequestExecutor.virtual(100, 1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<String> blocked = executor.submit(LANE, () -> await(release, "blocked"));
+
+    assertEquals("other", executor.submit("other-lane", () -> "other").get(5, TimeUnit.SECONDS));
+    assertFalse(blocked.isDone());
+    release.countDown();
+    assertEquals("blocked", blocked.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @DisplayName("Virtual mode should run more blocking calls per module than the platform lane limits")
+  void testVirtualModeRunsManyBlockingCalls() throws Exception {
+    executor = new RequestExecutor(RequestExecutor.Mode.VIRTUAL);
+    int calls = 32;
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(calls);
+
+    List<CompletableFuture<String>> futures = new ArrayList<>();
+    for (int i = 0; i < calls; i++) {
+      futures.add(executor.submit("web", () -> {
+        started.countDown();
+        return await(release, "done");
+      }));
+    }
+
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    release.countDown();
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+  }
+
+  private static <T> T await(CountDownLatch latch, T result) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return result;
+  }
+}
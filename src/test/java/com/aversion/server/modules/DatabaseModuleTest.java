@@ -1,7 +1,10 @@
 package com.aversion.server.modules;
 
 import com.aversion.server.AversionServer;
+import com.aversion.server.modules.database.DatabaseConnectionManager;
 import com.aversion.server.modules.database.DatabaseModule;
+import com.aversion.server.modules.database.QueryResult;
+import com.aversion.server.modules.database.QueryResultCache;
 import com.aversion.server.tools.Tool;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -13,10 +16,16 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -101,6 +110,28 @@ class DatabaseModuleTest {
     executeToolDirectly("execute_query", args);
   }
 
+  /**
+   * Connections of a database connection's writer and reader pools that are currently checked out.
+   */
+  @SuppressWarnings("unchecked")
+  private int activeConnections(String connectionId) {
+    Map<String, Object> connections = (Map<String, Object>) module.getConnectionManager().getMetrics().get("connections");
+    Map<String, Object> pool = (Map<String, Object>) connections.get(connectionId);
+    int active = (Integer) pool.getOrDefault("activeConnections", 0);
+    if (pool.get("reader") instanceof Map<?, ?> reader) {
+      active += (Integer) ((Map<String, Object>) reader).getOrDefault("activeConnections", 0);
+    }
+    return active;
+  }
+
+  private void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "Condition not met within 5 seconds");
+      Thread.sleep(10);
+    }
+  }
+
   private String extractTextContent(Map<String, Object> result) {
     @SuppressWarnings("unchecked")
     List<Map<String, Object>> content = (List<Map<String, Object>>) result.get("content");
@@ -159,9 +190,137 @@ class DatabaseModuleTest {
       executeToolDirectly("connect_database", args);
 
       // Then - second connection should fail
-      RuntimeException exception = assertThrows(RuntimeException.class, () -> executeToolDirectly("connect_database", args));
-      assertInstanceOf(IllegalArgumentException.class, exception.getCause());
-      assertTrue(exception.getCause().getMessage().contains("already exists"));
+      Map<String, Object> result = executeToolDirectly("connect_database", args);
+      assertTrue((Boolean) result.get("isError"));
+      assertTrue(extractTextContent(result).contains("already exists"));
+    }
+
+    @Test
+    void shouldSplitSQLiteWriterAndReaderPools(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      JsonNode args = createConnectArgs("pool-test", Map.of(
+        "type", "sqlite",
+        "file", dbFile.toString(),
+        "pool", Map.of("readerPoolSize", 2)
+      ));
+
+      // When
+      executeToolDirectly("connect_database", args);
+      Map<String, Object> content = extractDataContent(executeToolDirectly("get_database_metrics", objectMapper.createObjectNode()));
+
+      // Then
+      @SuppressWarnings("unchecked")
+      Map<String, Object> pool = (Map<String, Object>) ((Map<String, Object>) content.get("connections")).get("pool-test");
+      @SuppressWarnings("unchecked")
+      Map<String, Object> reader = (Map<String, Object>) pool.get("reader");
+      assertEquals(1, ((Number) pool.get("maximumPoolSize")).intValue());
+      assertEquals(2, ((Number) reader.get("maximumPoolSize")).intValue());
+    }
+
+    @Test
+    void shouldRouteReadsToHealthyReplica(@TempDir Path tempDir) throws Exception {
+      // Given: replica files standing in for a replicated database, one of them lagging
+      Path primaryFile = tempDir.resolve("primary.db");
+      Path replicaFile = tempDir.resolve("replica.db");
+      Path laggingFile = tempDir.resolve("lagging.db");
+      for (Path file : List.of(replicaFile, laggingFile)) {
+        executeToolDirectly("connect_database", createConnectArgs("setup", Map.of("type", "sqlite", "file", file.toString())));
+        executeTestQuery("setup", "CREATE TABLE users (id INTEGER PRIMARY KEY, name TEXT)");
+        executeTestQuery("setup", "INSERT INTO users VALUES (1, 'Replica User')");
+        executeTestQuery("setup", "CREATE TABLE heartbeat (lag_ms INTEGER)");
+        executeTestQuery("setup", "INSERT INTO heartbeat VALUES (" + (file == laggingFile ? 60000 : 0) + ")");
+        executeToolDirectly("disconnect_database", objectMapper.createObjectNode().put("connectionId", "setup"));
+      }
+
+      executeToolDirectly("connect_database", createConnectArgs("routed", Map.of(
+        "type", "sqlite",
+        "file", primaryFile.toString(),
+        "replicas", Map.of("endpoints", List.of(replicaFile.toString()), "lagQuery", "SELECT lag_ms FROM heartbeat")
+      )));
+      executeToolDirectly("connect_database", createConnectArgs("lagging", Map.of(
+        "type", "sqlite",
+        "file", primaryFile.toString(),
+        "replicas", Map.of("endpoints", List.of(laggingFile.toString()), "lagQuery", "SELECT lag_ms FROM heartbeat", "maxLagMs", 1000)
+      )));
+      executeTestQuery("routed", "CREATE TABLE users (id INTEGER PRIMARY KEY, name TEXT)");
+      executeTestQuery("routed", "INSERT INTO users VALUES (1, 'Primary User')");
+
+      // When
+      QueryResult replicaRead = module.getConnectionManager().executeQuery("routed", "SELECT name FROM users", List.of(), 10);
+      QueryResult fallbackRead = module.getConnectionManager().executeQuery("lagging", "SELECT name FROM users", List.of(), 10);
+      Map<String, Object> primaryRead = executeToolDirectly("execute_query", objectMapper.createObjectNode()
+        .put("connectionId", "routed")
+        .put("query", "SELECT name FROM users")
+        .put("primary", true));
+      Map<String, Object> metrics = extractDataContent(executeToolDirectly("get_database_metrics", objectMapper.createObjectNode()));
+
+      // Then
+      assertEquals("Replica User", replicaRead.rows().getFirst().get("name"));
+      assertEquals("Primary User", fallbackRead.rows().getFirst().get("name"));
+      assertTrue(extractTextContent(primaryRead).contains("Primary User"));
+      assertFalse(QueryResultCache.isReadOnly("SELECT * INTO users_archive FROM users"));
+      assertFalse(QueryResultCache.isReadOnly("SELECT nextval('users_id_seq')"));
+      assertFalse(QueryResultCache.isReadOnly("SELECT pg_advisory_lock(42)"));
+
+      @SuppressWarnings("unchecked")
+      Map<String, Object> lagging = (Map<String, Object>) ((Map<String, Object>) metrics.get("connections")).get("lagging");
+      @SuppressWarnings("unchecked")
+      Map<String, Object> replica = ((List<Map<String, Object>>) lagging.get("replicas")).getFirst();
+      assertEquals(false, replica.get("healthy"));
+      assertEquals(60000, ((Number) replica.get("lagMs")).intValue());
+    }
+
+    @Test
+    void shouldCreateLazyPoolOnFirstUse(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("lazy.db");
+      Map<String, Object> result = executeToolDirectly("connect_database", createConnectArgs("lazy-test", Map.of(
+        "type", "sqlite",
+        "file", dbFile.toString(),
+        "pool", Map.of("lazy", true, "warmUpQueries", List.of("SELECT 1"))
+      )));
+      Map<String, Object> pending = extractDataContent(executeToolDirectly("get_database_metrics", objectMapper.createObjectNode()));
+
+      // When
+      executeTestQuery("lazy-test", "CREATE TABLE items (id INTEGER PRIMARY KEY)");
+      Map<String, Object> metrics = extractDataContent(executeToolDirectly("get_database_metrics", objectMapper.createObjectNode()));
+
+      // Then
+      assertTrue(extractTextContent(result).contains("connecting on first use"));
+      assertEquals(1, ((Number) pending.get("pendingConnections")).intValue());
+      assertEquals(0, ((Number) metrics.get("pendingConnections")).intValue());
+
+      @SuppressWarnings("unchecked")
+      Map<String, Object> startup = (Map<String, Object>) ((Map<String, Object>) metrics.get("startup")).get("lazy-test");
+      assertEquals("lazy", startup.get("mode"));
+      assertTrue(startup.containsKey("timeToFirstQueryMs"));
+      @SuppressWarnings("unchecked")
+      Map<String, Object> timeToFirstQuery = (Map<String, Object>) metrics.get("timeToFirstQuery");
+      assertEquals(1, ((Number) timeToFirstQuery.get("count")).intValue());
+    }
+
+    @Test
+    void shouldApplySQLiteProfile(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      executeToolDirectly("connect_database", createConnectArgs("profile-test", Map.of(
+        "type", "sqlite",
+        "file", dbFile.toString(),
+        "journalMode", "WAL",
+        "busyTimeout", 1234
+      )));
+
+      ObjectNode args = objectMapper.createObjectNode()
+        .put("connectionId", "profile-test")
+        .put("query", "PRAGMA journal_mode");
+
+      // When
+      Map<String, Object> result = executeToolDirectly("execute_query", args);
+
+      // Then
+      assertFalse((Boolean) result.get("isError"));
+      assertTrue(extractTextContent(result).toLowerCase().contains("wal"));
     }
 
     @Test
@@ -173,9 +332,11 @@ class DatabaseModuleTest {
       ));
 
       // When
-      RuntimeException exception = assertThrows(RuntimeException.class, () -> executeToolDirectly("connect_database", args));
-      assertInstanceOf(IllegalArgumentException.class, exception.getCause());
-      assertTrue(exception.getCause().getMessage().contains("does not match the regex pattern"));
+      Map<String, Object> result = executeToolDirectly("connect_database", args);
+
+      // Then
+      assertTrue((Boolean) result.get("isError"));
+      assertTrue(extractTextContent(result).contains("does not match the regex pattern"));
     }
   }
 
@@ -250,6 +411,294 @@ class DatabaseModuleTest {
       assertEquals(5, content.get("rowCount"));
     }
 
+    @Test
+    void shouldReturnColumnarResult(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabaseWithManyRows(dbFile);
+
+      JsonNode args = objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("query", "SELECT id, name FROM users ORDER BY id")
+        .put("format", "columnar")
+        .put("limit", 5);
+
+      // When
+      Map<String, Object> result = executeToolDirectly("execute_query", args);
+
+      // Then
+      assertFalse((Boolean) result.get("isError"));
+      Map<String, Object> content = extractDataContent(result);
+      assertEquals(5, content.get("rowCount"));
+      assertEquals(List.of("id", "name"), content.get("columns"));
+      assertEquals(List.of(List.of(1, 2, 3, 4, 5), List.of("Test User", "User 2", "User 3", "User 4", "User 5")),
+        content.get("data"));
+    }
+
+    @Test
+    void shouldInvalidateCachedResultOnWrite(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabase(dbFile);
+
+      JsonNode selectArgs = objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("query", "SELECT * FROM users")
+        .put("cache", true);
+      executeToolDirectly("execute_query", selectArgs);
+      Map<String, Object> cached = extractDataContent(executeToolDirectly("execute_query", selectArgs));
+
+      // When
+      ObjectNode insertArgs = objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("tableName", "users");
+      insertArgs.putObject("data").put("id", 2).put("name", "Second User");
+      executeToolDirectly("insert_data", insertArgs);
+
+      Map<String, Object> afterWrite = extractDataContent(executeToolDirectly("execute_query", selectArgs));
+
+      // Then
+      assertEquals(1, cached.get("rowCount"));
+      assertEquals(2, afterWrite.get("rowCount"));
+    }
+
+    @Test
+    void shouldExecuteQueryAsynchronously(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabase(dbFile);
+
+      // When
+      QueryResult result = module.getConnectionManager()
+        .executeQueryAsync("test-conn", "SELECT * FROM users WHERE id = ?", List.of(1), 10, Duration.ofSeconds(5))
+        .get(5, TimeUnit.SECONDS);
+
+      // Then
+      assertEquals(1, result.rowCount());
+      assertEquals("Test User", result.rows().getFirst().get("name"));
+    }
+
+    @Test
+    void shouldCancelRunningAsyncQuery(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabase(dbFile);
+      DatabaseConnectionManager manager = module.getConnectionManager();
+      String endlessQuery = "WITH RECURSIVE counter(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM counter) SELECT count(*) FROM counter";
+
+      // When
+      CompletableFuture<QueryResult> future = manager.executeQueryAsync("test-conn", endlessQuery, List.of(), 10, null);
+      awaitCondition(() -> activeConnections("test-conn") == 1);
+      assertTrue(future.cancel(true));
+
+      // Then
+      assertThrows(CancellationException.class, () -> future.get(5, TimeUnit.SECONDS));
+      awaitCondition(() -> activeConnections("test-conn") == 0);
+      awaitCondition(() -> manager.getMetrics().get("cancelledQueries").equals(1L));
+      @SuppressWarnings("unchecked")
+      Map<String, Object> async = (Map<String, Object>) manager.getMetrics().get("async");
+      assertEquals(1L, async.get("cancelledTasks"));
+    }
+
+    @Test
+    void shouldPageThroughQueryCursor(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabaseWithManyRows(dbFile);
+
+      JsonNode args = objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("query", "SELECT * FROM users ORDER BY id")
+        .put("cursor", true)
+        .put("pageSize", 8);
+
+      // When
+      Map<String, Object> firstPage = extractDataContent(executeToolDirectly("execute_query", args));
+
+      JsonNode fetchArgs = objectMapper.createObjectNode()
+        .put("cursorId", (String) firstPage.get("cursorId"))
+        .put("pageSize", 8);
+      Map<String, Object> secondPage = extractDataContent(executeToolDirectly("fetch_next", fetchArgs));
+      Map<String, Object> lastPage = extractDataContent(executeToolDirectly("fetch_next", fetchArgs));
+
+      // Then
+      assertEquals(8, firstPage.get("rowCount"));
+      assertEquals(true, firstPage.get("hasMore"));
+      assertEquals(8, secondPage.get("offset"));
+      assertEquals(4, lastPage.get("rowCount"));
+      assertEquals(false, lastPage.get("hasMore"));
+      assertNull(lastPage.get("cursorId"));
+
+      Map<String, Object> expired = executeToolDirectly("fetch_next", fetchArgs);
+      assertTrue((Boolean) expired.get("isError"));
+    }
+
+    @Test
+    void shouldLimitOpenCursorsBelowPoolSize(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabaseWithManyRows(dbFile);
+
+      JsonNode args = objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("query", "SELECT * FROM users ORDER BY id")
+        .put("cursor", true)
+        .put("pageSize", 1);
+
+      // When
+      List<String> cursorIds = new ArrayList<>();
+      Map<String, Object> rejected = null;
+      for (int i = 0; i < 10 && rejected == null; i++) {
+        Map<String, Object> result = executeToolDirectly("execute_query", args);
+        if (Boolean.TRUE.equals(result.get("isError"))) {
+          rejected = result;
+        } else {
+          cursorIds.add((String) extractDataContent(result).get("cursorId"));
+        }
+      }
+
+      // Then
+      assertNotNull(rejected);
+      assertTrue(extractTextContent(rejected).contains("Too many open cursors on connection"));
+      assertFalse(cursorIds.isEmpty());
+
+      JsonNode closeArgs = objectMapper.createObjectNode().put("cursorId", cursorIds.getFirst());
+      executeToolDirectly("close_cursor", closeArgs);
+      Map<String, Object> reopened = executeToolDirectly("execute_query", args);
+      assertNotEquals(Boolean.TRUE, reopened.get("isError"));
+    }
+
+    @Test
+    void shouldRejectCursorsOnSingleConnectionPool(@TempDir Path tempDir) throws Exception {
+      // Given: without a reader pool the single writer connection serves every statement
+      executeToolDirectly("connect_database", createConnectArgs("single-conn", Map.of(
+        "type", "sqlite",
+        "file", tempDir.resolve("single.db").toString(),
+        "pool", Map.of("readerPoolSize", 0)
+      )));
+      executeTestQuery("single-conn", "CREATE TABLE users (id INTEGER PRIMARY KEY, name TEXT)");
+      executeTestQuery("single-conn", "INSERT INTO users VALUES (1, 'Test User')");
+
+      // When
+      Map<String, Object> result = executeToolDirectly("execute_query", objectMapper.createObjectNode()
+        .put("connectionId", "single-conn")
+        .put("query", "SELECT * FROM users")
+        .put("cursor", true));
+      QueryResult query = module.getConnectionManager().executeQuery("single-conn", "SELECT name FROM users", List.of(), 10);
+
+      // Then
+      assertTrue((Boolean) result.get("isError"));
+      assertTrue(extractTextContent(result).contains("Cursors are not available on connection 'single-conn'"));
+      assertEquals("Test User", query.rows().getFirst().get("name"));
+      assertEquals(0, activeConnections("single-conn"));
+    }
+
+    @Test
+    void shouldExportQueryToFile(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabaseWithManyRows(dbFile);
+      Path csvFile = tempDir.resolve("users.csv");
+      Path ndjsonFile = tempDir.resolve("users.ndjson");
+
+      // When
+      Map<String, Object> csv = extractDataContent(executeToolDirectly("export_query", objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("query", "SELECT id, name FROM users ORDER BY id")
+        .put("path", csvFile.toString())));
+      Map<String, Object> ndjson = extractDataContent(executeToolDirectly("export_query", objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("query", "SELECT id, name FROM users ORDER BY id")
+        .put("path", ndjsonFile.toString())
+        .put("format", "ndjson")));
+      Map<String, Object> existing = executeToolDirectly("export_query", objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("query", "SELECT id FROM users")
+        .put("path", csvFile.toString()));
+
+      // Then
+      assertEquals(20, ((Number) csv.get("rows")).intValue());
+      assertEquals(Files.size(csvFile), ((Number) csv.get("bytes")).longValue());
+      List<String> lines = Files.readAllLines(csvFile);
+      assertEquals(21, lines.size());
+      assertEquals("id,name", lines.getFirst());
+
+      assertEquals(20, ((Number) ndjson.get("rows")).intValue());
+      JsonNode firstRow = objectMapper.readTree(Files.readAllLines(ndjsonFile).getFirst());
+      assertEquals(1, firstRow.get("id").asInt());
+
+      assertTrue((Boolean) existing.get("isError"));
+      assertEquals(21, Files.readAllLines(csvFile).size());
+    }
+
+    @Test
+    void shouldImportFileIntoTable(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabase(dbFile);
+      Path csvFile = tempDir.resolve("users.csv");
+      Files.writeString(csvFile, "id,name,email\n2,\"Doe, Jane\",jane@example.com\n3,\"Multi\nLine\",\n4,Plain,plain@example.com\n");
+      Path ndjsonFile = tempDir.resolve("users.ndjson");
+      Files.writeString(ndjsonFile, "{\"userId\":5,\"fullName\":\"Json User\"}\n\n{\"userId\":6,\"fullName\":\"Other\"}\n");
+
+      // When
+      Map<String, Object> csv = extractDataContent(executeToolDirectly("import_file", objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("tableName", "users")
+        .put("path", csvFile.toString())
+        .put("batchSize", 2)
+        .put("commitInterval", 2)));
+      ObjectNode ndjsonArgs = objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("tableName", "users")
+        .put("path", ndjsonFile.toString());
+      ndjsonArgs.putObject("mapping").put("userId", "id").put("fullName", "name");
+      Map<String, Object> ndjson = extractDataContent(executeToolDirectly("import_file", ndjsonArgs));
+
+      // Then
+      assertEquals(3, ((Number) csv.get("rows")).intValue());
+      assertEquals(2, ((Number) csv.get("commits")).intValue());
+      assertTrue(csv.containsKey("rowsPerSecond"));
+      assertEquals(2, ((Number) ndjson.get("rows")).intValue());
+
+      QueryResult result = module.getConnectionManager()
+        .executeQuery("test-conn", "SELECT * FROM users ORDER BY id", List.of(), 10);
+      assertEquals(6, result.rowCount());
+      assertEquals("Doe, Jane", result.rows().get(1).get("name"));
+      assertEquals("Multi\nLine", result.rows().get(2).get("name"));
+      assertNull(result.rows().get(2).get("email"));
+      assertEquals("Json User", result.rows().get(4).get("name"));
+    }
+
+    @Test
+    void shouldExecuteIndependentStatementsInParallel(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabase(dbFile);
+      ObjectNode args = objectMapper.createObjectNode().put("connectionId", "test-conn");
+      ArrayNode queries = args.putArray("queries");
+      queries.addObject().put("query", "SELECT COUNT(*) AS total FROM users");
+      queries.addObject().put("query", "SELECT * FROM missing_table");
+      queries.addObject().put("query", "SELECT name FROM users WHERE id = ?").putArray("params").add(1);
+
+      // When
+      Map<String, Object> response = extractDataContent(executeToolDirectly("execute_parallel", args));
+
+      // Then
+      assertEquals(3, ((Number) response.get("queryCount")).intValue());
+      assertEquals(1, ((Number) response.get("failed")).intValue());
+      assertTrue(((Number) response.get("concurrency")).intValue() >= 1);
+
+      @SuppressWarnings("unchecked")
+      List<Map<String, Object>> results = (List<Map<String, Object>>) response.get("results");
+      assertEquals(true, results.get(0).get("success"));
+      assertEquals(1, ((Number) results.get(0).get("rowCount")).intValue());
+      assertEquals(false, results.get(1).get("success"));
+      assertTrue(results.get(1).containsKey("error"));
+      assertEquals(true, results.get(2).get("success"));
+      assertTrue(results.get(2).containsKey("durationMs"));
+    }
+
     @Test
     void shouldValidateQueryParameters() throws Exception {
       // Given
@@ -338,9 +787,42 @@ class DatabaseModuleTest {
       Map<String, Object> result = executeToolDirectly("execute_transaction", args);
 
       // Then
-      RuntimeException exception = assertThrows(RuntimeException.class, () -> executeToolDirectly("execute_transaction", args));
-      assertInstanceOf(SQLException.class, exception.getCause());
-      assertTrue(exception.getCause().getMessage().contains("Database operation failed"));
+      assertTrue((Boolean) result.get("isError"));
+      assertTrue(extractTextContent(result).contains("Database operation failed"));
+    }
+
+    @Test
+    void shouldBulkInsertRowsInBatches(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabase(dbFile);
+
+      ObjectNode args = objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("tableName", "users")
+        .put("batchSize", 4);
+      ArrayNode rows = args.putArray("rows");
+      for (int i = 2; i <= 11; i++) {
+        ObjectNode row = rows.addObject().put("id", i).put("name", "User " + i);
+        if (i % 2 == 0) {
+          row.put("email", "user" + i + "@example.com");
+        }
+      }
+
+      // When
+      Map<String, Object> result = executeToolDirectly("bulk_insert", args);
+
+      // Then
+      assertFalse((Boolean) result.get("isError"));
+      assertEquals(10, extractDataContent(result).get("affectedRows"));
+
+      JsonNode countArgs = objectMapper.createObjectNode()
+        .put("connectionId", "test-conn")
+        .put("query", "SELECT COUNT(*) AS total FROM users WHERE email IS NULL");
+      Map<String, Object> count = extractDataContent(executeToolDirectly("execute_query", countArgs));
+      @SuppressWarnings("unchecked")
+      List<Map<String, Object>> countRows = (List<Map<String, Object>>) count.get("rows");
+      assertEquals(5, countRows.getFirst().get("total"));
     }
   }
 
@@ -419,6 +901,105 @@ class DatabaseModuleTest {
       assertTrue(content.containsKey("totalQueries"));
       assertTrue(content.containsKey("activeConnections"));
       assertTrue(content.containsKey("connections"));
+      assertEquals(0, ((Number) content.get("cancelledQueries")).intValue());
+      assertEquals(0, ((Number) content.get("timedOutQueries")).intValue());
+    }
+
+    @Test
+    void shouldCountPoolsAgainstConnectionBudget(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabase(dbFile);
+
+      // When
+      Map<String, Object> content = extractDataContent(executeToolDirectly("get_database_metrics", objectMapper.createObjectNode()));
+
+      // Then
+      @SuppressWarnings("unchecked")
+      Map<String, Object> budget = (Map<String, Object>) content.get("connectionBudget");
+      @SuppressWarnings("unchecked")
+      Map<String, Object> pool = (Map<String, Object>) ((Map<String, Object>) content.get("connections")).get("test-conn");
+      assertEquals(((Number) pool.get("capacity")).intValue(), ((Number) budget.get("used")).intValue());
+      assertEquals(0, ((Number) budget.get("rejections")).intValue());
+      assertTrue(content.containsKey("idlePools"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldEvictIdlePoolWhenBudgetIsExhausted(@TempDir Path tempDir) throws Exception {
+      // Given
+      setupTestDatabase(tempDir.resolve("test.db"));
+      Map<String, Object> before = extractDataContent(executeToolDirectly("get_database_metrics", objectMapper.createObjectNode()));
+      int limit = ((Number) ((Map<String, Object>) before.get("connectionBudget")).get("limit")).intValue();
+      Thread.sleep(1_100);
+
+      // When
+      Map<String, Object> connected = executeToolDirectly("connect_database", createConnectArgs("budget-hog", Map.of(
+        "type", "sqlite",
+        "file", tempDir.resolve("hog.db").toString(),
+        "pool", Map.of("readerPoolSize", limit - 1)
+      )));
+      Map<String, Object> afterEviction = extractDataContent(executeToolDirectly("get_database_metrics", objectMapper.createObjectNode()));
+
+      executeToolDirectly("disconnect_database", objectMapper.createObjectNode().put("connectionId", "budget-hog"));
+      QueryResult reused = module.getConnectionManager().executeQuery("test-conn", "SELECT name FROM users", List.of(), 10);
+      Map<String, Object> afterReuse = extractDataContent(executeToolDirectly("get_database_metrics", objectMapper.createObjectNode()));
+
+      // Then
+      assertNotEquals(Boolean.TRUE, connected.get("isError"));
+      Map<String, Object> budget = (Map<String, Object>) afterEviction.get("connectionBudget");
+      assertEquals(1, ((Number) budget.get("evictions")).intValue());
+      assertEquals(limit, ((Number) budget.get("used")).intValue());
+      assertEquals(1, ((Number) ((Map<String, Object>) afterEviction.get("idlePools")).get("reaped")).intValue());
+
+      assertEquals("Test User", reused.rows().getFirst().get("name"));
+      assertEquals(1, ((Number) ((Map<String, Object>) afterReuse.get("idlePools")).get("recreated")).intValue());
+    }
+
+    @Test
+    void shouldReusePreparedStatements(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabase(dbFile);
+
+      // When
+      for (int i = 0; i < 3; i++) {
+        executeTestQuery("test-conn", "SELECT * FROM users WHERE id = 1");
+      }
+      Map<String, Object> content = extractDataContent(executeToolDirectly("get_database_metrics", objectMapper.createObjectNode()));
+
+      // Then
+      @SuppressWarnings("unchecked")
+      Map<String, Object> statementCache = (Map<String, Object>) content.get("statementCache");
+      assertTrue(((Number) statementCache.get("hits")).longValue() >= 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReportLatencyPerStatementFingerprint(@TempDir Path tempDir) throws Exception {
+      // Given
+      Path dbFile = tempDir.resolve("test.db");
+      setupTestDatabase(dbFile);
+
+      // When
+      executeTestQuery("test-conn", "SELECT * FROM users WHERE id = 1");
+      executeTestQuery("test-conn", "SELECT * FROM users WHERE id = 2");
+      Map<String, Object> content = extractDataContent(executeToolDirectly("get_database_metrics",
+        objectMapper.createObjectNode().put("top", 50)));
+
+      // Then
+      Map<String, Object> queries = (Map<String, Object>) content.get("queries");
+      Map<String, Object> connection = (Map<String, Object>) ((Map<String, Object>) queries.get("connections")).get("test-conn");
+      assertTrue(((Number) connection.get("count")).longValue() >= 2);
+      assertTrue(connection.containsKey("p99Ms"));
+
+      List<Map<String, Object>> statements = (List<Map<String, Object>>) queries.get("statements");
+      Map<String, Object> statement = statements.stream()
+        .filter(s -> "SELECT * FROM users WHERE id = ?".equals(s.get("fingerprint")))
+        .findFirst()
+        .orElseThrow();
+      assertEquals(2, ((Number) statement.get("count")).intValue());
+      assertTrue(queries.containsKey("slowQueries"));
     }
   }
 
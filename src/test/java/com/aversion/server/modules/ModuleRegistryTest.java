@@ -0,0 +1,58 @@
+package com.aversion.server.modules;
+
+import com.aversion.server.tools.Tool;
+import com.aversion.server.utils.JsonUtil;
+import com.aversion.server.utils.ReflectionUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the generated module registry matches what classpath scanning finds.
+ */
+class ModuleRegistryTest {
+
+  @Test
+  @DisplayName("Generated registry should be registered as a service")
+  void testRegistryIsGenerated() {
+    assertNotNull(ModuleRegistry.getInstance());
+  }
+
+  @Test
+  @DisplayName("Generated registry should create the same modules and tools as reflection")
+  void testRegistryMatchesReflection() {
+    ModuleRegistry registry = ModuleRegistry.getInstance();
+    assertNotNull(registry);
+
+    Map<String, Map<String, String>> generated = new TreeMap<>();
+    for (BaseModule module : registry.createModules()) {
+      List<Tool> tools = registry.createTools(module);
+      assertNotNull(tools, "No tools generated for module " + module.getId());
+      generated.put(module.getId(), describe(tools));
+    }
+
+    Map<String, Map<String, String>> scanned = new TreeMap<>();
+    for (BaseModule module : ReflectionUtil.getModules()) {
+      scanned.put(module.getId(), describe(ReflectionUtil.getTools(module)));
+    }
+
+    assertFalse(generated.isEmpty());
+    assertEquals(scanned, generated);
+  }
+
+  /**
+   * Describe tools by name, with their description and input schema, for comparison.
+   */
+  private static Map<String, String> describe(List<Tool> tools) {
+    Map<String, String> described = new TreeMap<>();
+    for (Tool tool : tools) {
+      described.put(tool.name(), tool.description() + " " + JsonUtil.getObjectMapper().valueToTree(tool.inputSchema().asMap()));
+    }
+    return described;
+  }
+}
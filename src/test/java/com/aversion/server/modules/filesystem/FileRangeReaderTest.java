@@ -0,0 +1,153 @@
+package com.aversion.server.modules.filesystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for byte range, line range, head and tail reads, using small limits so that truncation
+ * and block boundaries are exercised with short files.
+ */
+class FileRangeReaderTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  @DisplayName("Byte ranges should be narrowed to whole UTF-8 characters")
+  void testRangeSplitsMultiByteCharacter(@TempDir Path tempDir) throws Exception {
+    // a, é (2 bytes), € (3 bytes), b
+    Path file = write(tempDir, "aé€b");
+    FileRangeReader reader = new FileRangeReader(1024, 4);
+
+    FileRangeReader.Slice middle = reader.readRange(file, StandardCharsets.UTF_8, 2, 5);
+    FileRangeReader.Slice start = reader.readRange(file, StandardCharsets.UTF_8, 0, 2);
+
+    assertEquals("€b", middle.content());
+    assertEquals(3, middle.offset());
+    assertEquals(4, middle.length());
+    assertTrue(middle.endOfFile());
+    assertEquals("a", start.content());
+    assertEquals(1, start.nextOffset());
+  }
+
+  @Test
+  @DisplayName("Tail should not count a final newline as another line")
+  void testTailWithFinalNewline(@TempDir Path tempDir) throws Exception {
+    Path file = write(tempDir, "one\ntwo\nthree\n");
+    FileRangeReader reader = new FileRangeReader(1024, 4);
+
+    FileRangeReader.Slice slice = reader.tail(file, StandardCharsets.UTF_8, 2);
+
+    assertEquals("two\nthree\n", slice.content());
+    assertEquals(2, slice.lines());
+    assertTrue(slice.endOfFile());
+  }
+
+  @Test
+  @DisplayName("Tail should return the last lines of a file without a final newline")
+  void testTailWithoutFinalNewline(@TempDir Path tempDir) throws Exception {
+    Path file = write(tempDir, "one\ntwo\nthree");
+    FileRangeReader reader = new FileRangeReader(1024, 4);
+
+    FileRangeReader.Slice slice = reader.tail(file, StandardCharsets.UTF_8, 2);
+    FileRangeReader.Slice everything = reader.tail(file, StandardCharsets.UTF_8, 10);
+
+    assertEquals("two\nthree", slice.content());
+    assertEquals(2, slice.lines());
+    assertEquals("one\ntwo\nthree", everything.content());
+    assertEquals(0, everything.offset());
+  }
+
+  @Test
+  @DisplayName("A truncated tail should keep the end of the file")
+  void testTruncatedTailKeepsEnd(@TempDir Path tempDir) throws Exception {
+    Path file = write(tempDir, "first line\nsecond line\n");
+    FileRangeReader reader = new FileRangeReader(8, 4);
+
+    FileRangeReader.Slice slice = reader.tail(file, StandardCharsets.UTF_8, 1);
+
+    assertTrue(slice.truncated());
+    assertEquals("nd line\n", slice.content());
+    assertEquals(15, slice.offset());
+    assertTrue(slice.endOfFile());
+  }
+
+  @Test
+  @DisplayName("A truncated tail should start at a whole UTF-8 character")
+  void testTruncatedTailSplitsMultiByteCharacter(@TempDir Path tempDir) throws Exception {
+    // x, €, €, newline: the last 5 bytes start inside the first €
+    Path file = write(tempDir, "x€€\n");
+    FileRangeReader reader = new FileRangeReader(5, 2);
+
+    FileRangeReader.Slice slice = reader.tail(file, StandardCharsets.UTF_8, 1);
+
+    assertTrue(slice.truncated());
+    assertEquals("€\n", slice.content());
+    assertEquals(4, slice.offset());
+    assertEquals(4, slice.length());
+  }
+
+  @Test
+  @DisplayName("A truncated head should keep the start of the file")
+  void testTruncatedHeadKeepsStart(@TempDir Path tempDir) throws Exception {
+    Path file = write(tempDir, "abcdef\nghi\n");
+    FileRangeReader reader = new FileRangeReader(4, 4);
+
+    FileRangeReader.Slice slice = reader.head(file, StandardCharsets.UTF_8, 1);
+
+    assertTrue(slice.truncated());
+    assertEquals("abcd", slice.content());
+    assertEquals(0, slice.offset());
+    assertEquals(4, slice.nextOffset());
+  }
+
+  @Test
+  @DisplayName("Line reads starting past the end of the file should be empty")
+  void testStartLinePastEndOfFile(@TempDir Path tempDir) throws Exception {
+    Path file = write(tempDir, "a\nb\n");
+    FileRangeReader reader = new FileRangeReader(1024, 4);
+
+    FileRangeReader.Slice slice = reader.readLines(file, StandardCharsets.UTF_8, 10, 5);
+
+    assertEquals("", slice.content());
+    assertEquals(0, slice.length());
+    assertEquals(0, slice.lines());
+    assertTrue(slice.endOfFile());
+  }
+
+  @Test
+  @DisplayName("Reading should reject arguments that combine several modes")
+  void testModesAreMutuallyExclusive(@TempDir Path tempDir) throws Exception {
+    Path file = write(tempDir, "a\nb\n");
+    FileRangeReader reader = new FileRangeReader(1024, 4);
+    ObjectNode headAndTail = objectMapper.createObjectNode().put("head", 1).put("tail", 1);
+    ObjectNode rangeAndLines = objectMapper.createObjectNode().put("offset", 0).put("startLine", 1);
+
+    assertThrows(IllegalArgumentException.class, () -> reader.read(file, StandardCharsets.UTF_8, headAndTail));
+    assertThrows(IllegalArgumentException.class, () -> reader.read(file, StandardCharsets.UTF_8, rangeAndLines));
+    assertEquals("b\n", reader.read(file, StandardCharsets.UTF_8, objectMapper.createObjectNode().put("tail", 1)).content());
+  }
+
+  @Test
+  @DisplayName("Reading a whole file larger than the read limit should fail")
+  void testReadAllOverLimit(@TempDir Path tempDir) throws Exception {
+    Path file = write(tempDir, "abcdef");
+    FileRangeReader reader = new FileRangeReader(4, 4);
+
+    assertThrows(IllegalArgumentException.class, () -> reader.readAll(file, StandardCharsets.UTF_8));
+  }
+
+  private static Path write(Path tempDir, String content) throws Exception {
+    Path file = tempDir.resolve("file.txt");
+    Files.writeString(file, content, StandardCharsets.UTF_8);
+    return file;
+  }
+}
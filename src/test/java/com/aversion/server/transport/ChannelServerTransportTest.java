@@ -0,0 +1,183 @@
+package com.aversion.server.transport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for framing, error recovery and output of the channel transport.
+ */
+class ChannelServerTransportTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  @DisplayName("Transport should reassemble a message split in the middle of a token")
+  void testMessageSplitMidToken() throws Exception {
+    List<JsonNode> received = run(
+      "{\"jsonrpc\":\"2.0\",\"id\":1,\"meth",
+      "od\":\"ping\",\"params\":{\"text\":\"hel",
+      "lo\"}}\n"
+    ).received();
+
+    assertEquals(1, received.size());
+    assertEquals("ping", received.getFirst().path("method").asText());
+    assertEquals("hello", received.getFirst().path("params").path("text").asText());
+  }
+
+  @Test
+  @DisplayName("Transport should decode several messages from one read")
+  void testSeveralMessagesInOneChunk() throws Exception {
+    List<JsonNode> received = run(
+      "{\"id\":1,\"method\":\"a\"}\n{\"id\":2,\"method\":\"b\"}{\"id\":3,\"method\":\"c\"}\n"
+    ).received();
+
+    assertEquals(3, received.size());
+    assertEquals(List.of(1, 2, 3), received.stream().map(node -> node.path("id").asInt()).toList());
+  }
+
+  @Test
+  @DisplayName("Transport should answer malformed JSON with a parse error and resume at the next line")
+  void testResyncAfterMalformedMessage() throws Exception {
+    Result result = run(
+      "{\"id\":1,\"method\":oops}\n{\"id\":2,",
+      "\"method\":\"valid\"}\n"
+    );
+
+    assertEquals(1, result.received().size());
+    assertEquals("valid", result.received().getFirst().path("method").asText());
+
+    JsonNode parseError = result.responses().stream()
+      .filter(response -> response.has("error"))
+      .findFirst()
+      .orElseThrow();
+    assertEquals(-32700, parseError.path("error").path("code").asInt());
+    assertTrue(result.responses().stream().anyMatch(response -> response.path("id").asInt() == 2));
+  }
+
+  @Test
+  @DisplayName("Transport should write responses larger than its buffers as a single line")
+  void testLargeResponse() throws Exception {
+    String payload = "x".repeat(200_000);
+    Result result = run(new Echo(payload), "{\"id\":1,\"method\":\"big\"}\n");
+
+    assertEquals(1, result.responses().size());
+    assertEquals(payload, result.responses().getFirst().path("payload").asText());
+  }
+
+  @Test
+  @DisplayName("Buffer pool should reuse returned buffers up to its capacity")
+  void testBufferPoolReturn() {
+    ByteBufferPool pool = new ByteBufferPool(16, 1);
+
+    ByteBuffer first = pool.acquire();
+    ByteBuffer second = pool.acquire();
+    first.put((byte) 1);
+    pool.release(first);
+    pool.release(second);
+    pool.release(ByteBuffer.allocateDirect(8));
+
+    ByteBuffer reused = pool.acquire();
+    assertSame(first, reused);
+    assertEquals(0, reused.position());
+    assertNotSame(second, pool.acquire());
+  }
+
+  private Result run(String... chunks) throws Exception {
+    return run(new Echo(null), chunks);
+  }
+
+  private Result run(Echo echo, String... chunks) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ChannelServerTransport transport = new ChannelServerTransport(new ChunkedChannel(chunks), Channels.newChannel(output));
+    List<JsonNode> received = new CopyOnWriteArrayList<>();
+    transport.onJsonMessage(message -> {
+      received.add(message);
+      return CompletableFuture.completedFuture(echo.respond(message));
+    });
+
+    transport.start();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (transport.isRunning() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    // Responses are written asynchronously after the input ends
+    transport.sendMessage("{}").get(5, TimeUnit.SECONDS);
+    transport.stop();
+
+    List<JsonNode> responses = new ArrayList<>();
+    String written;
+    synchronized (output) {
+      written = output.toString(StandardCharsets.UTF_8);
+    }
+    for (String line : written.split("\n")) {
+      JsonNode response = objectMapper.readTree(line);
+      if (!response.isEmpty()) {
+        responses.add(response);
+      }
+    }
+    return new Result(received, responses);
+  }
+
+  private record Result(List<JsonNode> received, List<JsonNode> responses) {
+  }
+
+  private record Echo(String payload) {
+    String respond(JsonNode message) {
+      String id = message.path("id").toString();
+      return payload == null
+        ? "{\"id\":" + id + "}"
+        : "{\"id\":" + id + ",\"payload\":\"" + payload + "\"}";
+    }
+  }
+
+  /**
+   * Channel that returns one chunk per read, then end of stream.
+   */
+  private static final class ChunkedChannel implements ReadableByteChannel {
+    private final Queue<byte[]> chunks = new ArrayDeque<>();
+    private boolean open = true;
+
+    ChunkedChannel(String... chunks) {
+      for (String chunk : chunks) {
+        this.chunks.add(chunk.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+
+    @Override
+    public int read(ByteBuffer destination) {
+      byte[] chunk = chunks.poll();
+      if (chunk == null) {
+        return -1;
+      }
+      destination.put(chunk);
+      return chunk.length;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return open;
+    }
+
+    @Override
+    public void close() {
+      open = false;
+    }
+  }
+}